@@ -4,6 +4,7 @@ package cs3500.solored;
 import java.io.InputStreamReader;
 
 import cs3500.solored.controller.SoloRedTextController;
+import cs3500.solored.controller.analysis.SpeculativeAnalyzer;
 import cs3500.solored.model.hw02.RedGameModel;
 import cs3500.solored.model.hw04.RedGameCreator;
 
@@ -53,9 +54,12 @@ public final class SoloRed {
       }
     }
 
+    // Analyzes each position while the player thinks, so that hints are ready when asked for.
+    SpeculativeAnalyzer analyzer = new SpeculativeAnalyzer();
     SoloRedTextController controller = new SoloRedTextController(
             new InputStreamReader(System.in),
-            System.out
+            System.out,
+            analyzer
     );
 
     // Running the game. If the game would crash, prints out the error message and exits
@@ -63,6 +67,8 @@ public final class SoloRed {
       controller.playGame(model, model.getAllCards(), true, p, h);
     } catch (Exception e) {
       System.err.println(e.getMessage());
+    } finally {
+      analyzer.shutdown();
     }
   }
 }
@@ -0,0 +1,88 @@
+package cs3500.solored.controller;
+
+import java.util.List;
+
+import cs3500.solored.controller.bots.Policy;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.Card;
+import cs3500.solored.model.hw02.MoveStatus;
+import cs3500.solored.model.hw02.RedGameModel;
+
+/**
+ * A controller for a game of Solo Red that is played by a bot instead of a person. Nothing is
+ * rendered or parsed: every command comes from a {@link Policy}, and is run on the model as soon
+ * as it is picked, so a game is played as fast as the bot can pick. It plays either variant of the
+ * game, as any {@link AbstractSoloRedGameModel}.
+ */
+public class BotController implements RedGameController {
+  private final Policy policy;
+  // The number of commands run in the last game played.
+  private int numCommands;
+
+  /**
+   * Creates a new BotController, which plays every game with the given bot.
+   * @param policy The bot that picks every command.
+   * @throws IllegalArgumentException If policy is null.
+   */
+  public BotController(Policy policy) throws IllegalArgumentException {
+    if (policy == null) {
+      throw new IllegalArgumentException("The controller's policy should not be null.");
+    }
+    this.policy = policy;
+  }
+
+  /**
+   * Plays a new game of Solo Red, until it is over. The model must be an
+   * {@link AbstractSoloRedGameModel}, since bots list its legal plays and look ahead on it.
+   *
+   * @param model       The model to play the game with.
+   * @param deck        The deck to play the game with.
+   * @param shuffle     Whether the deck should be shuffled.
+   * @param numPalettes The number of Palettes to use.
+   * @param handSize    The size of the player's hand.
+   * @throws IllegalArgumentException If the provided model is null or not an
+   *                                  AbstractSoloRedGameModel, or the game cannot start. The model
+   *                                  is checked before the game is started.
+   * @throws IllegalStateException    Only if the bot picks a command the model does not allow.
+   */
+  @Override
+  public <C extends Card> void playGame(
+          RedGameModel<C> model,
+          List<C> deck,
+          boolean shuffle,
+          int numPalettes,
+          int handSize
+  ) throws IllegalArgumentException, IllegalStateException {
+
+    if (model == null) {
+      throw new IllegalArgumentException("Model cannot be null!");
+    }
+    if (!(model instanceof AbstractSoloRedGameModel)) {
+      throw new IllegalArgumentException("A bot can only play a model that lists its plays!");
+    }
+    AbstractSoloRedGameModel game = (AbstractSoloRedGameModel) model;
+    try {
+      model.startGame(deck, shuffle, numPalettes, handSize);
+    } catch (Exception e) {
+      throw new IllegalArgumentException("The model was unable to start!", e);
+    }
+
+    numCommands = 0;
+    while (!model.isGameOver()) {
+      MoveStatus status = policy.nextCommand(game).execute(model);
+      if (status != MoveStatus.PLAYED) {
+        throw new IllegalStateException("The bot picked a command the model rejected: " + status);
+      }
+      numCommands++;
+    }
+  }
+
+  /**
+   * Returns the number of commands run in the last game this controller played, counting plays to
+   * the canvas and to a palette alike.
+   * @return The number of commands, 0 if no game was played.
+   */
+  public int getNumCommands() {
+    return numCommands;
+  }
+}
@@ -6,10 +6,14 @@ import java.util.List;
 import java.util.Scanner;
 import java.util.function.Function;
 
+import cs3500.solored.controller.analysis.SpeculativeAnalyzer;
+import cs3500.solored.controller.commands.HintCommand;
 import cs3500.solored.controller.commands.PlayToCanvasCommand;
 import cs3500.solored.controller.commands.PlayToPaletteCommand;
 import cs3500.solored.controller.commands.RedGameCommand;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
 import cs3500.solored.model.hw02.Card;
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
 import cs3500.solored.view.hw02.RedGameView;
 import cs3500.solored.view.hw02.SoloRedGameTextView;
@@ -18,10 +22,15 @@ import cs3500.solored.view.hw02.SoloRedGameTextView;
  * A controller for a game of Solo Red.
  */
 public class SoloRedTextController implements RedGameController {
+  // The most time a hint waits for its analysis, used when no time is given, in milliseconds.
+  private static final long DEFAULT_HINT_MILLIS = 3000;
+
   private final Scanner scan;
   private final Appendable ap;
   private RedGameView view;
   private RedGameModel model;
+  // Analyzes each position while the player thinks. Null if this controller does not analyze.
+  private SpeculativeAnalyzer analyzer;
 
   // This message is used to create and identify the specific IllegalStateExceptions that should
   // not be stopped in the playGame() method. In other words, IllegalStateExceptions that have this
@@ -57,6 +66,45 @@ public class SoloRedTextController implements RedGameController {
     makeKnownCommands();
   }
 
+  /**
+   * Creates a new SoloRedTextController that also analyzes every position in the background while
+   * it waits for the player's input, and answers the 'hint' command, waiting up to three seconds
+   * for each hint. Analysis only runs for models that support it, which both variants of the game
+   * do, and only hints add to what the controller outputs.
+   * @param rd The Readable this controller will use as input.
+   * @param ap The Appendable this controller will use as output.
+   * @param analyzer The analyzer to start on every position.
+   * @throws IllegalArgumentException if and only if rd, ap or analyzer is null.
+   */
+  public SoloRedTextController(Readable rd, Appendable ap, SpeculativeAnalyzer analyzer)
+          throws IllegalArgumentException {
+    this(rd, ap, analyzer, DEFAULT_HINT_MILLIS);
+  }
+
+  /**
+   * Creates a new SoloRedTextController that also analyzes every position in the background while
+   * it waits for the player's input, and answers the 'hint' command. A hint that is not ready in
+   * time says so, so that the game never stalls for longer than the given time.
+   * @param rd The Readable this controller will use as input.
+   * @param ap The Appendable this controller will use as output.
+   * @param analyzer The analyzer to start on every position.
+   * @param hintMillis The most time a hint waits for its analysis, in milliseconds.
+   * @throws IllegalArgumentException if and only if rd, ap or analyzer is null, or hintMillis is
+   *                                  negative.
+   */
+  public SoloRedTextController(Readable rd, Appendable ap, SpeculativeAnalyzer analyzer,
+                               long hintMillis) throws IllegalArgumentException {
+    this(rd, ap);
+    if (analyzer == null) {
+      throw new IllegalArgumentException("The controller's analyzer should not be null.");
+    }
+    if (hintMillis < 0) {
+      throw new IllegalArgumentException("A hint cannot wait a negative time.");
+    }
+    this.analyzer = analyzer;
+    knownCommands.put("hint", s -> new HintCommand(analyzer, this.ap, hintMillis));
+  }
+
   /**
    * Adds all builders for all commands to knownCommands.
    */
@@ -119,6 +167,7 @@ public class SoloRedTextController implements RedGameController {
         } catch (IOException e) {
           throw new IllegalStateException(IN_OUT_FAIL_MESSAGE, e);
         }
+        speculate();
         getInputAndRunCommand();
       }
 
@@ -127,6 +176,21 @@ public class SoloRedTextController implements RedGameController {
       if (!e.getMessage().equals(QUIT_MESSAGE)) {
         throw e;
       }
+    } finally {
+      if (analyzer != null) {
+        analyzer.cancel();
+      }
+    }
+  }
+
+  /**
+   * Starts analyzing the current position in the background while the player thinks, if this
+   * controller analyzes and the model supports it. An analysis of the same position that is
+   * already running is kept.
+   */
+  private void speculate() {
+    if (analyzer != null && model instanceof AbstractSoloRedGameModel) {
+      analyzer.speculate((AbstractSoloRedGameModel) model);
     }
   }
 
@@ -155,26 +219,16 @@ public class SoloRedTextController implements RedGameController {
     } else {
       // Build the command.
       command = cmdBuilder.apply(scan);
-      try {
-        command.execute(model);
-      } catch (IllegalStateException e) {
-        // If input/output fails in a way this program can deal with,
-        // (i.e. not an IOException), throw an IllegalStateException.
-        // If quitting, use that exception to escape.
-        if (e.getMessage() != null
-                && (e.getMessage().equals(IN_OUT_FAIL_MESSAGE)
-                || e.getMessage().equals(QUIT_MESSAGE))
-        ) {
-          throw e;
-        } else {
-          // If the message wasn't from I/O errors or quitting,
-          // then the model threw an IllegalStateException.
-          // If the model threw an exception, then the user must have entered an invalid input.
-          badInput(input, e);
-        }
-      } catch (Exception e) {
-        // If the model threw an exception, then the user must have entered an invalid input.
-        badInput(input, e);
+      // The model reports moves it does not allow instead of throwing, so only I/O failures and
+      // quitting are left to escape as exceptions.
+      MoveStatus status = command.execute(model);
+      if (status == MoveStatus.PLAYED && analyzer != null && command.isMove()) {
+        // The position changed, so its analysis is no longer needed.
+        analyzer.cancel();
+      }
+      if (status != MoveStatus.PLAYED) {
+        // If the model did not allow the move, then the user must have entered an invalid input.
+        badInput(input, status);
       }
     }
   }
@@ -274,32 +328,31 @@ public class SoloRedTextController implements RedGameController {
 
   /**
    * Outputs to ap that the given input was invalid, and provides a helpful response.
-   * Input is considered invalid if it causes the model to throw any exception except an
-   * IllegalStateException with the message stored as a field of this controller.
+   * Input is considered invalid if the model did not allow the move it describes.
    * @param input The string that matched a command.
-   * @param exception The exception thrown by the model.
+   * @param status Why the model did not allow the move.
    * @throws IllegalStateException If input/output fails for some reason.
    */
-  private void badInput(String input, Exception exception) throws IllegalStateException {
+  private void badInput(String input, MoveStatus status) throws IllegalStateException {
     try {
       ap.append("Invalid move. Try again. ");
       switch (input) {
         case "canvas": {
-          if (exception instanceof IllegalStateException) {
+          if (status.isIndexOutOfRange()) {
+            ap.append("Make sure you're indexes are in range.");
+          } else {
             ap.append(
                     "Make sure you aren't playing to the canvas twice"
                             + " or when there is only 1 card in hand."
             );
-          } else if (exception instanceof IllegalArgumentException) {
-            ap.append("Make sure you're indexes are in range.");
           }
         }
         break;
         case "palette": {
-          if (exception instanceof IllegalStateException) {
-            ap.append("Make sure you aren't playing to a wining palette.");
-          } else if (exception instanceof IllegalArgumentException) {
+          if (status.isIndexOutOfRange()) {
             ap.append("Make sure you're indexes are in range.");
+          } else {
+            ap.append("Make sure you aren't playing to a wining palette.");
           }
         }
         break;
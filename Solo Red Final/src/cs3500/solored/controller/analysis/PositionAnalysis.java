@@ -0,0 +1,98 @@
+package cs3500.solored.controller.analysis;
+
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.solver.WinEstimate;
+
+/**
+ * What a {@link SpeculativeAnalyzer} worked out about one position of a game of RedSeven: which
+ * plays are safe, whether the game can still be won, and which play gives the best chance of
+ * winning it. Every play is encoded by {@link RedMove}.
+ */
+public final class PositionAnalysis {
+  private final int[] moves;
+  // Whether each play keeps the game going, rather than losing it at once.
+  private final boolean[] safe;
+  private final boolean provablyLost;
+  // The estimated chance of winning after each play. Null if the game is provably lost.
+  private final WinEstimate estimate;
+
+  /**
+   * Creates a new PositionAnalysis.
+   * @param moves The legal plays of the position.
+   * @param safe Whether each play keeps the game going.
+   * @param provablyLost Whether the game can no longer be won, whatever is played.
+   * @param estimate The estimated chance of winning after each play, or null if the game is
+   *                 provably lost.
+   */
+  PositionAnalysis(int[] moves, boolean[] safe, boolean provablyLost, WinEstimate estimate) {
+    this.moves = moves.clone();
+    this.safe = safe.clone();
+    this.provablyLost = provablyLost;
+    this.estimate = estimate;
+  }
+
+  /**
+   * Returns the play with the best estimated chance of winning. If the game is provably lost,
+   * this is the first play that does not lose it at once, or the first play if they all do.
+   * @return The recommended play.
+   */
+  public int getBestMove() {
+    if (estimate != null) {
+      return estimate.getBestMove();
+    }
+    for (int i = 0; i < moves.length; i++) {
+      if (safe[i]) {
+        return moves[i];
+      }
+    }
+    return moves[0];
+  }
+
+  /**
+   * Returns the estimated chance of winning with the best play.
+   * @return The chance of winning, from 0 to 1, which is 0 if the game is provably lost.
+   */
+  public double getWinChance() {
+    if (estimate == null) {
+      return 0;
+    }
+    int best = estimate.getBestMove();
+    for (int i = 0; i < estimate.getNumMoves(); i++) {
+      if (estimate.getMove(i) == best) {
+        return estimate.getWinProbability(i);
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * Returns if the game can no longer be won, whatever is played and however the deck is ordered.
+   * A game that is not provably lost may still be lost.
+   * @return If the game is provably lost.
+   */
+  public boolean isProvablyLost() {
+    return provablyLost;
+  }
+
+  /**
+   * Returns if the given play is legal and keeps the game going, rather than losing it at once.
+   * @param move A play, encoded by {@link RedMove}.
+   * @return If the play is safe, false if it is not legal in the analyzed position.
+   */
+  public boolean isSafe(int move) {
+    for (int i = 0; i < moves.length; i++) {
+      if (moves[i] == move) {
+        return safe[i];
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the estimated chance of winning after every play, if the game is not provably lost.
+   * @return The estimate, or null if the game is provably lost.
+   */
+  public WinEstimate getEstimate() {
+    return estimate;
+  }
+}
@@ -0,0 +1,243 @@
+package cs3500.solored.controller.analysis;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.solver.WinProbabilityEstimator;
+
+/**
+ * Analyzes positions of a game of RedSeven in the background, so that a controller can start on
+ * the current position while it waits for the player, and answer questions about it at once.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Analysis runs on a single daemon thread, on a fork of the game taken when it is asked
+ *   for, so the game itself may be played on while it runs.</li>
+ *   <li>Only one position is analyzed at a time, identified by
+ *   {@link AbstractSoloRedGameModel#fingerprint()}. Asking for the same position again reuses the
+ *   analysis that is running or done, and asking for another position cancels it.</li>
+ *   <li>The chance of winning is estimated by a {@link WinProbabilityEstimator}, within a time
+ *   budget, unless the game is provably lost.</li>
+ *   <li>Finished analyses are kept in a bounded cache, keyed by fingerprint, which forgets the
+ *   least recently used position first. A position that comes back, after an undo or by another
+ *   order of plays, is answered from the cache without being analyzed again.</li>
+ * </ul>
+ */
+public class SpeculativeAnalyzer {
+  // The most orders of the deck an analysis samples, used by the default constructor.
+  private static final int DEFAULT_MAX_SAMPLES = 10_000;
+  // The time an analysis may take, used by the default constructor.
+  private static final long DEFAULT_BUDGET_MILLIS = 2000;
+  // The most finished analyses to keep, used by the default constructor.
+  private static final int DEFAULT_CACHE_SIZE = 1024;
+
+  private final WinProbabilityEstimator estimator;
+  private final int maxSamples;
+  private final long budgetMillis;
+  private final ExecutorService executor;
+  // The finished analyses, by fingerprint, least recently used first. Guarded by this analyzer's
+  // lock.
+  private final LinkedHashMap<Long, PositionAnalysis> cache;
+  // The fingerprint of the position being analyzed, and its analysis. Null until a position is
+  // first analyzed, and after it is cancelled. Both are guarded by this analyzer's lock.
+  private long currentKey;
+  private Future<PositionAnalysis> current;
+
+  /**
+   * Creates an analyzer that estimates with a {@link WinProbabilityEstimator} using every
+   * processor, for up to two seconds per position, and remembers the last 1024 positions.
+   */
+  public SpeculativeAnalyzer() {
+    this(new WinProbabilityEstimator(), DEFAULT_MAX_SAMPLES, DEFAULT_BUDGET_MILLIS,
+            DEFAULT_CACHE_SIZE);
+  }
+
+  /**
+   * Creates an analyzer that estimates with the given estimator. The analyzer owns the estimator
+   * from then on, and shuts it down in {@link #shutdown()}.
+   * @param estimator The estimator of the chance of winning after each play.
+   * @param maxSamples The most orders of the deck to sample for one position.
+   * @param budgetMillis The time to sample one position for, in milliseconds.
+   * @param cacheSize The most finished analyses to remember.
+   * @throws IllegalArgumentException If estimator is null, or maxSamples, budgetMillis or
+   *                                  cacheSize is not positive.
+   */
+  public SpeculativeAnalyzer(WinProbabilityEstimator estimator, int maxSamples,
+                             long budgetMillis, int cacheSize) {
+    if (estimator == null) {
+      throw new IllegalArgumentException("The estimator may not be null!");
+    }
+    if (maxSamples <= 0) {
+      throw new IllegalArgumentException("An analysis needs at least 1 sample, not " + maxSamples);
+    }
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException(
+              "An analysis needs a positive budget, not " + budgetMillis
+      );
+    }
+    if (cacheSize <= 0) {
+      throw new IllegalArgumentException("The cache needs room for at least 1 analysis!");
+    }
+    this.estimator = estimator;
+    this.maxSamples = maxSamples;
+    this.budgetMillis = budgetMillis;
+    this.executor = Executors.newSingleThreadExecutor(r -> {
+      Thread thread = new Thread(r, "SpeculativeAnalyzer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.current = null;
+    this.cache = new LinkedHashMap<Long, PositionAnalysis>(16, 0.75f, true) {
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Long, PositionAnalysis> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Starts analyzing the current position of the given game in the background, unless it is
+   * already being analyzed or its analysis is cached. Any analysis of another position is
+   * cancelled. Returns at once.
+   *
+   * @param model the game to analyze, which must be running
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game is not running, or this analyzer was shut down
+   */
+  public synchronized void speculate(AbstractSoloRedGameModel model) {
+    start(model);
+  }
+
+  /**
+   * Returns the analysis of the current position of the given game, from the cache if it was
+   * analyzed before, reusing the analysis that was started in the background if there is one, and
+   * starting it otherwise. Waits for it for at most the given time.
+   *
+   * @param model the game to analyze, which must be running
+   * @param timeoutMillis the most time to wait for the analysis, in milliseconds
+   * @return the analysis, or null if it did not finish in time
+   * @throws IllegalArgumentException if model is null or timeoutMillis is negative
+   * @throws IllegalStateException if the game is not running, this analyzer was shut down, the
+   *                               analysis failed, or the calling thread is interrupted
+   */
+  public PositionAnalysis analysis(AbstractSoloRedGameModel model, long timeoutMillis) {
+    if (timeoutMillis < 0) {
+      throw new IllegalArgumentException("Cannot wait for " + timeoutMillis + " milliseconds!");
+    }
+    Future<PositionAnalysis> analysis;
+    synchronized (this) {
+      PositionAnalysis cached = start(model);
+      if (cached != null) {
+        return cached;
+      }
+      analysis = current;
+    }
+    try {
+      return analysis.get(timeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException | CancellationException e) {
+      return null;
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("The analysis failed!", e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for the analysis!");
+    }
+  }
+
+  /**
+   * Returns the number of finished analyses this analyzer remembers.
+   * @return The number of cached positions.
+   */
+  public synchronized int getNumCached() {
+    return cache.size();
+  }
+
+  /**
+   * Cancels the analysis that is running, if any, so that the processors are free. Its position
+   * will be analyzed from the start if it is asked for again.
+   */
+  public synchronized void cancel() {
+    if (current != null) {
+      current.cancel(true);
+      current = null;
+    }
+  }
+
+  /**
+   * Cancels any analysis, and stops the background thread and the threads of the estimator. The
+   * analyzer cannot be used afterwards.
+   */
+  public synchronized void shutdown() {
+    cancel();
+    executor.shutdownNow();
+    estimator.shutdown();
+  }
+
+  /**
+   * Returns the cached analysis of the current position of the given game, or starts analyzing
+   * it in the background, unless it is already being analyzed. Must hold this analyzer's lock.
+   * @param model The game to analyze, which must be running.
+   * @return The cached analysis, or null if it is not cached.
+   * @throws IllegalArgumentException If model is null.
+   * @throws IllegalStateException If the game is not running, or this analyzer was shut down.
+   */
+  private PositionAnalysis start(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot analyze a null model!");
+    }
+    if (model.isGameOver()) {
+      throw new IllegalStateException("The game is over, there is nothing to analyze!");
+    }
+    long key = model.fingerprint();
+    PositionAnalysis cached = cache.get(key);
+    if (cached != null) {
+      if (currentKey != key) {
+        cancel();
+      }
+      return cached;
+    }
+    if (current != null && currentKey == key && !current.isCancelled()) {
+      return null;
+    }
+    cancel();
+    AbstractSoloRedGameModel game = model.fork();
+    try {
+      current = executor.submit(() -> analyze(key, game));
+    } catch (RuntimeException e) {
+      throw new IllegalStateException("The analyzer was shut down!", e);
+    }
+    currentKey = key;
+    return null;
+  }
+
+  /**
+   * Analyzes the current position of the given game, on the background thread, and caches the
+   * analysis once it is finished.
+   * @param key The fingerprint of the position.
+   * @param game The game to analyze, which belongs to this analysis.
+   * @return The analysis.
+   */
+  private PositionAnalysis analyze(long key, AbstractSoloRedGameModel game) {
+    int[] moves = game.getLegalMoves();
+    boolean[] safe = new boolean[moves.length];
+    for (int i = 0; i < moves.length; i++) {
+      safe[i] = RedMove.isCanvas(moves[i])
+              || game.winnerAfter(moves[i]) == RedMove.paletteIdx(moves[i]);
+    }
+    boolean lost = game.isProvablyLost();
+    PositionAnalysis analysis = new PositionAnalysis(moves, safe, lost,
+            lost ? null : estimator.estimate(game, maxSamples, budgetMillis));
+    synchronized (this) {
+      cache.put(key, analysis);
+    }
+    return analysis;
+  }
+}
@@ -0,0 +1,61 @@
+package cs3500.solored.controller.bots;
+
+import java.util.Random;
+
+import cs3500.solored.controller.commands.PlayToCanvasCommand;
+import cs3500.solored.controller.commands.PlayToPaletteCommand;
+import cs3500.solored.controller.commands.RedGameCommand;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * A bot that lists the legal plays of a game without allocating, lets a {@link PlayoutPolicy}
+ * pick one, and turns it into the command that makes it.
+ */
+final class MovePolicy implements Policy {
+  private final PlayoutPolicy playout;
+  private final Random rand;
+  // Reused for every play, and grown when a game has more legal plays than it fits.
+  private int[] moves;
+
+  /**
+   * Creates a bot from the given playout policy.
+   * @param playout The policy that picks each play.
+   * @param rand The random object the policy picks with.
+   * @throws IllegalArgumentException If either argument is null.
+   */
+  MovePolicy(PlayoutPolicy playout, Random rand) {
+    if (playout == null) {
+      throw new IllegalArgumentException("The playout policy may not be null!");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("The given Random object must not be null!");
+    }
+    this.playout = playout;
+    this.rand = rand;
+    this.moves = new int[0];
+  }
+
+  @Override
+  public RedGameCommand nextCommand(AbstractSoloRedGameModel game) {
+    if (game == null) {
+      throw new IllegalArgumentException("Cannot pick a command for a null model!");
+    }
+    int numMoves = game.numLegalMoves();
+    if (numMoves == 0) {
+      throw new IllegalStateException("The game is over, there is no command to pick!");
+    }
+    if (moves.length < numMoves) {
+      moves = new int[numMoves];
+    }
+    game.legalMoves(moves);
+
+    int move = playout.chooseMove(game, moves, numMoves, rand);
+    // Commands count from 1.
+    if (RedMove.isCanvas(move)) {
+      return new PlayToCanvasCommand(RedMove.cardIdxInHand(move) + 1);
+    }
+    return new PlayToPaletteCommand(RedMove.paletteIdx(move) + 1, RedMove.cardIdxInHand(move) + 1);
+  }
+}
@@ -0,0 +1,64 @@
+package cs3500.solored.controller.bots;
+
+import java.util.Random;
+
+import cs3500.solored.controller.commands.RedGameCommand;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * A bot player of RedSeven, which picks the next command to run on a game from the state of the
+ * game alone. Bots are driven by a {@link cs3500.solored.controller.BotController}, which never
+ * renders or parses anything. Bots play either variant of the game, since they list its legal
+ * plays and look ahead with {@link AbstractSoloRedGameModel}.
+ */
+public interface Policy {
+
+  /**
+   * Picks the next command to run on the given game. The command is run by the caller, and a play
+   * to a palette draws for the hand like any other {@link RedGameCommand}.
+   * @param model The game being played, which must be running. It is left as it was.
+   * @return The command to run next, which the model should allow.
+   * @throws IllegalArgumentException If model is null.
+   * @throws IllegalStateException If the game is not running.
+   */
+  RedGameCommand nextCommand(AbstractSoloRedGameModel model);
+
+  /**
+   * Returns a bot that plays a game the way the given playout policy would in a simulation.
+   * @param playout The policy that picks each play.
+   * @param rand The random object the policy picks with.
+   * @return The bot, which should only be used by one thread at a time.
+   * @throws IllegalArgumentException If either argument is null.
+   */
+  static Policy of(PlayoutPolicy playout, Random rand) {
+    return new MovePolicy(playout, rand);
+  }
+
+  /**
+   * Returns a bot that picks any legal play, each as likely as the others.
+   * @param rand The random object the bot picks with.
+   * @return The bot, which should only be used by one thread at a time.
+   * @throws IllegalArgumentException If rand is null.
+   */
+  static Policy randomLegal(Random rand) {
+    return of(PlayoutPolicy.uniformRandom(), rand);
+  }
+
+  /**
+   * Returns a bot that makes the emptiest palette it can the winner, see
+   * {@link PlayoutPolicy#greedy()}.
+   * @return The bot, which should only be used by one thread at a time.
+   */
+  static Policy greedy() {
+    return of(PlayoutPolicy.greedy(), new Random(0));
+  }
+
+  /**
+   * Returns a bot that looks one turn ahead, see {@link PlayoutPolicy#oneTurnLookahead()}.
+   * @return The bot, which should only be used by one thread at a time.
+   */
+  static Policy oneTurnLookahead() {
+    return of(PlayoutPolicy.oneTurnLookahead(), new Random(0));
+  }
+}
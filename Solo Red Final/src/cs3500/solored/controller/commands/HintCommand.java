@@ -0,0 +1,79 @@
+package cs3500.solored.controller.commands;
+
+import java.io.IOException;
+
+import cs3500.solored.controller.analysis.PositionAnalysis;
+import cs3500.solored.controller.analysis.SpeculativeAnalyzer;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.MoveStatus;
+import cs3500.solored.model.hw02.RedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * A command to output the recommended play of a RedGameModel, and whether it can still be won.
+ * It does not play a move.
+ */
+public class HintCommand implements RedGameCommand {
+  private final SpeculativeAnalyzer analyzer;
+  private final Appendable ap;
+  // The most time to wait for the analysis, in milliseconds.
+  private final long timeoutMillis;
+
+  /**
+   * A command to output a hint for the current position of a RedGameModel.
+   * @param analyzer The analyzer to ask about the position.
+   * @param ap The Appendable to output the hint to.
+   * @param timeoutMillis The most time to wait for the analysis, in milliseconds.
+   */
+  public HintCommand(SpeculativeAnalyzer analyzer, Appendable ap, long timeoutMillis) {
+    this.analyzer = analyzer;
+    this.ap = ap;
+    this.timeoutMillis = timeoutMillis;
+  }
+
+  /**
+   * Outputs the recommended play of the given model, and whether it can still be won. If the
+   * analysis does not finish in time, says so instead, and it keeps running in the background.
+   * @param model The model to give a hint for.
+   * @return PLAYED if the hint was output, or NOT_RUNNING if the game is not running.
+   * @throws IllegalStateException If output fails.
+   */
+  @Override
+  public MoveStatus execute(RedGameModel model) {
+    if (model.isGameOver()) {
+      return MoveStatus.NOT_RUNNING;
+    }
+    try {
+      if (!(model instanceof AbstractSoloRedGameModel)) {
+        ap.append("No hints are available for this game.\n");
+        return MoveStatus.PLAYED;
+      }
+      PositionAnalysis analysis = analyzer.analysis((AbstractSoloRedGameModel) model,
+              timeoutMillis);
+      if (analysis == null) {
+        ap.append("Still thinking about this position. Ask for a hint again soon.\n");
+        return MoveStatus.PLAYED;
+      }
+      ap.append("Hint: ").append(RedMove.toString(analysis.getBestMove())).append("\n");
+      if (analysis.isProvablyLost()) {
+        ap.append("The game can no longer be won.\n");
+      } else {
+        ap.append("The game may still be won, with about ")
+                .append(String.valueOf(Math.round(analysis.getWinChance() * 100)))
+                .append("% chance.\n");
+      }
+    } catch (IOException e) {
+      throw new IllegalStateException("Input/Output is unavailable!", e);
+    }
+    return MoveStatus.PLAYED;
+  }
+
+  /**
+   * Returns false, as a hint does not change the game.
+   * @return False.
+   */
+  @Override
+  public boolean isMove() {
+    return false;
+  }
+}
@@ -1,5 +1,6 @@
 package cs3500.solored.controller.commands;
 
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
 
 /**
@@ -19,9 +20,10 @@ public class PlayToCanvasCommand implements RedGameCommand {
   /**
    * Run this command on the given model.
    * @param model The model to run this command on.
+   * @return PLAYED if the card was played, otherwise why the model did not allow it.
    */
   @Override
-  public void execute(RedGameModel model) {
-    model.playToCanvas(cardIdxInHand);
+  public MoveStatus execute(RedGameModel model) {
+    return model.tryPlayToCanvas(cardIdxInHand);
   }
 }
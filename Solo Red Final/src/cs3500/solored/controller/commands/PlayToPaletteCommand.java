@@ -1,5 +1,6 @@
 package cs3500.solored.controller.commands;
 
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
 
 /**
@@ -20,14 +21,16 @@ public class PlayToPaletteCommand implements RedGameCommand {
   }
 
   /**
-   * Run this command on the given model.
+   * Run this command on the given model, drawing for the hand if the game goes on.
    * @param model The model to run this command on.
+   * @return PLAYED if the card was played, otherwise why the model did not allow it.
    */
   @Override
-  public void execute(RedGameModel model) {
-    model.playToPalette(paletteIdx, cardIdxInHand);
-    if (!model.isGameOver()) {
+  public MoveStatus execute(RedGameModel model) {
+    MoveStatus status = model.tryPlayToPalette(paletteIdx, cardIdxInHand);
+    if (status == MoveStatus.PLAYED && !model.isGameOver()) {
       model.drawForHand();
     }
+    return status;
   }
 }
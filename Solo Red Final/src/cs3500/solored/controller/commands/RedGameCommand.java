@@ -1,5 +1,6 @@
 package cs3500.solored.controller.commands;
 
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
 
 /**
@@ -10,6 +11,16 @@ public interface RedGameCommand {
   /**
    * Run this command on the given model.
    * @param model The model to run this command on.
+   * @return PLAYED if the command was run, otherwise why the model did not allow it.
    */
-  void execute(RedGameModel model);
+  MoveStatus execute(RedGameModel model);
+
+  /**
+   * Returns if running this command plays a move, rather than only telling the player about the
+   * game.
+   * @return If this command changes the game, which is true by default.
+   */
+  default boolean isMove() {
+    return true;
+  }
 }
@@ -1,12 +1,12 @@
 package cs3500.solored.model.hw02;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
 import cs3500.solored.model.hw02.CardColor;
 import cs3500.solored.model.hw02.CardImpl;
-import cs3500.solored.model.hw02.Palette;
 import cs3500.solored.model.hw02.RedGameModel;
 
 /**
@@ -23,22 +23,18 @@ import cs3500.solored.model.hw02.RedGameModel;
  * <p>Notes on this implementation:</p>
  * <ul>
  *   <li>The last card in a list is considered the top card of the virtual stack.</li>
+ *   <li>The game itself is kept in a compact {@link SoloRedGameState}. This class checks that
+ *   moves are legal and converts between cards and the codes that state uses.</li>
+ *   <li>Every move can be undone, see {@link #undo()}, so that a search can explore a game on a
+ *   single model.</li>
  * </ul>
  *
  */
 public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl> {
   private final Random rand;
   private boolean gameHasStarted;
-  private boolean gameHasEnded;
-  protected List<CardImpl> deck;
-  private final List<CardImpl> canvas;
-  private Palette[] palettes;
-  protected final List<CardImpl> hand;
-  private int maxHandSize;
-  private int winningPaletteIndex;
-  private int lastIndexPlayed;
-  protected boolean playedToCanvas;
-  // Whether the user's last move was to the canvas.
+  // Everything about the running game. Null until the game starts.
+  private SoloRedGameState state;
 
   // Constructors
 
@@ -59,15 +55,33 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
       throw new IllegalArgumentException("The given Random object must not be null!");
     }
     gameHasStarted = false;
-    gameHasEnded = false;
-    playedToCanvas = false;
-    winningPaletteIndex = 0;
-    lastIndexPlayed = -1;
-    hand = new ArrayList<CardImpl>();
-    canvas = new ArrayList<CardImpl>();
+    state = null;
     this.rand = rand;
   }
 
+  /**
+   * Creates a copy of the given model, which can be played independently of it.
+   * The game is copied as it is, in time proportional to its size, without checking it again.
+   * Both models share the same Random object, which is only used by startGame() and redeal().
+   * @param other The model to copy.
+   * @throws IllegalArgumentException If other is null.
+   */
+  protected AbstractSoloRedGameModel(AbstractSoloRedGameModel other) {
+    if (other == null) {
+      throw new IllegalArgumentException("Cannot copy a null model!");
+    }
+    gameHasStarted = other.gameHasStarted;
+    state = other.gameHasStarted ? new SoloRedGameState(other.state) : null;
+    this.rand = other.rand;
+  }
+
+  /**
+   * Creates a copy of this model, which can be played independently of it. This is much cheaper
+   * than replaying every move into a new model, so it suits searching ahead for moves.
+   * @return A new model of the same type, in the same state as this one.
+   */
+  public abstract AbstractSoloRedGameModel fork();
+
   // Operations
 
   /**
@@ -85,35 +99,31 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
    */
   @Override
   public void playToPalette(int paletteIdx, int cardIdxInHand) {
-    if (!gameHasStarted || gameHasEnded) {
-      throw new IllegalStateException("The game is not running! Cannot play to a palette.");
-    }
-    if (paletteIdx < 0 || paletteIdx > numPalettes() - 1) {
-      throw new IllegalArgumentException(
-              "The given paletteIdx ("
-                      + paletteIdx
-                      + ") is out of the valid range 0-"
-                      + (numPalettes() - 1)
-                      + ", inclusive!"
-      );
-    }
-    if (cardIdxInHand < 0 || cardIdxInHand >= hand.size()) {
-      throw new IllegalArgumentException(
-              "The given cardIdxInHand ("
-                      + cardIdxInHand
-                      + ") is out of the valid range 0-"
-                      + (hand.size() - 1)
-      );
-    }
-    if (paletteIdx == winningPaletteIndex()) {
-      throw new IllegalStateException("The palette at " + paletteIdx + " is winning already!");
+    switch (checkPlayToPalette(paletteIdx, cardIdxInHand)) {
+      case NOT_RUNNING:
+        throw new IllegalStateException("The game is not running! Cannot play to a palette.");
+      case PALETTE_OUT_OF_RANGE:
+        throw new IllegalArgumentException(
+                "The given paletteIdx ("
+                        + paletteIdx
+                        + ") is out of the valid range 0-"
+                        + (numPalettes() - 1)
+                        + ", inclusive!"
+        );
+      case CARD_OUT_OF_RANGE:
+        throw new IllegalArgumentException(
+                "The given cardIdxInHand ("
+                        + cardIdxInHand
+                        + ") is out of the valid range 0-"
+                        + (state.handSize() - 1)
+        );
+      case WINNING_PALETTE:
+        throw new IllegalStateException("The palette at " + paletteIdx + " is winning already!");
+      default:
+        break;
     }
 
-    palettes[paletteIdx].place(hand.remove(cardIdxInHand));
-    lastIndexPlayed = paletteIdx;
-    findWinningPalette();
-    isGameOver();
-    playedToCanvas = false;
+    applyPlayToPalette(paletteIdx, cardIdxInHand);
   }
 
   /**
@@ -130,108 +140,135 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
    */
   @Override
   public void playToCanvas(int cardIdxInHand) {
-    if (!gameHasStarted || gameHasEnded) {
-      throw new IllegalStateException("The game is not running, you may not play to the canvas!");
+    switch (checkPlayToCanvas(cardIdxInHand)) {
+      case NOT_RUNNING:
+        throw new IllegalStateException(
+                "The game is not running, you may not play to the canvas!"
+        );
+      case CARD_OUT_OF_RANGE:
+        throw new IllegalArgumentException(
+                "The cardIdxInHand value "
+                        + cardIdxInHand
+                        + " is outside the valid range (0,"
+                        + state.handSize()
+                        + ")!"
+        );
+      case CANVAS_ALREADY_PLAYED:
+        throw new IllegalStateException(
+                "You have already played to the canvas this turn! You cannot play again!"
+        );
+      case LAST_CARD_IN_HAND:
+        throw new IllegalStateException(
+                "There is only 1 card in hand, it must be played to a pallet!"
+        );
+      default:
+        break;
     }
-    if (cardIdxInHand < 0 || cardIdxInHand >= hand.size()) {
-      throw new IllegalArgumentException(
-              "The cardIdxInHand value "
-                      + cardIdxInHand
-                      + " is outside the valid range (0,"
-                      + hand.size()
-                      + ")!"
-      );
-    }
-    if (playedToCanvas) {
-      throw new IllegalStateException(
-              "You have already played to the canvas this turn! You cannot play again!"
-      );
+
+    applyPlayToCanvas(cardIdxInHand);
+  }
+
+  /**
+   * Tries to play the given card from the hand to the losing palette chosen, exactly as
+   * playToPalette() would, but reports a play that is not allowed instead of throwing.
+   *
+   * @param paletteIdx    a 0-index number representing which palette to play to
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return PLAYED if the card was played, otherwise why it could not be, in which case the game
+   *         is unchanged
+   */
+  @Override
+  public MoveStatus tryPlayToPalette(int paletteIdx, int cardIdxInHand) {
+    MoveStatus status = checkPlayToPalette(paletteIdx, cardIdxInHand);
+    if (status == MoveStatus.PLAYED) {
+      applyPlayToPalette(paletteIdx, cardIdxInHand);
     }
-    if (hand.size() == 1) {
-      throw new IllegalStateException(
-              "There is only 1 card in hand, it must be played to a pallet!"
-      );
+    return status;
+  }
+
+  /**
+   * Tries to play the given card from the hand to the canvas, exactly as playToCanvas() would,
+   * but reports a play that is not allowed instead of throwing.
+   *
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return PLAYED if the card was played, otherwise why it could not be, in which case the game
+   *         is unchanged
+   */
+  @Override
+  public MoveStatus tryPlayToCanvas(int cardIdxInHand) {
+    MoveStatus status = checkPlayToCanvas(cardIdxInHand);
+    if (status == MoveStatus.PLAYED) {
+      applyPlayToCanvas(cardIdxInHand);
     }
+    return status;
+  }
 
-    canvas.add(hand.remove(cardIdxInHand));
-    findWinningPalette();
-    playedToCanvas = true;
-  }
-
-  /**
-   * Updates winningPaletteIndex so that it references the palette that is currently wining.
-   * This follows the rules given by the color of the top canvas card:
-   * <ul>
-   *   <li>Red: The palette with the highest card wins.</li>
-   *   <li>Orange: The palette with the most of a single number of card wins.</li>
-   *   <li>Blue: The palette with the most different colors wins.</li>
-   *   <li>Indigo: The palette with the longest run wins.</li>
-   *   <li>Violet: The palette with the most cards below the value of 4 wins.</li>
-   * </ul>
-   * In the event of a tie, the palette with the significant card that scores highest by the red
-   * rule wins.
-   * (A significant card is a card that is helping that palette tie in the original rules.)
-   * If there are no significant cards, then the palette that wins under the red rule is found.
-   */
-  private void findWinningPalette() {
-    findWinningPalette(getCanvas().getColor());
-  }
-
-  /**
-   * Updates winningPaletteIndex so that it references the palette that is currently wining under
-   * the given color rule:
-   * <ul>
-   *   <li>Red: The palette with the highest card wins.</li>
-   *   <li>Orange: The palette with the most of a single number of card wins.</li>
-   *   <li>Blue: The palette with the most different colors wins.</li>
-   *   <li>Indigo: The palette with the longest run wins.</li>
-   *   <li>Violet: The palette with the most cards below the value of 4 wins.</li>
-   * </ul>
-   * In the event of a tie, the palette with the significant card that scores highest by the red
-   * rule wins.
-   * (A significant card is a card that is helping that palette tie in the original rules.)
-   * If there are no significant cards, then the palette that wins under the red rule is found.
-   * @param color The color rule to use.
-   */
-  private void findWinningPalette(CardColor color) {
-    int maxValue = 0;
-
-    // Stores the current wining indexes and those palette's winning selection of cards.
-    // Each palette index in winningIndexes has a corresponding list of cards at the same
-    // position in winningSelections.
-    // These exist to track ties, so they can be broken later.
-    List<Integer> winningIndexes = new ArrayList<>();
-    List<List<CardImpl>> winningSelections = new ArrayList<List<CardImpl>>();
-
-    for (int i = 0; i < numPalettes(); i++) {
-      List<CardImpl> currentBestSelection = palettes[i].getBestCards(color);
-      if (currentBestSelection.size() > maxValue) {
-        // Reset all ties and the current value - this palette has set a new standard.
-        maxValue = currentBestSelection.size();
-        winningIndexes.clear();
-        winningSelections.clear();
-
-        // Add this palette and its selection to the list of current winners
-        winningIndexes.add(i);
-        winningSelections.add(currentBestSelection);
-      } else if (currentBestSelection.size() == maxValue) {
-        // Add this palette and its selection to the list of current winners
-        winningIndexes.add(i);
-        winningSelections.add(currentBestSelection);
-      }
+  /**
+   * Plays the given card from the hand to the given palette, without checking that the play is
+   * allowed. Both playToPalette() and tryPlayToPalette() call this once they have checked the play,
+   * so a variant that adds to playing a card to a palette overrides this.
+   * @param paletteIdx The palette to play to, which is not winning.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   */
+  protected void applyPlayToPalette(int paletteIdx, int cardIdxInHand) {
+    beginMove();
+    state.playToPalette(paletteIdx, cardIdxInHand);
+  }
+
+  /**
+   * Plays the given card from the hand to the canvas, without checking that the play is allowed.
+   * Both playToCanvas() and tryPlayToCanvas() call this once they have checked the play, so a
+   * variant that adds to playing a card to the canvas overrides this.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   */
+  protected void applyPlayToCanvas(int cardIdxInHand) {
+    beginMove();
+    state.playToCanvas(cardIdxInHand);
+  }
+
+  /**
+   * Checks if the given card may be played to the given palette, in the order that playToPalette()
+   * reports problems.
+   * @param paletteIdx The palette to play to.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   * @return PLAYED if the play is allowed, otherwise why it is not.
+   */
+  private MoveStatus checkPlayToPalette(int paletteIdx, int cardIdxInHand) {
+    if (!isRunning()) {
+      return MoveStatus.NOT_RUNNING;
+    }
+    if (paletteIdx < 0 || paletteIdx > state.numPalettes() - 1) {
+      return MoveStatus.PALETTE_OUT_OF_RANGE;
+    }
+    if (cardIdxInHand < 0 || cardIdxInHand >= state.handSize()) {
+      return MoveStatus.CARD_OUT_OF_RANGE;
+    }
+    if (paletteIdx == state.winningPaletteIndex()) {
+      return MoveStatus.WINNING_PALETTE;
     }
+    return MoveStatus.PLAYED;
+  }
 
-    if (maxValue == 0) {
-      // If no palettes had a valid section for the current rule, use red rule.
-      findWinningPalette(CardColor.RED);
-    } else if (winningIndexes.size() > 1) {
-      // If there is a tie, and as such there is more than one element in the indexes...
-      // Break the tie
-      winningPaletteIndex = Palette.breakTie(winningIndexes, winningSelections);
-    } else {
-      // If there is one wining index, that is the winner.
-      winningPaletteIndex = winningIndexes.get(0);
+  /**
+   * Checks if the given card may be played to the canvas, in the order that playToCanvas()
+   * reports problems.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   * @return PLAYED if the play is allowed, otherwise why it is not.
+   */
+  private MoveStatus checkPlayToCanvas(int cardIdxInHand) {
+    if (!isRunning()) {
+      return MoveStatus.NOT_RUNNING;
+    }
+    if (cardIdxInHand < 0 || cardIdxInHand >= state.handSize()) {
+      return MoveStatus.CARD_OUT_OF_RANGE;
+    }
+    if (state.playedToCanvas()) {
+      return MoveStatus.CANVAS_ALREADY_PLAYED;
     }
+    if (state.handSize() == 1) {
+      return MoveStatus.LAST_CARD_IN_HAND;
+    }
+    return MoveStatus.PLAYED;
   }
 
   /**
@@ -247,10 +284,153 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     // Only care about the exceptions thrown by this method, the return value is checked
     // intrinsically by the while loop.
     canDrawToHand();
-    while (hand.size() < maxHandSize && !deck.isEmpty()) {
-      hand.add(deck.remove(0));
+    beginMove();
+    while (state.handSize() < state.maxHandSize() && state.deckSize() > 0) {
+      state.drawCard();
+    }
+    state.setPlayedToCanvas(false);
+  }
+
+  /**
+   * Undoes the last call to playToPalette(), playToCanvas() or drawForHand() that did not throw,
+   * so that the game is exactly as it was before that call. This may be called repeatedly to undo
+   * every move back to the start of the game, including moves that ended the game.
+   * Nothing is allocated, so a search may play and undo moves on one model as often as it likes.
+   *
+   * @throws IllegalStateException if the game has not started or there is no move to undo
+   */
+  public void undo() {
+    if (!canUndo()) {
+      throw new IllegalStateException("There is no move to undo!");
     }
-    playedToCanvas = false;
+    restoreVariantState(state.undoMove());
+  }
+
+  /**
+   * Moves the given card, which must still be in the deck, so that it is drawn after the given
+   * number of other cards, 0 meaning it is drawn next. The card that was there takes its place.
+   * This is not a move of the game: it lets a search that does not know the order of the deck
+   * try each card that could be drawn, on a fork of the game. It is undone by {@link #undo()} like
+   * a move.
+   *
+   * @param code the code of the card, see {@link CardImpl#getCode()}
+   * @param position the number of cards to be drawn before it
+   * @throws IllegalStateException if the game is not running
+   * @throws IllegalArgumentException if the card is not in the deck, or position is negative or
+   *                                  not less than the number of cards in the deck
+   */
+  public void stackDeck(int code, int position) {
+    if (!isRunning()) {
+      throw new IllegalStateException("The game is not running! Cannot stack the deck.");
+    }
+    if (code < 0 || code >= Long.SIZE || (state.deckCards() & 1L << code) == 0) {
+      throw new IllegalArgumentException("The card with code " + code + " is not in the deck!");
+    }
+    if (position < 0 || position >= state.deckSize()) {
+      throw new IllegalArgumentException(
+              "The position " + position + " is out of the valid range 0-"
+                      + (state.deckSize() - 1) + ", inclusive!"
+      );
+    }
+    beginMove();
+    state.stackDeck(code, position);
+  }
+
+  /**
+   * Shuffles the cards left in the deck, so that they are drawn in an order picked by the given
+   * random object. Like stackDeck(), this is not a move of the game: it lets a search that does
+   * not know the order of the deck sample one, on a fork of the game. The whole shuffle is undone
+   * by one call to {@link #undo()}.
+   *
+   * @param rand the random object to shuffle with
+   * @throws IllegalStateException if the game is not running
+   * @throws IllegalArgumentException if rand is null
+   */
+  public void shuffleDeck(Random rand) {
+    if (!isRunning()) {
+      throw new IllegalStateException("The game is not running! Cannot shuffle the deck.");
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("The given Random object must not be null!");
+    }
+    beginMove();
+    state.shuffleDeck(rand);
+  }
+
+  /**
+   * Returns if there is a move that {@link #undo()} can undo.
+   * @return If there is a move to undo, false if the game has not started.
+   */
+  public boolean canUndo() {
+    return gameHasStarted && state.canUndo();
+  }
+
+  /**
+   * Starts a new move that undo() will undo as a whole. Every move must call this once, after it
+   * has checked that it is legal and before it changes anything.
+   */
+  protected void beginMove() {
+    state.beginMove(variantState());
+  }
+
+  /**
+   * Returns a number that tells this variant of the game apart from the others, so that the same
+   * deal played by different variants never shares a fingerprint. The basic game is 0.
+   * @return The id of the variant.
+   */
+  protected int variantId() {
+    return 0;
+  }
+
+  /**
+   * Returns any state a variant of the game keeps on top of this class, packed into an int, so
+   * that undo() can restore it. The basic game has none.
+   * @return The packed variant state.
+   */
+  protected int variantState() {
+    return 0;
+  }
+
+  /**
+   * Restores the state a variant of the game keeps on top of this class, as it was returned by
+   * variantState() before a move that is being undone.
+   * @param variantState The packed variant state.
+   */
+  protected void restoreVariantState(int variantState) {
+    // The basic game has no variant state.
+  }
+
+  /**
+   * Moves the top card of the deck to the end of the hand, without any checks.
+   * Only call this if canDrawToHand() returns true.
+   */
+  protected void drawCard() {
+    state.drawCard();
+  }
+
+  /**
+   * Returns whether the user's last move was to the canvas.
+   * @return Whether the user's last move was to the canvas, false if the game has not started.
+   */
+  protected boolean hasPlayedToCanvas() {
+    return gameHasStarted && state.playedToCanvas();
+  }
+
+  /**
+   * Sets whether the user's last move was to the canvas. Drawing sets this to false, which
+   * allows the player to play to the canvas again.
+   * @param playedToCanvas Whether the user's last move was to the canvas.
+   */
+  protected void setPlayedToCanvas(boolean playedToCanvas) {
+    state.setPlayedToCanvas(playedToCanvas);
+  }
+
+  /**
+   * Returns if the game has started and has not ended.
+   * @return If the game is running.
+   */
+  private boolean isRunning() {
+    return gameHasStarted && !state.hasEnded();
   }
 
   // Hand draw helpers
@@ -261,12 +441,12 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
    * @throws IllegalStateException if the game has not started or the game is over.
    */
   protected boolean canDrawToHand() throws IllegalStateException {
-    if (!gameHasStarted || gameHasEnded) {
+    if (!isRunning()) {
       throw new IllegalStateException(
               "The game is not running! It either started or it has ended!"
       );
     }
-    return hand.size() < maxHandSize && !deck.isEmpty();
+    return state.handSize() < state.maxHandSize() && state.deckSize() > 0;
   }
 
 
@@ -289,35 +469,45 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
   public void startGame(List<CardImpl> deck, boolean shuffle, int numPalettes, int handSize) {
     checkExceptions(deck, numPalettes, handSize);
 
-    palettes = new Palette[numPalettes];
-    this.maxHandSize = handSize;
-
-    this.deck = new ArrayList<CardImpl>(deck);
+    List<CardImpl> shuffled = new ArrayList<CardImpl>(deck);
 
     if (shuffle) {
-      for (int i = 0; i < this.deck.size(); i++) {
-        int randIndex = rand.nextInt(this.deck.size());
-        CardImpl temp = this.deck.get(i);
-        this.deck.set(i, this.deck.get(randIndex));
-        this.deck.set(randIndex, temp);
+      for (int i = 0; i < shuffled.size(); i++) {
+        int randIndex = rand.nextInt(shuffled.size());
+        CardImpl temp = shuffled.get(i);
+        shuffled.set(i, shuffled.get(randIndex));
+        shuffled.set(randIndex, temp);
       }
     }
 
-    for (int i = 0; i < palettes.length; i++) {
-      palettes[i] = new Palette();
-      palettes[i].place(this.deck.remove(0));
+    byte[] deckCodes = new byte[shuffled.size()];
+    for (int i = 0; i < deckCodes.length; i++) {
+      deckCodes[i] = (byte) shuffled.get(i).getCode();
     }
 
-    // The only requirement for this card is that it is red.
-    // The number is meaningless and chosen arbitrarily.
-    CardImpl canvasCard = new CardImpl(CardColor.RED, CardNumber.ONE);
-    canvas.add(canvasCard);
-
+    state = new SoloRedGameState(deckCodes, numPalettes, handSize, variantId());
     gameHasStarted = true;
-    findWinningPalette();
-    // To keep a consistent game state for isGameOver to check.
-    lastIndexPlayed = winningPaletteIndex;
     drawFullHand();
+    // The opening hand is part of setting up the game, so it cannot be undone.
+    state.forgetMoves();
+  }
+
+  /**
+   * Throws away the current game, whether it is over or not, and starts a new one with the same
+   * cards, number of palettes and hand size, shuffled by this model's Random object. Nothing is
+   * allocated, so a simulation can play many games on one model. No move of the old game can be
+   * undone afterwards.
+   *
+   * @throws IllegalStateException if the game has not started
+   */
+  public void redeal() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started, there is nothing to deal again!");
+    }
+    state.redeal(rand);
+    restoreVariantState(0);
+    drawFullHand();
+    state.forgetMoves();
   }
 
   /**
@@ -329,7 +519,7 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
    * @param handSize the handSize parameter of startGame
    */
   private void checkExceptions(List<CardImpl> deck, int numPalettes, int handSize) {
-    if (gameHasEnded || gameHasStarted) {
+    if (gameHasStarted) {
       throw new IllegalStateException("The game cannot be started again!!!");
     }
     if (numPalettes < 2) {
@@ -383,7 +573,40 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     if (!gameHasStarted) {
       throw new IllegalStateException("The game hasn't started yet! No cards are in the deck!");
     }
-    return deck.size();
+    return state.deckSize();
+  }
+
+  /**
+   * Returns the number of cards in the hand, without copying it like getHand().
+   *
+   * @return the number of cards in the hand
+   * @throws IllegalStateException if the game has not started
+   */
+  public int numOfCardsInHand() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started yet! No cards are in the hand!");
+    }
+    return state.handSize();
+  }
+
+  /**
+   * Returns the code of the given card in the hand, without copying the hand like getHand().
+   * Searches can use it to tell which card a play moves, since the index of a card in the hand
+   * changes as cards are played and drawn.
+   *
+   * @param cardIdxInHand 0-based index of a card in the hand
+   * @return the code of the card, see {@link CardImpl#getCode()}
+   * @throws IllegalStateException if the game has not started
+   * @throws IllegalArgumentException if cardIdxInHand is not the index of a card in the hand
+   */
+  public int cardCodeInHand(int cardIdxInHand) {
+    if (cardIdxInHand < 0 || cardIdxInHand >= numOfCardsInHand()) {
+      throw new IllegalArgumentException(
+              "The card index " + cardIdxInHand + " is out of the valid range 0-"
+                      + (state.handSize() - 1) + ", inclusive!"
+      );
+    }
+    return state.handCard(cardIdxInHand);
   }
 
   /**
@@ -397,7 +620,7 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     if (!gameHasStarted) {
       throw new IllegalStateException("The game hasn't started yet! No palettes exist!");
     }
-    return palettes.length;
+    return state.numPalettes();
   }
 
   /**
@@ -411,7 +634,7 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     if (!gameHasStarted) {
       throw new IllegalStateException("The game hasn't started yet, no palette is winning!");
     }
-    return winningPaletteIndex;
+    return state.winningPaletteIndex();
   }
 
   /**
@@ -427,11 +650,7 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
       throw new IllegalStateException("The game hasn't started yet, it can't be over!");
     }
 
-    // The game should not be over if the user just played to the canvas
-    gameHasEnded = !playedToCanvas
-            && (winningPaletteIndex != lastIndexPlayed)
-            || (hand.isEmpty() && deck.isEmpty());
-    return gameHasEnded;
+    return state.checkGameOver();
   }
 
   /**
@@ -442,12 +661,29 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
    */
   @Override
   public boolean isGameWon() {
-    if (!(gameHasEnded && gameHasStarted)) {
+    if (!(gameHasStarted && state.hasEnded())) {
       throw new IllegalStateException(
               "The game cannot have been won unless it has both started and ended!"
       );
     }
-    return hand.isEmpty() && deck.isEmpty() && lastIndexPlayed == winningPaletteIndex;
+    return state.isWon();
+  }
+
+  /**
+   * Returns if the game can certainly no longer be won, whatever the player does, without
+   * searching any moves. This notices some losses long before isGameOver() does, such as when no
+   * palette could ever take the lead again under any rule the canvas can still be set to. It looks
+   * at each palette with each card left at most once, so searches can call it at every position.
+   * A false result does not mean the game can be won.
+   *
+   * @return true if the game is lost or certain to be lost, false if it may still be won
+   * @throws IllegalStateException if the game has not started
+   */
+  public boolean isProvablyLost() {
+    if (isGameOver()) {
+      return !state.isWon();
+    }
+    return state.isProvablyLost();
   }
 
   /**
@@ -463,7 +699,11 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     if (!gameHasStarted) {
       throw new IllegalStateException("The game hasn't started, there is no hand to get!");
     }
-    return List.copyOf(hand);
+    List<CardImpl> hand = new ArrayList<CardImpl>(state.handSize());
+    for (int i = 0; i < state.handSize(); i++) {
+      hand.add(CardImpl.fromCode(state.handCard(i)));
+    }
+    return hand;
   }
 
   /**
@@ -491,9 +731,318 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
       );
     }
 
-    // This getCards() method already returns a copy of its data that cannot mutate the original
-    // list, so there is no reason to copy it again here.
-    return palettes[paletteNum].getCards();
+    List<CardImpl> palette = new ArrayList<CardImpl>();
+    for (byte code : state.paletteInOrder(paletteNum)) {
+      palette.add(CardImpl.fromCode(code));
+    }
+    return palette;
+  }
+
+  /**
+   * Returns the cards left in the deck as a bitboard, with bit i set for the card with code i,
+   * see {@link CardImpl#getCode()}. This says nothing about their order, and a player who knows
+   * which cards the game started with could work it out from what they have seen.
+   *
+   * @return the bitboard of the deck
+   * @throws IllegalStateException if the game has not started
+   */
+  public long cardsInDeck() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started, there is no deck!");
+    }
+    return state.deckCards();
+  }
+
+  /**
+   * Returns the number of cards drawForHand() would draw right now: as many as it takes to fill
+   * the hand, or as many as are left in the deck if that is fewer. Variants that draw fewer cards
+   * override this, so that searches know how many cards a draw reveals without drawing them.
+   *
+   * @return the number of cards the next draw would take, 0 if the game is over
+   * @throws IllegalStateException if the game has not started
+   */
+  public int numCardsToDraw() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started, there is nothing to draw!");
+    }
+    if (state.checkGameOver()) {
+      return 0;
+    }
+    return Math.min(state.maxHandSize() - state.handSize(), state.deckSize());
+  }
+
+  /**
+   * Returns the number of plays the player may make right now, as listed by legalMoves().
+   *
+   * @return the number of legal plays, 0 if the game is over as by isGameOver()
+   * @throws IllegalStateException if the game has not started
+   */
+  public int numLegalMoves() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started yet, there are no moves!");
+    }
+    // Checked the same way as isGameOver(), since a play to the canvas delays the check.
+    if (state.checkGameOver()) {
+      return 0;
+    }
+    int handSize = state.handSize();
+    return handSize * (state.numPalettes() - 1) + (canPlayToCanvas() ? handSize : 0);
+  }
+
+  /**
+   * Lists every play the player may make right now, encoded by {@link RedMove}, without throwing
+   * or allocating. A play to a palette is legal for every card in the hand and every palette that
+   * is not winning. A play to the canvas is legal for every card in the hand, unless the canvas
+   * was already played to this turn or there is only one card in the hand.
+   * Palette moves are listed first, by palette and then by card, followed by canvas moves.
+   * Drawing is not listed, since it is always allowed while the game is running.
+   *
+   * @param moves an array to write the moves to, starting at index 0
+   * @return the number of moves written, 0 if the game is over
+   * @throws IllegalStateException if the game has not started
+   * @throws IllegalArgumentException if moves is null or shorter than numLegalMoves()
+   */
+  public int legalMoves(int[] moves) {
+    int numMoves = numLegalMoves();
+    if (moves == null || moves.length < numMoves) {
+      throw new IllegalArgumentException(
+              "The moves array must have room for " + numMoves + " moves!"
+      );
+    }
+
+    int size = 0;
+    int handSize = state.handSize();
+    int winner = state.winningPaletteIndex();
+    for (int paletteIdx = 0; size < numMoves && paletteIdx < state.numPalettes(); paletteIdx++) {
+      if (paletteIdx == winner) {
+        continue;
+      }
+      for (int cardIdx = 0; cardIdx < handSize; cardIdx++) {
+        moves[size] = RedMove.toPalette(paletteIdx, cardIdx);
+        size++;
+      }
+    }
+    for (int cardIdx = 0; size < numMoves; cardIdx++) {
+      moves[size] = RedMove.toCanvas(cardIdx);
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Lists every play the player may make right now, encoded by {@link RedMove}.
+   * See legalMoves(int[]) for which plays are legal, and their order.
+   *
+   * @return a new array of the legal moves, empty if the game is over
+   * @throws IllegalStateException if the game has not started
+   */
+  public int[] getLegalMoves() {
+    int[] moves = new int[numLegalMoves()];
+    legalMoves(moves);
+    return moves;
+  }
+
+  /**
+   * Returns the number of longs positionKey() writes, which is the same for the whole game.
+   *
+   * @return the length of a position key
+   * @throws IllegalStateException if the game has not started
+   */
+  public int positionKeyLength() {
+    return numPalettes() + 2;
+  }
+
+  /**
+   * Writes a key that identifies the current position of this game, for searches that need to
+   * remember positions they have seen. Two positions of the same game with equal keys play out
+   * the same way, even if their hands or palettes list the same cards in a different order.
+   * <p>The key holds the cards on every palette and in the hand as bitboards, followed by one
+   * long with the top canvas card, the number of cards left in the deck, whether the canvas was
+   * played to this turn, and any state kept by a variant. The order of the deck is not part of the
+   * key, since moves never change it. So keys are only comparable within one deal, and only while
+   * the order of its deck has not been changed by stackDeck() or shuffleDeck(), which a search
+   * that samples orders of the deck must keep in mind.</p>
+   *
+   * @param key an array to write the key to, starting at index 0
+   * @throws IllegalStateException if the game has not started
+   * @throws IllegalArgumentException if key is null or shorter than positionKeyLength()
+   */
+  public void positionKey(long[] key) {
+    checkKeyArray(key, positionKeyLength());
+    int numPalettes = state.numPalettes();
+    for (int i = 0; i < numPalettes; i++) {
+      key[i] = state.paletteCards(i);
+    }
+    key[numPalettes] = state.handCards();
+    key[numPalettes + 1] = turnKey();
+  }
+
+  /**
+   * Returns the number of longs canonicalKey() writes, which is the same for the whole game.
+   *
+   * @return the length of a canonical key
+   * @throws IllegalStateException if the game has not started
+   */
+  public int canonicalKeyLength() {
+    return numPalettes() + 4;
+  }
+
+  /**
+   * Writes a key like positionKey(), but one that does not depend on the order of the palettes,
+   * and that also holds the deck, so that it can be compared between deals. Positions with equal
+   * keys play out the same way, even if they come from different deals, or only differ by which
+   * palette holds which cards. The rules never look at the index of a palette, only at its cards,
+   * so such positions play out the same way once the palettes of a line of play are swapped to
+   * match.
+   * <p>The key holds the palettes sorted by their bitboards, which are never equal since no card
+   * is on two palettes, and the hand as a bitboard, so the order of the hand never matters. They
+   * are followed by the cards left in the deck as a bitboard, a hash of their order and of the
+   * rules of the game, and a long as in positionKey(), plus the sorted indices of the winning
+   * palette and of the last palette played to. Like the fingerprint, the hash may rarely be shared
+   * by different decks.</p>
+   *
+   * @param key an array to write the key to, starting at index 0
+   * @throws IllegalStateException if the game has not started
+   * @throws IllegalArgumentException if key is null or shorter than canonicalKeyLength()
+   */
+  public void canonicalKey(long[] key) {
+    checkKeyArray(key, canonicalKeyLength());
+    int numPalettes = state.numPalettes();
+    for (int i = 0; i < numPalettes; i++) {
+      key[i] = state.paletteCards(i);
+    }
+    Arrays.sort(key, 0, numPalettes);
+    long winner = Arrays.binarySearch(
+            key, 0, numPalettes, state.paletteCards(state.winningPaletteIndex()));
+    long last = Arrays.binarySearch(
+            key, 0, numPalettes, state.paletteCards(state.lastIndexPlayed()));
+    key[numPalettes] = state.handCards();
+    key[numPalettes + 1] = state.deckCards();
+    key[numPalettes + 2] = state.deckOrderKey();
+    key[numPalettes + 3] = turnKey() | winner << 32 | last << 40;
+  }
+
+  /**
+   * Checks that the given array can hold a key of the given length.
+   * @param key the array to check
+   * @param length the length of the key
+   * @throws IllegalArgumentException if key is null or shorter than length
+   */
+  private static void checkKeyArray(long[] key, int length) {
+    if (key == null || key.length < length) {
+      throw new IllegalArgumentException("The key array must have room for " + length + " longs!");
+    }
+  }
+
+  /**
+   * Packs the top canvas card, the number of cards left in the deck, whether the canvas was
+   * played to this turn, and any state kept by a variant into the last long of a position key.
+   * @return the packed long
+   */
+  private long turnKey() {
+    return state.canvas()
+            | (long) state.deckSize() << 6
+            | (state.playedToCanvas() ? 1L : 0L) << 12
+            | (long) variantState() << 13;
+  }
+
+  /**
+   * Returns a 64-bit fingerprint of the current position of this game, for caches and tables that
+   * need a short key. It is kept up to date by every move and undo, so this takes constant time.
+   * <p>It covers the same things as positionKey(), and also the order of the cards left in the
+   * deck and the rules of the game: the variant, the number of palettes and the hand size, which
+   * are fixed when the game starts. So positions of different deals and different games can be
+   * told apart too. Equal positions always have equal fingerprints, but different positions may
+   * rarely share one.</p>
+   *
+   * @return the fingerprint of the current position
+   * @throws IllegalStateException if the game has not started
+   */
+  public long fingerprint() {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started yet, there is no position!");
+    }
+    return state.fingerprint() ^ SoloRedGameState.variantKey(variantState());
+  }
+
+  /**
+   * Returns the index of the palette that would be winning after the given move, without making
+   * it. Searches can use this to skip plays to a palette that would end the game.
+   *
+   * @param move a legal move, encoded by {@link RedMove}
+   * @return the 0-based index of the palette that would be winning
+   * @throws IllegalStateException if the game has not started
+   * @throws IllegalArgumentException if the move is not legal right now
+   */
+  public int winnerAfter(int move) {
+    if (!gameHasStarted) {
+      throw new IllegalStateException("The game hasn't started yet, there are no moves!");
+    }
+    int cardIdxInHand = RedMove.cardIdxInHand(move);
+    if (RedMove.isCanvas(move)) {
+      if (checkPlayToCanvas(cardIdxInHand) != MoveStatus.PLAYED) {
+        throw new IllegalArgumentException("The move " + RedMove.toString(move) + " is not legal!");
+      }
+      return state.winnerIfPlayedToCanvas(cardIdxInHand);
+    }
+    int paletteIdx = RedMove.paletteIdx(move);
+    if (checkPlayToPalette(paletteIdx, cardIdxInHand) != MoveStatus.PLAYED) {
+      throw new IllegalArgumentException("The move " + RedMove.toString(move) + " is not legal!");
+    }
+    return state.winnerIfPlayedToPalette(paletteIdx, cardIdxInHand);
+  }
+
+  /**
+   * Returns the score of the given palette under the rule of the canvas, packed into an int so
+   * that a palette with a higher score beats a palette with a lower one, ties included.
+   * A palette with no valid selection for the rule scores 0. Scores never go down as cards are
+   * played, so searches can use them to judge how much room is left to take the lead.
+   *
+   * @param paletteIdx 0-based index of a particular palette
+   * @return the packed score of the palette
+   * @throws IllegalStateException    if the game has not started
+   * @throws IllegalArgumentException if paletteIdx < 0 or more than the number of palettes
+   */
+  public int paletteScore(int paletteIdx) {
+    if (paletteIdx < 0 || paletteIdx > numPalettes() - 1) {
+      throw new IllegalArgumentException(
+              "The palette index "
+                      + paletteIdx
+                      + " is out of the valid range 0-"
+                      + (numPalettes() - 1)
+                      + ", inclusive!"
+      );
+    }
+    return state.score(paletteIdx);
+  }
+
+  /**
+   * Returns if the running game allows a play to the canvas, with any card in the hand.
+   * @return If the canvas may be played to.
+   */
+  private boolean canPlayToCanvas() {
+    return !state.playedToCanvas() && state.handSize() > 1;
+  }
+
+  /**
+   * Returns the number of cards on the given palette, without copying it like getPalette().
+   *
+   * @param paletteIdx 0-based index of a particular palette
+   * @return the number of cards on the palette
+   * @throws IllegalStateException    if the game has not started
+   * @throws IllegalArgumentException if paletteIdx < 0 or more than the number of palettes
+   */
+  public int paletteSize(int paletteIdx) {
+    if (paletteIdx < 0 || paletteIdx > numPalettes() - 1) {
+      throw new IllegalArgumentException(
+              "The palette index "
+                      + paletteIdx
+                      + " is out of the valid range 0-"
+                      + (numPalettes() - 1)
+                      + ", inclusive!"
+      );
+    }
+    return state.paletteSize(paletteIdx);
   }
 
   /**
@@ -510,11 +1059,8 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
               "Cannot get the canvas before the game starts!"
       );
     }
-    // Making a copy of the top card on the canvas.
-    return new CardImpl(
-            canvas.get(canvas.size() - 1).getColor(),
-            canvas.get(canvas.size() - 1).getCardNumber()
-    );
+    // Cards are immutable, so the shared canonical card can be returned without a copy.
+    return CardImpl.fromCode(state.canvas());
   }
 
   /**
@@ -531,7 +1077,7 @@ public abstract class AbstractSoloRedGameModel implements RedGameModel<CardImpl>
     ArrayList<CardImpl> allCards = new ArrayList<>();
     for (CardColor color : CardColor.values()) {
       for (CardNumber number : CardNumber.values()) {
-        allCards.add(new CardImpl(color, number));
+        allCards.add(CardImpl.of(color, number));
       }
     }
     return allCards;
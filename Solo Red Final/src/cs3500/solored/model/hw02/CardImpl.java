@@ -4,13 +4,41 @@ import java.util.Objects;
 
 /**
  * A representation of a card in the game RedSeven.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every card has a code between 0 and 34, inclusive, equal to
+ *   (number - 1) * 5 + color rank. A higher code is always a better card by the red rule.</li>
+ *   <li>There is one canonical instance of every card, given by {@link #of(CardColor, CardNumber)}
+ *   and {@link #fromCode(int)}. Models hand out only these instances, so comparing cards is
+ *   usually a matter of identity.</li>
+ * </ul>
  */
 public class CardImpl implements ObservableCard {
+  // The number of different colors, and as such the number of codes used by each card number.
+  private static final int NUM_COLORS = CardColor.values().length;
+
+  // The number of possible different cards.
+  private static final int NUM_CARDS = NUM_COLORS * CardNumber.values().length;
+
+  // The canonical instance of every card, indexed by its code.
+  private static final CardImpl[] CANONICAL_CARDS = new CardImpl[NUM_CARDS];
+
+  static {
+    for (CardColor color : CardColor.values()) {
+      for (CardNumber number : CardNumber.values()) {
+        CardImpl card = new CardImpl(color, number);
+        CANONICAL_CARDS[card.code] = card;
+      }
+    }
+  }
+
   private final CardColor color;
   private final CardNumber number;
+  private final int code;
 
   /**
    * Creates a new card, which has a color and a number between 1 and 7, inclusive.
+   * Prefer {@link #of(CardColor, CardNumber)}, which does not allocate a new card.
    * @param color The color of this card.
    * @param number The number of this card.
    * @throws NullPointerException If color is null.
@@ -24,6 +52,31 @@ public class CardImpl implements ObservableCard {
 
     this.color = color;
     this.number = number;
+    this.code = toCode(color, number);
+  }
+
+  /**
+   * Returns the canonical card with the given color and number.
+   * @param color The color of the card.
+   * @param number The number of the card.
+   * @return The one shared instance of that card.
+   * @throws NullPointerException If color or number is null.
+   */
+  public static CardImpl of(CardColor color, CardNumber number) throws NullPointerException {
+    return CANONICAL_CARDS[toCode(color, number)];
+  }
+
+  /**
+   * Returns the canonical card with the given code.
+   * @param code The code of the card, as given by {@link #getCode()}.
+   * @return The one shared instance of that card.
+   * @throws IllegalArgumentException If code is not between 0 and 34, inclusive.
+   */
+  public static CardImpl fromCode(int code) throws IllegalArgumentException {
+    if (code < 0 || code >= NUM_CARDS) {
+      throw new IllegalArgumentException("There is no card with the code " + code + "!");
+    }
+    return CANONICAL_CARDS[code];
   }
 
 
@@ -56,7 +109,28 @@ public class CardImpl implements ObservableCard {
     return this.number;
   }
 
+  /**
+   * Returns the code of this card, which is (number - 1) * 5 + color rank.
+   * Cards are equal exactly when their codes are equal, and a higher code is a better card by the
+   * red rule.
+   *
+   * @return The code of this card, between 0 and 34, inclusive.
+   */
+  public int getCode() {
+    return this.code;
+  }
+
+
 
+  /**
+   * Finds the code of the card with the given color and number.
+   * @param color The color of the card.
+   * @param number The number of the card.
+   * @return The code of that card.
+   */
+  private static int toCode(CardColor color, CardNumber number) {
+    return (number.getNumber() - 1) * NUM_COLORS + color.getRank();
+  }
 
   /**
    * Prints the color and number of the card.
@@ -78,23 +152,22 @@ public class CardImpl implements ObservableCard {
    */
   @Override
   public boolean equals(Object o) {
-    if (o == null) {
-      return false;
+    if (this == o) {
+      // Always the case for canonical cards.
+      return true;
     }
     if (!(o instanceof CardImpl)) {
       return false;
     }
-    // Note that this scenario where 2 cards are identical should never occur by the rules of the
-    // game, but having this method is good practice
-    return this.toString().equals(o.toString());
+    return this.code == ((CardImpl) o).code;
   }
 
   /**
    * Provides the hash code for this card based upon its color and number.
-   * @return The hash code for this card.
+   * @return The hash code for this card, which is its code.
    */
   @Override
   public int hashCode() {
-    return Objects.hash(this.getNumber(), this.getColor());
+    return this.code;
   }
 }
@@ -0,0 +1,33 @@
+package cs3500.solored.model.hw02;
+
+/**
+ * The result of trying to make a play in a game of RedSeven, as returned by
+ * {@link RedGameModel#tryPlayToPalette(int, int)} and {@link RedGameModel#tryPlayToCanvas(int)}.
+ * Every status other than PLAYED matches one of the exceptions the throwing version of that play
+ * would have thrown, and means the game was not changed.
+ */
+public enum MoveStatus {
+  // The play was made.
+  PLAYED,
+  // The game has not started or is over.
+  NOT_RUNNING,
+  // The palette index is not the index of a palette.
+  PALETTE_OUT_OF_RANGE,
+  // The card index is not the index of a card in the hand.
+  CARD_OUT_OF_RANGE,
+  // The palette is already winning, so it cannot be played to.
+  WINNING_PALETTE,
+  // The canvas was already played to this turn.
+  CANVAS_ALREADY_PLAYED,
+  // There is only one card in the hand, so it must be played to a palette.
+  LAST_CARD_IN_HAND;
+
+  /**
+   * Returns if the play was rejected because of an index that is out of range, which the throwing
+   * version of the play reports with an IllegalArgumentException.
+   * @return If this status is for an index out of range.
+   */
+  public boolean isIndexOutOfRange() {
+    return this == PALETTE_OUT_OF_RANGE || this == CARD_OUT_OF_RANGE;
+  }
+}
@@ -1,283 +1,210 @@
 package cs3500.solored.model.hw02;
 
-import java.util.ArrayList;
-import java.util.List;
-
 /**
- * Represents a singular Palette that can be played to, printed,
- * and figure out it's score by the current rules.
+ * The scoring rules for a Palette, which figure out it's score by the current rules.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>A palette is stored as a bitboard: a single long where every possible card has its own
+ *   bit. The bit for a card is its code, (number - 1) * 5 + color rank, so a higher bit is always
+ *   a better card by the red rule, and the highest set bit of any selection is its best card.</li>
+ *   <li>Palettes are compared through packed int scores rather than lists of cards, see
+ *   {@link #score(long, CardColor)}.</li>
+ *   <li>This class holds no state, the palettes themselves are kept by
+ *   {@link SoloRedGameState}.</li>
+ * </ul>
  */
-class Palette {
-  private final ArrayList<CardImpl> cards;
-
-  /**
-   * Creates a new Palette, which holds a list of cards and can append more cards to that list.
-   */
-  public Palette() {
-    this.cards = new ArrayList<CardImpl>();
-  }
-
-  /**
-   * Play a card onto this palette.
-   * @param card The card to play onto this palette
-   */
-  public void place(CardImpl card) {
-    cards.add(card);
+final class Palette {
+  // The number of different colors, and as such the number of bits used by each card number.
+  private static final int NUM_COLORS = 5;
+
+  // Scores keep the number of cards in a selection above this bit, and its best card below it.
+  private static final int SCORE_COUNT_SHIFT = 6;
+
+  // The bits of a score that hold its best card.
+  private static final int SCORE_CARD_MASK = (1 << SCORE_COUNT_SHIFT) - 1;
+
+  // The number of different card numbers.
+  private static final int NUM_NUMBERS = 7;
+
+  // The bits of all cards with a number of 1.
+  private static final long NUMBER_ONE_MASK = (1L << NUM_COLORS) - 1;
+
+  // The bits of all cards with a number below 4.
+  private static final long UNDER_FOUR_MASK = (1L << (3 * NUM_COLORS)) - 1;
+
+  // For every set of present numbers (bit n is set if a card with number n + 1 is present),
+  // the set of numbers that makes up the longest run. Ties go to the later run, as its cards are
+  // better by the red rule.
+  private static final byte[] LONGEST_RUNS = new byte[1 << NUM_NUMBERS];
+
+  static {
+    for (int numbers = 0; numbers < LONGEST_RUNS.length; numbers++) {
+      int bestRun = 0;
+      int currentRun = 0;
+      for (int n = 0; n < NUM_NUMBERS; n++) {
+        if ((numbers & (1 << n)) == 0) {
+          currentRun = 0;
+        } else {
+          currentRun |= 1 << n;
+          if (Integer.bitCount(currentRun) >= Integer.bitCount(bestRun)) {
+            bestRun = currentRun;
+          }
+        }
+      }
+      LONGEST_RUNS[numbers] = (byte) bestRun;
+    }
   }
 
   /**
-   * Returns a copy of this palette's list of cards.
-   * @return A copy of this palette's list of cards.
+   * This class only holds the scoring rules, and should not be constructed.
    */
-  public List<CardImpl> getCards() {
-    return List.copyOf(cards);
+  private Palette() {
   }
 
   /**
-   * Finds the best subset of cards from this deck for the given color rule.
+   * Finds the score of a palette under the given color rule, without allocating.
+   * A score packs the whole outcome of a rule into one int: the number of cards in the best
+   * selection is stored above {@link #SCORE_COUNT_SHIFT}, and the bit of the best card of that
+   * selection by the red rule is stored below it. This means a higher score always wins, ties
+   * included, so the winning palette is simply the one with the highest score.
+   * A palette with no valid selection for a rule scores 0.
+   * A card added to a palette can only ever keep or raise its scores.
+   * @param cards The palette, as a bitboard.
    * @param colorRule The color rule to use.
-   * @return The subset of cards in this Palette that score the best under this rule.
+   * @return The packed score of the palette under colorRule.
    */
-  public List<CardImpl> getBestCards(CardColor colorRule) {
+  static int score(long cards, CardColor colorRule) {
     switch (colorRule) {
       case RED:
-        return getBestCardsByRed();
+        return scoreByRed(cards);
       case ORANGE:
-        return getBestCardsByOrange();
+        return scoreByOrange(cards);
       case BLUE:
-        return getBestCardsByBlue();
+        return scoreByBlue(cards);
       case INDIGO:
-        return getBestCardsByIndigo();
+        return scoreByIndigo(cards);
       case VIOLET:
-        return getBestCardsByViolet();
+        return scoreByViolet(cards);
       default:
         throw new IllegalArgumentException();
     }
   }
 
-  // These methods are static to allow for ties to be decided easily when using subsets of cards
-  // from palettes that aren't contained in a pallet themselves.
   /**
-   * For breaking a tie between palettes.
-   * This function compares each winning set of cards
-   * and finds the best winner based upon the red rule.
-   * @param winningPaletteIndexes The palette indexes of the wining selections.
-   * @param winningSelections The relevant selection of cards from each winning palette.
-   * @return The corresponding palette index from winningPaletteIndexes of the best selection
-   *         from winningSelections.
+   * Returns the number of cards in the best selection that made up the given score.
+   * @param score A score returned by {@link #score(long, CardColor)}.
+   * @return The number of cards in the selection, 0 if there was none.
    */
-  public static int breakTie(
-          List<Integer> winningPaletteIndexes,
-          List<List<CardImpl>> winningSelections
-  ) {
-    // Will hold the best card from each selection, as chosen by the red rule.
-    List<CardImpl> bestCards = new ArrayList<CardImpl>();
-
-    // Add the best card from each selection to bestCards
-    for (List<CardImpl> selection : winningSelections) {
-
-      bestCards.add(Palette.findHighestCardByRed(selection));
-    }
-
-    // Finds the best card from the winning cards from each palette.
-    CardImpl absoluteBestCard = Palette.findHighestCardByRed(bestCards);
-
-    // Find the corresponding palette index of the winning card,
-    // and returns that index as the absolute winner.
-    return winningPaletteIndexes.get(bestCards.indexOf(absoluteBestCard));
+  static int countOf(int score) {
+    return score >>> SCORE_COUNT_SHIFT;
   }
 
   /**
-   * Finds the best card in a given list of cards as determined by the red rule.
-   * That is, the palette with the highest value card wins.
-   * In the event of a tie, the card with the highest ranked color wins.
-   * Colors are ranked higher the closer they are to red in the rainbow.
-   * @param cards The set of cards to find the best card from.
-   * @return The best card from cards.
-   * @throws IllegalArgumentException If the provided list of cards is empty or null.
+   * Returns the best card by the red rule in the selection that made up the given score.
+   * @param score A score returned by {@link #score(long, CardColor)}.
+   * @return The best card in the selection.
+   * @throws IllegalArgumentException If the score has no selection.
    */
-  private static CardImpl findHighestCardByRed(List<CardImpl> cards) {
-    if (cards == null || cards.isEmpty()) {
-      throw new IllegalArgumentException("Must provide a list of cards!!!");
+  static CardImpl bestCardOf(int score) {
+    if (score == 0) {
+      throw new IllegalArgumentException("A score of 0 has no best card!");
     }
+    return CardImpl.fromCode(score & SCORE_CARD_MASK);
+  }
 
-    CardImpl highestCard = cards.get(0);
-
-    for (CardImpl card : cards) {
-      if (
-              // The current card has a higher number
-              (
-                      card.getNumber() > highestCard.getNumber()
-              )
-                      // Or the card has the same number and a better color
-                      || (
-                              card.getNumber() == highestCard.getNumber()
-                                      && card.getColor().getRank()
-                                      > highestCard.getColor().getRank()
-              )
-      ) {
-        highestCard = card;
-      }
+  /**
+   * Packs a selection of cards into a score.
+   * @param count The number of cards in the selection.
+   * @param selection The selection, as a mask of card bits. Only its best card matters.
+   * @return The packed score, or 0 if the selection is empty.
+   */
+  private static int toScore(int count, long selection) {
+    if (selection == 0) {
+      return 0;
     }
-
-    return highestCard;
+    return count << SCORE_COUNT_SHIFT | (63 - Long.numberOfLeadingZeros(selection));
   }
 
   /**
-   * Finds the best card in this palette as determined by the red rule.
+   * Scores a palette by the red rule.
    * That is, the palette with the highest value card wins.
    * In the event of a tie, the card with the highest ranked color wins.
    * Colors are ranked higher the closer they are to red in the rainbow.
-   * @return A list containing only the best card from this palette.
+   * @param cards The palette, as a bitboard.
+   * @return The score of the single best card in the palette.
    */
-  private List<CardImpl> getBestCardsByRed() {
-    // Returning the singular card as a list so that this rule is consistent with the others
-    List<CardImpl> bestCard = new ArrayList<>();
-    bestCard.add(findHighestCardByRed(this.getCards()));
-    return bestCard;
+  private static int scoreByRed(long cards) {
+    return toScore(1, cards);
   }
 
-
   /**
-   * Returns the best set of cards in this palette, as determined by the orange rule.
+   * Scores a palette by the orange rule.
    * That is, the largest set where all the cards have the same number.
-   * @return The largest list containing only cards of the same number
-   *         that could be formed from this palette.
+   * @param cards The palette, as a bitboard.
+   * @return The score of the largest set containing only cards of the same number
+   *         that could be formed from the palette.
    */
-  private List<CardImpl> getBestCardsByOrange() {
-    // Counts how many cards of each number this palette has
-    int[] numOfEachValue = new int[7];
-    for (CardImpl card : getCards()) {
-      numOfEachValue[card.getNumber() - 1] += 1;
-    }
-
-    // Find the most common number
-    int mostCommonNumber = 0;
-    int maxNumber = 0;
-
-    for (int idx = 0; idx < numOfEachValue.length; idx++) {
+  private static int scoreByOrange(long cards) {
+    long bestGroup = 0;
+    for (int n = 0; n < NUM_NUMBERS; n++) {
+      long group = cards & (NUMBER_ONE_MASK << (n * NUM_COLORS));
       // >= so that later numbers supersede earlier ones.
       // Later numbers are prioritized because they score better via the red rule
-      if (numOfEachValue[idx] >= maxNumber) {
-        maxNumber = numOfEachValue[idx];
-        // The most common number is the number on a card, not its 0-based index.
-        mostCommonNumber = idx + 1;
-      }
-    }
-
-    // Gather all the cards with the mostCommonNumber and return them as a list.
-    List<CardImpl> allCardsOfCommonNumber = new ArrayList<>();
-    for (CardImpl card : cards) {
-      if (card.getNumber() == mostCommonNumber) {
-        allCardsOfCommonNumber.add(card);
+      if (Long.bitCount(group) >= Long.bitCount(bestGroup)) {
+        bestGroup = group;
       }
     }
-
-    return allCardsOfCommonNumber;
+    return toScore(Long.bitCount(bestGroup), bestGroup);
   }
 
   /**
-   * Returns the best set of cards in this palette, as determined by the blue rule.
+   * Scores a palette by the blue rule.
    * That is, the set with the most different colors in it,
    * prioritizing higher value cards if there are multiple cards of the same color.
-   * @return A list of different colored cards,
+   * The best card of that set is always the best card of the whole palette.
+   * @param cards The palette, as a bitboard.
+   * @return The score of the set of different colored cards,
    *         with as many different colors and as high values as possible.
    */
-  private List<CardImpl> getBestCardsByBlue() {
-    // An array with a slot for one card of each color
-    CardImpl[] oneOfEachColor = new CardImpl[5];
-
-    // For every card in the palette...
-    for (CardImpl card : getCards()) {
-      int colorIndex = card.getColor().getRank();
-
-      // If there is no card of that color or the current card is a higher card
-      if (
-              oneOfEachColor[colorIndex] == null
-                      || oneOfEachColor[colorIndex].getNumber() < card.getNumber()
-      ) {
-        // Place the current card into the array at its correct color index.
-        oneOfEachColor[colorIndex] = card;
-      }
+  private static int scoreByBlue(long cards) {
+    long colorsPresent = 0;
+    for (int n = 0; n < NUM_NUMBERS; n++) {
+      colorsPresent |= (cards >>> (n * NUM_COLORS)) & NUMBER_ONE_MASK;
     }
-
-    // Convert the array to a list for returning and get rid of any leftover nulls.
-    List<CardImpl> outputList = new ArrayList<CardImpl>();
-    for (CardImpl card : oneOfEachColor) {
-      if (card != null) {
-        outputList.add(card);
-      }
-    }
-
-    return outputList;
+    return toScore(Long.bitCount(colorsPresent), cards);
   }
 
   /**
-   * Returns the best set of cards in this palette, as determined by the indigo rule.
-   * That is, the longest run in this palette, with the highest-ranking colors possible.
-   * @return The larges run of cards with the highest-ranked colors possible.
+   * Scores a palette by the indigo rule.
+   * That is, the longest run in the palette, with the highest-ranking colors possible.
+   * @param cards The palette, as a bitboard.
+   * @return The score of the largest run of cards with the highest-ranked colors possible.
    */
-  private List<CardImpl> getBestCardsByIndigo() {
-    // An array with one slot for each possible car number
-    CardImpl[] oneOfEachNumber = new CardImpl[7];
-    // Fills as many slots in oneOfEachNumber as possible, with the best card possible.
-    for (CardImpl card : getCards()) {
-      int numberIdx = card.getNumber() - 1;
-      // If there is no card of that number or the current card is a better card
-      if (
-              oneOfEachNumber[numberIdx] == null
-                      || oneOfEachNumber[numberIdx].getColor().getRank() < card.getColor().getRank()
-      ) {
-        // Place the current card into the array at its correct numberIndex.
-        oneOfEachNumber[numberIdx] = card;
+  private static int scoreByIndigo(long cards) {
+    int numbersPresent = 0;
+    for (int n = 0; n < NUM_NUMBERS; n++) {
+      if ((cards & (NUMBER_ONE_MASK << (n * NUM_COLORS))) != 0) {
+        numbersPresent |= 1 << n;
       }
     }
 
-    // Find the longest run
-    List<CardImpl> bestRun = new ArrayList<>();
-    List<CardImpl> currentRun = new ArrayList<>();
-
-    for (CardImpl card : oneOfEachNumber) {
-      if (card == null) {
-        // Reset the run
-        currentRun = new ArrayList<>();
-      } else {
-        currentRun.add(card);
-        if (currentRun.size() > bestRun.size()) {
-          // The current run is the best run.
-          bestRun = currentRun;
-        } else if (currentRun.size() == bestRun.size()) {
-          // If they are tied, break the tie.
-          // Get the list of indexes needed for the breakTie() method
-          List<Integer> indexes = new ArrayList<>();
-          indexes.add(0);
-          indexes.add(1);
-          // Combine the runs into a list for the breakTie() method
-          List<List<CardImpl>> comparingRuns = new ArrayList<>();
-          comparingRuns.add(bestRun);
-          comparingRuns.add(currentRun);
-          // Break the tie
-          bestRun = comparingRuns.get(breakTie(indexes, List.of(bestRun, currentRun)));
-        }
-      }
-    }
-    return bestRun;
+    // The best card of a run is the best card of its highest number.
+    int bestRun = LONGEST_RUNS[numbersPresent];
+    int highestNumber = 31 - Integer.numberOfLeadingZeros(bestRun);
+    return toScore(
+            Integer.bitCount(bestRun),
+            cards & (NUMBER_ONE_MASK << (highestNumber * NUM_COLORS))
+    );
   }
 
   /**
-   * Returns the best set of cards in this palette, as determined by the violet rule.
+   * Scores a palette by the violet rule.
    * That is, all the cards with a value under 4.
-   * @return A list containing all cards from this palette with a value under four.
+   * @param cards The palette, as a bitboard.
+   * @return The score of all cards from the palette with a value under four.
    */
-  private List<CardImpl> getBestCardsByViolet() {
-    List<CardImpl> cardsUnder4 = new ArrayList<>();
-
-    for (CardImpl card : getCards()) {
-      if (card.getNumber() < 4) {
-        cardsUnder4.add(card);
-      }
-    }
-
-    return cardsUnder4;
+  private static int scoreByViolet(long cards) {
+    long cardsUnder4 = cards & UNDER_FOUR_MASK;
+    return toScore(Long.bitCount(cardsUnder4), cardsUnder4);
   }
-}
\ No newline at end of file
+}
@@ -48,6 +48,27 @@ public interface RedGameModel<C extends Card> {
    */
   void playToCanvas(int cardIdxInHand);
 
+  /**
+   * Tries to play the given card from the hand to the losing palette chosen, exactly as
+   * playToPalette() would, but reports a play that is not allowed instead of throwing.
+   *
+   * @param paletteIdx a 0-index number representing which palette to play to
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return PLAYED if the card was played, otherwise why it could not be, in which case the game
+   *     is unchanged
+   */
+  MoveStatus tryPlayToPalette(int paletteIdx, int cardIdxInHand);
+
+  /**
+   * Tries to play the given card from the hand to the canvas, exactly as playToCanvas() would,
+   * but reports a play that is not allowed instead of throwing.
+   *
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return PLAYED if the card was played, otherwise why it could not be, in which case the game
+   *     is unchanged
+   */
+  MoveStatus tryPlayToCanvas(int cardIdxInHand);
+
   /**
    * Draws cards from the deck until the hand is full
    * OR until the deck is empty, whichever occurs first. Newly drawn cards
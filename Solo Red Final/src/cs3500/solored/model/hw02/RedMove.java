@@ -0,0 +1,101 @@
+package cs3500.solored.model.hw02;
+
+/**
+ * Encodes a single play in a game of RedSeven as an int, so that lists of moves can be kept in
+ * primitive arrays without allocating.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The index of the card in the hand is kept in the lowest byte.</li>
+ *   <li>The index of the palette is kept in the byte above it. Canvas moves leave it as 0.</li>
+ *   <li>Canvas moves set {@link #CANVAS_FLAG}, so no two moves share a code.</li>
+ * </ul>
+ */
+public final class RedMove {
+  // Each index takes up one byte of the move.
+  private static final int INDEX_BITS = 8;
+  private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+  // Set on every canvas move.
+  private static final int CANVAS_FLAG = 1 << (2 * INDEX_BITS);
+
+  /**
+   * This class only holds static helpers, and should not be constructed.
+   */
+  private RedMove() {
+  }
+
+  /**
+   * Encodes playing the given card from the hand to the given palette.
+   * @param paletteIdx The 0-based index of the palette to play to.
+   * @param cardIdxInHand The 0-based index of the card in the hand to play.
+   * @return The encoded move.
+   * @throws IllegalArgumentException If either index is negative or too large to encode.
+   */
+  public static int toPalette(int paletteIdx, int cardIdxInHand) {
+    checkIndex(paletteIdx);
+    checkIndex(cardIdxInHand);
+    return paletteIdx << INDEX_BITS | cardIdxInHand;
+  }
+
+  /**
+   * Encodes playing the given card from the hand to the canvas.
+   * @param cardIdxInHand The 0-based index of the card in the hand to play.
+   * @return The encoded move.
+   * @throws IllegalArgumentException If the index is negative or too large to encode.
+   */
+  public static int toCanvas(int cardIdxInHand) {
+    checkIndex(cardIdxInHand);
+    return CANVAS_FLAG | cardIdxInHand;
+  }
+
+  /**
+   * Returns if the given move plays to the canvas, rather than to a palette.
+   * @param move An encoded move.
+   * @return If the move plays to the canvas.
+   */
+  public static boolean isCanvas(int move) {
+    return (move & CANVAS_FLAG) != 0;
+  }
+
+  /**
+   * Returns the palette the given move plays to.
+   * @param move An encoded move.
+   * @return The 0-based index of the palette, 0 for canvas moves.
+   */
+  public static int paletteIdx(int move) {
+    return (move >>> INDEX_BITS) & INDEX_MASK;
+  }
+
+  /**
+   * Returns the card in the hand the given move plays.
+   * @param move An encoded move.
+   * @return The 0-based index of the card in the hand.
+   */
+  public static int cardIdxInHand(int move) {
+    return move & INDEX_MASK;
+  }
+
+  /**
+   * Describes the given move in the same terms as the text controller's commands.
+   * @param move An encoded move.
+   * @return "canvas c" or "palette p c", with 1-based indices.
+   */
+  public static String toString(int move) {
+    if (isCanvas(move)) {
+      return "canvas " + (cardIdxInHand(move) + 1);
+    }
+    return "palette " + (paletteIdx(move) + 1) + " " + (cardIdxInHand(move) + 1);
+  }
+
+  /**
+   * Checks that an index can be encoded.
+   * @param index The index to check.
+   * @throws IllegalArgumentException If the index is negative or too large to encode.
+   */
+  private static void checkIndex(int index) {
+    if (index < 0 || index > INDEX_MASK) {
+      throw new IllegalArgumentException(
+              "The index " + index + " cannot be encoded in a move, it must be 0-" + INDEX_MASK
+      );
+    }
+  }
+}
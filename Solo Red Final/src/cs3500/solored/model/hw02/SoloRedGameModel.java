@@ -30,6 +30,24 @@ public class SoloRedGameModel extends AbstractSoloRedGameModel implements RedGam
     super(rand);
   }
 
+  /**
+   * Creates a copy of the given model, which can be played independently of it.
+   * @param other The model to copy.
+   * @throws IllegalArgumentException If other is null.
+   */
+  public SoloRedGameModel(SoloRedGameModel other) {
+    super(other);
+  }
+
+  /**
+   * Creates a copy of this model, which can be played independently of it.
+   * @return A new SoloRedGameModel in the same state as this one.
+   */
+  @Override
+  public SoloRedGameModel fork() {
+    return new SoloRedGameModel(this);
+  }
+
   /**
    * Draws cards from the deck until the hand is full
    * OR until the deck is empty, whichever occurs first. Newly drawn cards
@@ -0,0 +1,958 @@
+package cs3500.solored.model.hw02;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The compact state of a running game of Solo Red, kept as flat arrays of primitives so that
+ * many games can be held in memory at once.
+ * This class performs the moves of the game without checking if they are legal, which is the
+ * job of {@link AbstractSoloRedGameModel}.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Cards are stored as their codes, see {@link CardImpl#getCode()}.</li>
+ *   <li>The deck is an array of codes with a cursor to the top card, so drawing never moves
+ *   memory around.</li>
+ *   <li>Every palette is a bitboard, see {@link Palette}. The hand is both a bitboard and an
+ *   array of codes, since the order of the hand matters to the player.</li>
+ *   <li>The canvas is the code of its top card.</li>
+ *   <li>The score of every palette under every rule, and the winner of every rule, are kept up to
+ *   date as cards are placed.</li>
+ *   <li>Every change is recorded in an undo journal of ints, so that moves can be undone exactly
+ *   without copying the state, see {@link #beginMove(int)} and {@link #undoMove()}.</li>
+ *   <li>A 64-bit Zobrist fingerprint of the position is kept up to date by every change, see
+ *   {@link #fingerprint()}.</li>
+ * </ul>
+ */
+final class SoloRedGameState {
+  // Every color rule, indexed by its ordinal. Kept so that updates do not copy CardColor.values().
+  private static final CardColor[] COLOR_RULES = CardColor.values();
+  private static final int NUM_RULES = COLOR_RULES.length;
+
+  // Every journal record is this many ints: what changed, the flags from before the change, and
+  // the rule winners from before the change (or the variant state, for a MARK).
+  private static final int RECORD_SIZE = 3;
+  // The kinds of journal record, kept in the lowest bits of a record's first int.
+  private static final int MARK = 0;
+  private static final int PALETTE = 1;
+  private static final int CANVAS = 2;
+  private static final int DRAW = 3;
+  private static final int FLAGS = 4;
+  private static final int STACK = 5;
+  private static final int KIND_MASK = 0x7;
+  // Record arguments and packed flags are stored a byte apart, which fits any game of 35 cards.
+  private static final int BYTE_SHIFT = 8;
+  private static final int BYTE_MASK = 0xFF;
+  // Packed rule winners take this many bits each, enough for any palette index.
+  private static final int WINNER_SHIFT = 6;
+  private static final int WINNER_MASK = (1 << WINNER_SHIFT) - 1;
+
+  // Fingerprint keys are found at an offset for what they describe, plus a card code and an index.
+  // Card codes and indices both fit in a bitboard, so every index is given a block of 64 keys.
+  private static final int KEY_BLOCK = Long.SIZE;
+  private static final int PALETTE_KEYS = 0;
+  private static final int DECK_KEYS = PALETTE_KEYS + (WINNER_MASK + 1) * KEY_BLOCK;
+  private static final int HAND_KEYS = DECK_KEYS + KEY_BLOCK * KEY_BLOCK;
+  private static final int CANVAS_KEYS = HAND_KEYS + KEY_BLOCK;
+  private static final int PLAYED_TO_CANVAS_KEY = CANVAS_KEYS + KEY_BLOCK;
+  // The random keys themselves, made from a fixed seed so that fingerprints can be stored.
+  private static final long KEY_SEED = 0x5EED_7EDL;
+  private static final long[] KEYS = makeKeys(PLAYED_TO_CANVAS_KEY + 1);
+
+  // The deck, as card codes. Every card before deckTop has already been dealt.
+  private final byte[] deck;
+  private int deckTop;
+  // The cards left in the deck, as a bitboard.
+  private long deckCards;
+
+  // The hand, as card codes in order and as a bitboard.
+  private final byte[] hand;
+  private int handSize;
+  private long handCards;
+  private final int maxHandSize;
+
+  // Every palette, as a bitboard.
+  private final long[] palettes;
+
+  // The score of every palette under every rule, at paletteIdx * NUM_RULES + rule ordinal.
+  private final int[] scores;
+
+  // The index of the palette that wins under each color rule, indexed by the rule's ordinal.
+  // Palettes only ever improve, so these only change when the palette that was played to wins.
+  private final int[] ruleWinners;
+
+  // Every card placed on a palette in the order it was placed, and the palette it was placed on.
+  // Only used to return palettes in order.
+  private final byte[] placedCards;
+  private final byte[] placedPalettes;
+  private int numPlaced;
+
+  private byte canvas;
+  private int winningPaletteIndex;
+  private int lastIndexPlayed;
+  private boolean gameHasEnded;
+  // Whether the user's last move was to the canvas.
+  private boolean playedToCanvas;
+
+  // The undo journal, as records of RECORD_SIZE ints with the latest record last.
+  private int[] journal;
+  private int journalSize;
+
+  // The key of the rules of the game, see rulesKey(). It is part of every fingerprint.
+  private final long rulesKey;
+  // The XOR of the keys of every card on a palette, in the hand, left in the deck at its position,
+  // and on top of the canvas, of whether the canvas was played to, and of the rules.
+  private long fingerprint;
+
+  /**
+   * Sets up a new game by dealing one card from the top of the deck to every palette.
+   * The canvas starts as a red card, and the hand starts empty.
+   * @param deck The codes of the cards to play with, with the top card first.
+   * @param numPalettes The number of palettes in the game.
+   * @param maxHandSize The maximum number of cards allowed in the hand.
+   * @param variantId A number that tells the variant of the game apart from the others.
+   */
+  SoloRedGameState(byte[] deck, int numPalettes, int maxHandSize, int variantId) {
+    this.deck = deck;
+    this.maxHandSize = maxHandSize;
+    this.rulesKey = rulesKey(variantId, numPalettes, maxHandSize);
+    this.hand = new byte[maxHandSize];
+    this.palettes = new long[numPalettes];
+    this.scores = new int[numPalettes * NUM_RULES];
+    this.ruleWinners = new int[NUM_RULES];
+    this.placedCards = new byte[deck.length];
+    this.placedPalettes = new byte[deck.length];
+    // Room for every card to be drawn and played, with a move around each, before growing.
+    this.journal = new int[deck.length * 4 * RECORD_SIZE];
+    deal();
+  }
+
+  /**
+   * Shuffles every card of the game, whether it was dealt or not, and sets up a new game with
+   * them, like the constructor. Nothing is allocated, so a simulation can play many games on one
+   * state.
+   * @param rand The random object to shuffle with.
+   */
+  void redeal(Random rand) {
+    for (int i = deck.length - 1; i > 0; i--) {
+      int j = rand.nextInt(i + 1);
+      byte swap = deck[i];
+      deck[i] = deck[j];
+      deck[j] = swap;
+    }
+    deal();
+  }
+
+  /**
+   * Sets up a new game with the deck as it is, by dealing one card from the top of the deck to
+   * every palette. The canvas starts as a red card, and the hand starts empty.
+   */
+  private void deal() {
+    deckTop = 0;
+    handSize = 0;
+    handCards = 0;
+    Arrays.fill(palettes, 0);
+    Arrays.fill(scores, 0);
+    Arrays.fill(ruleWinners, 0);
+    numPlaced = 0;
+    // The only requirement for this card is that it is red.
+    // The number is meaningless and chosen arbitrarily.
+    canvas = (byte) CardImpl.of(CardColor.RED, CardNumber.ONE).getCode();
+    gameHasEnded = false;
+    playedToCanvas = false;
+    journalSize = 0;
+    fingerprint = rulesKey ^ KEYS[CANVAS_KEYS + canvas];
+    deckCards = 0;
+    for (int i = 0; i < deck.length; i++) {
+      fingerprint ^= KEYS[DECK_KEYS + i * KEY_BLOCK + deck[i]];
+      deckCards |= 1L << deck[i];
+    }
+
+    for (int i = 0; i < palettes.length; i++) {
+      fingerprint ^= KEYS[DECK_KEYS + deckTop * KEY_BLOCK + deck[deckTop]];
+      deckCards &= ~(1L << deck[deckTop]);
+      place(i, deck[deckTop]);
+      deckTop++;
+    }
+    findWinningPalette();
+    // To keep a consistent game state for isGameOver to check.
+    lastIndexPlayed = winningPaletteIndex;
+  }
+
+  /**
+   * Creates a copy of the given state, which shares nothing with it.
+   * This takes time proportional to the size of the state, and checks nothing.
+   * @param other The state to copy.
+   */
+  SoloRedGameState(SoloRedGameState other) {
+    this.deck = other.deck.clone();
+    this.deckTop = other.deckTop;
+    this.deckCards = other.deckCards;
+    this.maxHandSize = other.maxHandSize;
+    this.rulesKey = other.rulesKey;
+    this.hand = other.hand.clone();
+    this.handSize = other.handSize;
+    this.handCards = other.handCards;
+    this.palettes = other.palettes.clone();
+    this.scores = other.scores.clone();
+    this.ruleWinners = other.ruleWinners.clone();
+    this.placedCards = other.placedCards.clone();
+    this.placedPalettes = other.placedPalettes.clone();
+    this.numPlaced = other.numPlaced;
+    this.canvas = other.canvas;
+    this.winningPaletteIndex = other.winningPaletteIndex;
+    this.lastIndexPlayed = other.lastIndexPlayed;
+    this.gameHasEnded = other.gameHasEnded;
+    this.playedToCanvas = other.playedToCanvas;
+    this.journal = other.journal.clone();
+    this.journalSize = other.journalSize;
+    this.fingerprint = other.fingerprint;
+  }
+
+  // Operations
+
+  /**
+   * Plays the given card from the hand to the given palette, then checks if the game is over.
+   * @param paletteIdx The palette to play to.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   */
+  void playToPalette(int paletteIdx, int cardIdxInHand) {
+    record(PALETTE | cardIdxInHand << BYTE_SHIFT, packWinners());
+    place(paletteIdx, removeFromHand(cardIdxInHand));
+    lastIndexPlayed = paletteIdx;
+    findWinningPalette();
+    checkGameOver();
+    updatePlayedToCanvas(false);
+  }
+
+  /**
+   * Plays the given card from the hand to the canvas.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   */
+  void playToCanvas(int cardIdxInHand) {
+    record(CANVAS | cardIdxInHand << BYTE_SHIFT | canvas << (2 * BYTE_SHIFT), 0);
+    fingerprint ^= KEYS[CANVAS_KEYS + canvas];
+    canvas = (byte) removeFromHand(cardIdxInHand);
+    fingerprint ^= KEYS[CANVAS_KEYS + canvas];
+    findWinningPalette();
+    updatePlayedToCanvas(true);
+  }
+
+  /**
+   * Moves the top card of the deck to the end of the hand.
+   * There must be a card in the deck and room in the hand.
+   */
+  void drawCard() {
+    record(DRAW, 0);
+    int code = deck[deckTop];
+    fingerprint ^= KEYS[DECK_KEYS + deckTop * KEY_BLOCK + code] ^ KEYS[HAND_KEYS + code];
+    deckCards &= ~(1L << code);
+    deckTop++;
+    hand[handSize] = (byte) code;
+    handSize++;
+    handCards |= 1L << code;
+  }
+
+  /**
+   * Swaps the given card, which must be in the deck, with the card that would be drawn after the
+   * given number of others, so that it is drawn in its place.
+   * @param code The code of the card.
+   * @param position The number of cards drawn before it, less than deckSize().
+   */
+  void stackDeck(int code, int position) {
+    int deckIdx = deckTop;
+    while (deck[deckIdx] != code) {
+      deckIdx++;
+    }
+    int target = deckTop + position;
+    record(STACK | deckIdx << BYTE_SHIFT | target << (2 * BYTE_SHIFT), 0);
+    swapInDeck(deckIdx, target);
+  }
+
+  /**
+   * Shuffles the cards left in the deck, recording every swap so that the whole shuffle is undone
+   * with the move it belongs to.
+   * @param rand The random object to shuffle with.
+   */
+  void shuffleDeck(Random rand) {
+    for (int i = deck.length - 1; i > deckTop; i--) {
+      int j = deckTop + rand.nextInt(i - deckTop + 1);
+      if (j != i) {
+        record(STACK | j << BYTE_SHIFT | i << (2 * BYTE_SHIFT), 0);
+        swapInDeck(j, i);
+      }
+    }
+  }
+
+  /**
+   * Swaps the cards at the given indices of the deck, keeping the fingerprint up to date.
+   * This does not record the change.
+   * @param first The index of a card in the deck, at least deckTop.
+   * @param second The index of another card in the deck, at least deckTop.
+   */
+  private void swapInDeck(int first, int second) {
+    int firstCode = deck[first];
+    int secondCode = deck[second];
+    fingerprint ^= KEYS[DECK_KEYS + first * KEY_BLOCK + firstCode]
+            ^ KEYS[DECK_KEYS + second * KEY_BLOCK + secondCode]
+            ^ KEYS[DECK_KEYS + first * KEY_BLOCK + secondCode]
+            ^ KEYS[DECK_KEYS + second * KEY_BLOCK + firstCode];
+    deck[first] = (byte) secondCode;
+    deck[second] = (byte) firstCode;
+  }
+
+  /**
+   * Updates whether the game is over, which is the case if either the last move the player made
+   * was to play to a palette that did not become the winner, or both the deck and the hand are
+   * empty.
+   * @return If the game is over.
+   */
+  boolean checkGameOver() {
+    // The game should not be over if the user just played to the canvas
+    gameHasEnded = !playedToCanvas
+            && (winningPaletteIndex != lastIndexPlayed)
+            || (handSize == 0 && deckTop == deck.length);
+    return gameHasEnded;
+  }
+
+  /**
+   * Sets whether the user's last move was to the canvas.
+   * @param playedToCanvas Whether the user's last move was to the canvas.
+   */
+  void setPlayedToCanvas(boolean playedToCanvas) {
+    record(FLAGS, 0);
+    updatePlayedToCanvas(playedToCanvas);
+  }
+
+  /**
+   * Sets playedToCanvas, keeping the fingerprint up to date. This does not record the change.
+   * @param playedToCanvas Whether the user's last move was to the canvas.
+   */
+  private void updatePlayedToCanvas(boolean playedToCanvas) {
+    if (this.playedToCanvas != playedToCanvas) {
+      fingerprint ^= KEYS[PLAYED_TO_CANVAS_KEY];
+      this.playedToCanvas = playedToCanvas;
+    }
+  }
+
+  /**
+   * Starts a new move in the undo journal. Every change made until the next call to this method is
+   * undone together by {@link #undoMove()}.
+   * @param variantState Any extra state of the variant being played, returned when this move is
+   *                     undone.
+   */
+  void beginMove(int variantState) {
+    record(MARK, variantState);
+  }
+
+  /**
+   * Undoes every change made since the last call to {@link #beginMove(int)}, in reverse order, so
+   * that the state is exactly as it was before. There must be a move to undo.
+   * @return The variant state given when the move began.
+   */
+  int undoMove() {
+    while (true) {
+      journalSize -= RECORD_SIZE;
+      int change = journal[journalSize];
+      int flags = journal[journalSize + 1];
+      int extra = journal[journalSize + 2];
+      int cardIdxInHand = (change >>> BYTE_SHIFT) & BYTE_MASK;
+      switch (change & KIND_MASK) {
+        case MARK:
+          return extra;
+        case PALETTE:
+          unplace();
+          insertIntoHand(cardIdxInHand, placedCards[numPlaced]);
+          unpackWinners(extra);
+          break;
+        case CANVAS:
+          insertIntoHand(cardIdxInHand, canvas);
+          fingerprint ^= KEYS[CANVAS_KEYS + canvas];
+          canvas = (byte) (change >>> (2 * BYTE_SHIFT));
+          fingerprint ^= KEYS[CANVAS_KEYS + canvas];
+          break;
+        case DRAW:
+          handSize--;
+          handCards &= ~(1L << hand[handSize]);
+          deckTop--;
+          deckCards |= 1L << hand[handSize];
+          fingerprint ^= KEYS[DECK_KEYS + deckTop * KEY_BLOCK + hand[handSize]]
+                  ^ KEYS[HAND_KEYS + hand[handSize]];
+          break;
+        case STACK:
+          // The arguments of a STACK record are indices into the deck, not the hand.
+          swapInDeck(cardIdxInHand, change >>> (2 * BYTE_SHIFT));
+          break;
+        default:
+          break;
+      }
+      unpackFlags(flags);
+    }
+  }
+
+  /**
+   * Returns if there is a move in the undo journal.
+   * @return If there is a move to undo.
+   */
+  boolean canUndo() {
+    return journalSize > 0;
+  }
+
+  /**
+   * Empties the undo journal, so that no move made so far can be undone.
+   */
+  void forgetMoves() {
+    journalSize = 0;
+  }
+
+  /**
+   * Adds a record to the undo journal, along with the flags as they are before the change.
+   * The journal only grows when a game runs far longer than expected.
+   * @param change The kind of change, and its arguments.
+   * @param extra The rule winners before the change, or the variant state of a MARK.
+   */
+  private void record(int change, int extra) {
+    if (journalSize + RECORD_SIZE > journal.length) {
+      journal = Arrays.copyOf(journal, journal.length * 2);
+    }
+    journal[journalSize] = change;
+    journal[journalSize + 1] = packFlags();
+    journal[journalSize + 2] = extra;
+    journalSize += RECORD_SIZE;
+  }
+
+  /**
+   * Packs lastIndexPlayed, winningPaletteIndex, gameHasEnded and playedToCanvas into an int.
+   * @return The packed flags.
+   */
+  private int packFlags() {
+    return lastIndexPlayed
+            | winningPaletteIndex << BYTE_SHIFT
+            | (gameHasEnded ? 1 : 0) << (2 * BYTE_SHIFT)
+            | (playedToCanvas ? 1 : 0) << (3 * BYTE_SHIFT);
+  }
+
+  /**
+   * Restores flags packed by {@link #packFlags()}.
+   * @param flags The packed flags.
+   */
+  private void unpackFlags(int flags) {
+    lastIndexPlayed = flags & BYTE_MASK;
+    winningPaletteIndex = (flags >>> BYTE_SHIFT) & BYTE_MASK;
+    gameHasEnded = ((flags >>> (2 * BYTE_SHIFT)) & 1) != 0;
+    updatePlayedToCanvas(((flags >>> (3 * BYTE_SHIFT)) & 1) != 0);
+  }
+
+  /**
+   * Packs the winner of every color rule into an int.
+   * @return The packed rule winners.
+   */
+  private int packWinners() {
+    int packed = 0;
+    for (int rule = 0; rule < NUM_RULES; rule++) {
+      packed |= ruleWinners[rule] << (rule * WINNER_SHIFT);
+    }
+    return packed;
+  }
+
+  /**
+   * Restores rule winners packed by {@link #packWinners()}.
+   * @param packed The packed rule winners.
+   */
+  private void unpackWinners(int packed) {
+    for (int rule = 0; rule < NUM_RULES; rule++) {
+      ruleWinners[rule] = (packed >>> (rule * WINNER_SHIFT)) & WINNER_MASK;
+    }
+  }
+
+  /**
+   * Inserts the given card into the hand, shifting the later cards up.
+   * @param cardIdxInHand The index the card should have in the hand.
+   * @param code The code of the card.
+   */
+  private void insertIntoHand(int cardIdxInHand, int code) {
+    System.arraycopy(hand, cardIdxInHand, hand, cardIdxInHand + 1, handSize - cardIdxInHand);
+    hand[cardIdxInHand] = (byte) code;
+    handSize++;
+    handCards |= 1L << code;
+    fingerprint ^= KEYS[HAND_KEYS + code];
+  }
+
+  /**
+   * Removes the card that was placed last from its palette, and scores that palette again.
+   * Rule winners are not updated, they are restored from the journal instead.
+   */
+  private void unplace() {
+    numPlaced--;
+    int paletteIdx = placedPalettes[numPlaced];
+    palettes[paletteIdx] &= ~(1L << placedCards[numPlaced]);
+    fingerprint ^= KEYS[PALETTE_KEYS + paletteIdx * KEY_BLOCK + placedCards[numPlaced]];
+    int offset = paletteIdx * NUM_RULES;
+    for (int rule = 0; rule < NUM_RULES; rule++) {
+      scores[offset + rule] = Palette.score(palettes[paletteIdx], COLOR_RULES[rule]);
+    }
+  }
+
+  /**
+   * Removes the given card from the hand, shifting the later cards down.
+   * @param cardIdxInHand The index of the card in the hand.
+   * @return The code of the removed card.
+   */
+  private int removeFromHand(int cardIdxInHand) {
+    int code = hand[cardIdxInHand];
+    System.arraycopy(hand, cardIdxInHand + 1, hand, cardIdxInHand, handSize - cardIdxInHand - 1);
+    handSize--;
+    handCards &= ~(1L << code);
+    fingerprint ^= KEYS[HAND_KEYS + code];
+    return code;
+  }
+
+  /**
+   * Places the given card on the given palette, and updates that palette's scores and the winner
+   * of every color rule.
+   * Placing a card can only raise a palette's scores, so the only possible change is that the
+   * given palette now wins a rule it did not win before. Scores already include the tiebreak, so
+   * the winner of a rule is simply the palette with the highest score.
+   * @param paletteIdx The palette to place on.
+   * @param code The code of the card to place.
+   */
+  private void place(int paletteIdx, int code) {
+    palettes[paletteIdx] |= 1L << code;
+    fingerprint ^= KEYS[PALETTE_KEYS + paletteIdx * KEY_BLOCK + code];
+    placedCards[numPlaced] = (byte) code;
+    placedPalettes[numPlaced] = (byte) paletteIdx;
+    numPlaced++;
+
+    int offset = paletteIdx * NUM_RULES;
+    for (int rule = 0; rule < NUM_RULES; rule++) {
+      int score = Palette.score(palettes[paletteIdx], COLOR_RULES[rule]);
+      scores[offset + rule] = score;
+      if (score > scores[ruleWinners[rule] * NUM_RULES + rule]) {
+        ruleWinners[rule] = paletteIdx;
+      }
+    }
+  }
+
+  /**
+   * Updates winningPaletteIndex so that it references the palette that is currently wining.
+   * This follows the rules given by the color of the top canvas card:
+   * <ul>
+   *   <li>Red: The palette with the highest card wins.</li>
+   *   <li>Orange: The palette with the most of a single number of card wins.</li>
+   *   <li>Blue: The palette with the most different colors wins.</li>
+   *   <li>Indigo: The palette with the longest run wins.</li>
+   *   <li>Violet: The palette with the most cards below the value of 4 wins.</li>
+   * </ul>
+   * In the event of a tie, the palette with the significant card that scores highest by the red
+   * rule wins.
+   * (A significant card is a card that is helping that palette tie in the original rules.)
+   * If there are no significant cards, then the palette that wins under the red rule is found.
+   * This only reads the winners kept by place(), so it takes constant time.
+   */
+  private void findWinningPalette() {
+    winningPaletteIndex = winnerUnder(ruleOf(canvas));
+  }
+
+  /**
+   * Returns the palette that wins under the given color rule, falling back to the red rule if no
+   * palette has a valid selection for it.
+   * @param rule The ordinal of the color rule.
+   * @return The index of the winning palette.
+   */
+  private int winnerUnder(int rule) {
+    int winner = ruleWinners[rule];
+    if (scores[winner * NUM_RULES + rule] == 0) {
+      // If no palettes had a valid section for the current rule, use red rule.
+      winner = ruleWinners[CardColor.RED.ordinal()];
+    }
+    return winner;
+  }
+
+  /**
+   * Returns the color rule a card sets when it is the top card of the canvas.
+   * @param code The code of the card.
+   * @return The ordinal of the card's color.
+   */
+  private static int ruleOf(int code) {
+    return CardImpl.fromCode(code).getColor().ordinal();
+  }
+
+  /**
+   * Finds the palette that would be winning if the given card from the hand were played to the
+   * given palette, without playing it.
+   * Placing a card only raises that palette's scores, so it wins exactly when it beats the
+   * current winner of the rule, or when no palette has a selection for the rule and it beats the
+   * winner of the red rule instead.
+   * @param paletteIdx The palette to play to.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   * @return The index of the palette that would be winning.
+   */
+  int winnerIfPlayedToPalette(int paletteIdx, int cardIdxInHand) {
+    long cards = palettes[paletteIdx] | 1L << hand[cardIdxInHand];
+    int rule = ruleOf(canvas);
+    int best = scores[ruleWinners[rule] * NUM_RULES + rule];
+    if (Palette.score(cards, COLOR_RULES[rule]) > best) {
+      return paletteIdx;
+    }
+    if (best > 0) {
+      return ruleWinners[rule];
+    }
+    int red = CardColor.RED.ordinal();
+    if (Palette.score(cards, CardColor.RED) > scores[ruleWinners[red] * NUM_RULES + red]) {
+      return paletteIdx;
+    }
+    return ruleWinners[red];
+  }
+
+  /**
+   * Finds the palette that would be winning if the given card from the hand were played to the
+   * canvas, without playing it.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   * @return The index of the palette that would be winning.
+   */
+  int winnerIfPlayedToCanvas(int cardIdxInHand) {
+    return winnerUnder(ruleOf(hand[cardIdxInHand]));
+  }
+
+  /**
+   * Returns if the game can certainly no longer be won, whatever is played, without searching
+   * any moves. A false result proves nothing.
+   * <p>Every card left in the hand and the deck must still be played, and every turn must make a
+   * palette that is not winning into the winner by playing one card to it. Palettes only ever
+   * gain cards, so the other palettes will be at least as strong as they are now. The only rules
+   * that can ever apply are those of the canvas and of the cards left. The game is lost if:</p>
+   * <ul>
+   *   <li>no palette could take the lead with any one of the cards left, under any of those rules,
+   *   since then no palette can ever be played to again, or</li>
+   *   <li>only one palette could ever win, even with every card left added to it, and it is
+   *   already winning, so that no turn can take the lead, or</li>
+   *   <li>only one palette could ever win, and there are too many cards left to play them all in
+   *   one turn, since the next turn after that one would need another palette to take the lead,
+   *   or</li>
+   *   <li>only the red rule can ever apply, and too few cards are left that beat the highest card
+   *   on the palettes. Under the red rule, every card played to a palette must beat every card
+   *   played before it, so every other card must go to the canvas, at most one each turn.</li>
+   * </ul>
+   * @return If the game is certainly lost.
+   */
+  boolean isProvablyLost() {
+    long remaining = handCards | deckCards;
+    if (remaining == 0) {
+      return false;
+    }
+    int rules = 1 << ruleOf(canvas);
+    for (long cards = remaining; cards != 0; cards &= cards - 1) {
+      rules |= 1 << ruleOf(Long.numberOfTrailingZeros(cards));
+    }
+
+    int red = CardColor.RED.ordinal();
+    if (rules == 1 << red) {
+      int highest = Palette.bestCardOf(scores[ruleWinners[red] * NUM_RULES + red]).getCode();
+      int numHigher = Long.bitCount(remaining & -2L << highest);
+      if (2 * numHigher < Long.bitCount(remaining)) {
+        return true;
+      }
+    }
+
+    boolean anyCanTakeLead = false;
+    for (int paletteIdx = 0; paletteIdx < palettes.length && !anyCanTakeLead; paletteIdx++) {
+      for (long cards = remaining; cards != 0 && !anyCanTakeLead; cards &= cards - 1) {
+        anyCanTakeLead = canEverWin(
+                paletteIdx, palettes[paletteIdx] | Long.lowestOneBit(cards), rules);
+      }
+    }
+    if (!anyCanTakeLead) {
+      return true;
+    }
+
+    int numCanWin = 0;
+    int canWin = -1;
+    for (int paletteIdx = 0; paletteIdx < palettes.length && numCanWin < 2; paletteIdx++) {
+      if (canEverWin(paletteIdx, palettes[paletteIdx] | remaining, rules)) {
+        numCanWin++;
+        canWin = paletteIdx;
+      }
+    }
+    // A single turn plays at most two cards, one to the canvas and one to a palette.
+    return numCanWin == 1 && (canWin == winningPaletteIndex || Long.bitCount(remaining) > 2);
+  }
+
+  /**
+   * Returns if the given palette could win under any of the given rules, if it had the given
+   * cards and every other palette stayed as it is. This includes winning by the red rule when no
+   * palette has a selection for the rule of the canvas.
+   * @param paletteIdx The palette to check.
+   * @param bestCards The most cards the palette could ever have, as a bitboard.
+   * @param rules The rules that can apply, as a mask of rule ordinals.
+   * @return If the palette could ever win.
+   */
+  private boolean canEverWin(int paletteIdx, long bestCards, int rules) {
+    int red = CardColor.RED.ordinal();
+    for (int rule = 0; rule < NUM_RULES; rule++) {
+      if ((rules & 1 << rule) == 0) {
+        continue;
+      }
+      int bestOther = bestOtherScore(paletteIdx, rule);
+      if (Palette.score(bestCards, COLOR_RULES[rule]) > bestOther) {
+        return true;
+      }
+      if (bestOther == 0
+              && Palette.score(bestCards, CardColor.RED) > bestOtherScore(paletteIdx, red)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Returns the highest score of any palette but the given one under the given rule.
+   * @param paletteIdx The palette to leave out.
+   * @param rule The ordinal of the color rule.
+   * @return The highest score of the other palettes.
+   */
+  private int bestOtherScore(int paletteIdx, int rule) {
+    int winner = ruleWinners[rule];
+    if (winner != paletteIdx) {
+      return scores[winner * NUM_RULES + rule];
+    }
+    int best = 0;
+    for (int other = 0; other < palettes.length; other++) {
+      if (other != paletteIdx) {
+        best = Math.max(best, scores[other * NUM_RULES + rule]);
+      }
+    }
+    return best;
+  }
+
+  // Observations
+
+  /**
+   * Returns the number of cards left in the deck.
+   * @return The number of cards left in the deck.
+   */
+  int deckSize() {
+    return deck.length - deckTop;
+  }
+
+  /**
+   * Returns the cards left in the deck as a bitboard.
+   * @return The bitboard of the deck.
+   */
+  long deckCards() {
+    return deckCards;
+  }
+
+  /**
+   * Returns the number of cards in the hand.
+   * @return The number of cards in the hand.
+   */
+  int handSize() {
+    return handSize;
+  }
+
+  /**
+   * Returns the maximum number of cards allowed in the hand.
+   * @return The maximum number of cards allowed in the hand.
+   */
+  int maxHandSize() {
+    return maxHandSize;
+  }
+
+  /**
+   * Returns the code of the given card in the hand.
+   * @param cardIdxInHand The index of the card in the hand.
+   * @return The code of that card.
+   */
+  int handCard(int cardIdxInHand) {
+    return hand[cardIdxInHand];
+  }
+
+  /**
+   * Returns the hand as a bitboard.
+   * @return The bitboard of the hand.
+   */
+  long handCards() {
+    return handCards;
+  }
+
+  /**
+   * Returns the number of palettes in the game.
+   * @return The number of palettes in the game.
+   */
+  int numPalettes() {
+    return palettes.length;
+  }
+
+  /**
+   * Returns the given palette as a bitboard.
+   * @param paletteIdx The index of the palette.
+   * @return The bitboard of the palette.
+   */
+  long paletteCards(int paletteIdx) {
+    return palettes[paletteIdx];
+  }
+
+  /**
+   * Returns the number of cards on the given palette.
+   * @param paletteIdx The index of the palette.
+   * @return The number of cards on the palette.
+   */
+  int paletteSize(int paletteIdx) {
+    return Long.bitCount(palettes[paletteIdx]);
+  }
+
+  /**
+   * Returns the codes of the cards on the given palette, in the order they were placed.
+   * @param paletteIdx The index of the palette.
+   * @return A new array of the codes of the cards on the palette.
+   */
+  byte[] paletteInOrder(int paletteIdx) {
+    byte[] inOrder = new byte[Long.bitCount(palettes[paletteIdx])];
+    int size = 0;
+    for (int i = 0; i < numPlaced; i++) {
+      if (placedPalettes[i] == paletteIdx) {
+        inOrder[size] = placedCards[i];
+        size++;
+      }
+    }
+    return inOrder;
+  }
+
+  /**
+   * Returns the score of the given palette under the rule of the canvas, see
+   * {@link Palette#score(long, CardColor)}.
+   * @param paletteIdx The index of the palette.
+   * @return The packed score of the palette.
+   */
+  int score(int paletteIdx) {
+    return scores[paletteIdx * NUM_RULES + ruleOf(canvas)];
+  }
+
+  /**
+   * Returns the code of the top card of the canvas.
+   * @return The code of the top card of the canvas.
+   */
+  int canvas() {
+    return canvas;
+  }
+
+  /**
+   * Returns the index of the palette that is currently winning.
+   * @return The index of the winning palette.
+   */
+  int winningPaletteIndex() {
+    return winningPaletteIndex;
+  }
+
+  /**
+   * Returns the index of the palette that was played to last, or the winning palette if none was.
+   * @return The index of the last palette played to.
+   */
+  int lastIndexPlayed() {
+    return lastIndexPlayed;
+  }
+
+  /**
+   * Returns if the game has ended, as of the last call to checkGameOver().
+   * @return If the game has ended.
+   */
+  boolean hasEnded() {
+    return gameHasEnded;
+  }
+
+  /**
+   * Returns whether the user's last move was to the canvas.
+   * @return Whether the user's last move was to the canvas.
+   */
+  boolean playedToCanvas() {
+    return playedToCanvas;
+  }
+
+  /**
+   * Returns the Zobrist fingerprint of the position: the cards on every palette, in the hand and
+   * on the canvas, the cards left in the deck in their order, whether the canvas was played to
+   * this turn, and the rules of the game. Equal positions always have equal fingerprints, even if
+   * their hands list the same cards in a different order. This takes constant time, since every
+   * change keeps it up to date.
+   * @return The fingerprint of the position.
+   */
+  long fingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Returns a hash of the order of the cards left in the deck, counted from its top, and of the
+   * rules of the game. Unlike the fingerprint, it does not depend on how many cards were dealt
+   * before, so decks of different deals that hold the same cards in the same order share it. This
+   * takes time proportional to the size of the deck.
+   * @return The hash of the deck and the rules.
+   */
+  long deckOrderKey() {
+    long key = rulesKey;
+    for (int i = deckTop; i < deck.length; i++) {
+      key ^= KEYS[DECK_KEYS + (i - deckTop) * KEY_BLOCK + deck[i]];
+    }
+    return key;
+  }
+
+  /**
+   * Returns a key to fold into a fingerprint for extra state kept by a variant, see
+   * {@link #beginMove(int)}. No extra state has a key of 0, so it leaves the fingerprint as is.
+   * @param variantState The extra state of the variant.
+   * @return The key of that state.
+   */
+  static long variantKey(int variantState) {
+    // Keys before the seed are never used by KEYS.
+    return variantState == 0 ? 0 : mix(KEY_SEED - variantState);
+  }
+
+  /**
+   * Returns a key to fold into every fingerprint of a game for its rules, so that the same deal
+   * played by another variant, with another number of palettes or with another hand size never
+   * shares its fingerprints.
+   * @param variantId A number that tells the variant of the game apart from the others.
+   * @param numPalettes The number of palettes in the game.
+   * @param maxHandSize The maximum number of cards allowed in the hand.
+   * @return The key of the rules.
+   */
+  private static long rulesKey(int variantId, int numPalettes, int maxHandSize) {
+    // Keys after those of KEYS are never used by it, nor by variantKey().
+    long rules = (long) variantId << 48 | (long) numPalettes << 32 | maxHandSize;
+    return mix(KEY_SEED + KEYS.length + rules);
+  }
+
+  /**
+   * Makes the random keys of every feature of a position.
+   * @param numKeys The number of keys to make.
+   * @return The keys.
+   */
+  private static long[] makeKeys(int numKeys) {
+    long[] keys = new long[numKeys];
+    for (int i = 0; i < numKeys; i++) {
+      keys[i] = mix(KEY_SEED + i);
+    }
+    return keys;
+  }
+
+  /**
+   * Scrambles the bits of the given value, using the finalizer of SplitMix64, so that nearby
+   * values give unrelated results.
+   * @param value The value to scramble.
+   * @return The scrambled value.
+   */
+  private static long mix(long value) {
+    long z = value * 0x9E3779B97F4A7C15L;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  /**
+   * Returns if the game has been won, which is the case if both the deck and the hand are empty
+   * and the last palette played to is winning.
+   * @return If the game has been won.
+   */
+  boolean isWon() {
+    return handSize == 0 && deckTop == deck.length && lastIndexPlayed == winningPaletteIndex;
+  }
+}
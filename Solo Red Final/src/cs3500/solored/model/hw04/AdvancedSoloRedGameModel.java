@@ -50,6 +50,26 @@ public class AdvancedSoloRedGameModel
     canDrawExtra = false;
   }
 
+  /**
+   * Creates a copy of the given model, which can be played independently of it.
+   * This includes whether the next draw may take an extra card.
+   * @param other The model to copy.
+   * @throws IllegalArgumentException If other is null.
+   */
+  public AdvancedSoloRedGameModel(AdvancedSoloRedGameModel other) {
+    super(other);
+    canDrawExtra = other.canDrawExtra;
+  }
+
+  /**
+   * Creates a copy of this model, which can be played independently of it.
+   * @return A new AdvancedSoloRedGameModel in the same state as this one.
+   */
+  @Override
+  public AdvancedSoloRedGameModel fork() {
+    return new AdvancedSoloRedGameModel(this);
+  }
+
 
   /**
    * Play the given card from the hand to the losing palette chosen.
@@ -66,13 +86,44 @@ public class AdvancedSoloRedGameModel
    */
   @Override
   public void playToPalette(int paletteIdx, int cardIdxInHand) {
-    // If the player played to the canvas since last draw.
-    if (playedToCanvas) {
-      if (getPalette(winningPaletteIndex()).size() < getCanvas().getNumber()) {
+    boolean earnedExtra = earnsExtraDraw();
+    try {
+      super.playToPalette(paletteIdx, cardIdxInHand);
+    } catch (IllegalStateException | IllegalArgumentException e) {
+      // A play that was not allowed still earns the extra card, since that only depends on the
+      // canvas.
+      if (earnedExtra) {
         canDrawExtra = true;
       }
+      throw e;
     }
-    super.playToPalette(paletteIdx, cardIdxInHand);
+  }
+
+  /**
+   * Plays the given card from the hand to the given palette, without checking that the play is
+   * allowed, and earns an extra card for the next draw if the canvas allows it.
+   * @param paletteIdx The palette to play to, which is not winning.
+   * @param cardIdxInHand The index of the card in the hand to play.
+   */
+  @Override
+  protected void applyPlayToPalette(int paletteIdx, int cardIdxInHand) {
+    boolean earnedExtra = earnsExtraDraw();
+    super.applyPlayToPalette(paletteIdx, cardIdxInHand);
+    // Set after the move begins, so that undo() sees the value from before it.
+    if (earnedExtra) {
+      canDrawExtra = true;
+    }
+  }
+
+  /**
+   * Returns if a play to a palette right now earns an extra card for the next draw: if the player
+   * played to the canvas since the last draw, and that card's value is greater than the length of
+   * the winning palette. Reads the game as it is, without copying the winning palette.
+   * @return If a play to a palette earns an extra card.
+   */
+  private boolean earnsExtraDraw() {
+    return hasPlayedToCanvas()
+            && paletteSize(winningPaletteIndex()) < getCanvas().getNumber();
   }
 
   /**
@@ -87,16 +138,59 @@ public class AdvancedSoloRedGameModel
    */
   @Override
   public void drawForHand() {
-    if (!canDrawToHand()) {
+    boolean canDraw = canDrawToHand();
+    beginMove();
+    if (!canDraw) {
       return;
     }
 
-    hand.add(deck.remove(0));
+    drawCard();
     if (canDrawExtra) {
       canDrawExtra = false;
-      drawForHand();
+      if (canDrawToHand()) {
+        drawCard();
+      }
     }
 
-    playedToCanvas = false;
+    setPlayedToCanvas(false);
+  }
+
+  /**
+   * Returns the number of cards drawForHand() would draw right now: 2 if an extra card was earned
+   * since the last draw, otherwise 1, but never more than fit in the hand or are left in the deck.
+   *
+   * @return the number of cards the next draw would take, 0 if the game is over
+   * @throws IllegalStateException if the game has not started
+   */
+  @Override
+  public int numCardsToDraw() {
+    return Math.min(super.numCardsToDraw(), canDrawExtra ? 2 : 1);
+  }
+
+  /**
+   * Returns the id of the advanced variant, which plays differently from the basic game.
+   * @return 1.
+   */
+  @Override
+  protected int variantId() {
+    return 1;
+  }
+
+  /**
+   * Returns whether the next draw may take an extra card, so that undo() can restore it.
+   * @return 1 if the next draw may take an extra card, 0 otherwise.
+   */
+  @Override
+  protected int variantState() {
+    return canDrawExtra ? 1 : 0;
+  }
+
+  /**
+   * Restores whether the next draw may take an extra card.
+   * @param variantState 1 if the next draw may take an extra card, 0 otherwise.
+   */
+  @Override
+  protected void restoreVariantState(int variantState) {
+    canDrawExtra = variantState != 0;
   }
 }
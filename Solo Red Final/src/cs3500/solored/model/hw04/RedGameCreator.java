@@ -1,5 +1,8 @@
 package cs3500.solored.model.hw04;
 
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
 import cs3500.solored.model.hw02.RedGameModel;
 import cs3500.solored.model.hw02.SoloRedGameModel;
 
@@ -20,11 +23,22 @@ public class RedGameCreator {
    * @return A new object of the corresponding implementation type.
    */
   public static RedGameModel createGame(GameType type) {
+    return createGame(type, new Random());
+  }
+
+  /**
+   * Creates a RedGameModel of the given type, which shuffles with the given Random object.
+   * @param type The GameType to use.
+   * @param rand The Random object the model shuffles with.
+   * @return A new object of the corresponding implementation type.
+   * @throws IllegalArgumentException If rand is null.
+   */
+  public static AbstractSoloRedGameModel createGame(GameType type, Random rand) {
     switch (type) {
       case BASIC:
-        return new SoloRedGameModel();
+        return new SoloRedGameModel(rand);
       case ADVANCED:
-        return new AdvancedSoloRedGameModel();
+        return new AdvancedSoloRedGameModel(rand);
       default:
         // This should never happen. There are only two GameTypes
         return null;
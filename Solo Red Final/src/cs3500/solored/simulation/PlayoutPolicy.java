@@ -0,0 +1,167 @@
+package cs3500.solored.simulation;
+
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * Picks the plays of a simulated game of RedSeven, one at a time. Policies are called for every
+ * play of millions of games, so they should not allocate or print anything.
+ * Every play to a palette is followed by drawing for the hand, unless it ended the game, so a
+ * policy never draws.
+ */
+public interface PlayoutPolicy {
+
+  /**
+   * Picks the next play of the given game from the given legal plays.
+   * @param model The game being played. A policy may make and undo plays on it to look ahead,
+   *              but must leave it as it was.
+   * @param moves The legal plays, encoded by {@link RedMove}, as listed by
+   *              {@link AbstractSoloRedGameModel#legalMoves(int[])}. The policy may reorder them.
+   * @param numMoves The number of legal plays, at least 1.
+   * @param rand The random object of the thread the game is played on.
+   * @return One of the given plays.
+   */
+  int chooseMove(AbstractSoloRedGameModel model, int[] moves, int numMoves, Random rand);
+
+  /**
+   * Returns a policy that picks any legal play, each as likely as the others.
+   * @return The policy.
+   */
+  static PlayoutPolicy uniformRandom() {
+    return (model, moves, numMoves, rand) -> moves[rand.nextInt(numMoves)];
+  }
+
+  /**
+   * Returns a policy that picks any legal play that does not lose the game at once, each as likely
+   * as the others: any play to the canvas, or any play to a palette that makes it the winner.
+   * If there is none, it picks any legal play.
+   * @return The policy.
+   */
+  static PlayoutPolicy randomSurviving() {
+    return (model, moves, numMoves, rand) -> {
+      // Moves that survive are gathered at the start of the array.
+      int numSurviving = 0;
+      for (int i = 0; i < numMoves; i++) {
+        int move = moves[i];
+        if (RedMove.isCanvas(move) || model.winnerAfter(move) == RedMove.paletteIdx(move)) {
+          moves[i] = moves[numSurviving];
+          moves[numSurviving] = move;
+          numSurviving++;
+        }
+      }
+      return moves[rand.nextInt(numSurviving == 0 ? numMoves : numSurviving)];
+    };
+  }
+
+  /**
+   * Returns a policy that makes the emptiest palette it can the winner: of the plays to a palette
+   * that make it the winner, it picks one to the palette with the fewest cards. If there is none,
+   * it changes the rule with the first card it may play to the canvas, so that it can try again.
+   * Failing that, it picks the first legal play. It never uses the random object.
+   * @return The policy.
+   */
+  static PlayoutPolicy greedy() {
+    return (model, moves, numMoves, rand) -> {
+      int best = -1;
+      int bestSize = Integer.MAX_VALUE;
+      int firstCanvas = -1;
+      for (int i = 0; i < numMoves; i++) {
+        int move = moves[i];
+        if (RedMove.isCanvas(move)) {
+          firstCanvas = firstCanvas < 0 ? move : firstCanvas;
+          continue;
+        }
+        int paletteIdx = RedMove.paletteIdx(move);
+        int size = model.paletteSize(paletteIdx);
+        if (size < bestSize && model.winnerAfter(move) == paletteIdx) {
+          best = move;
+          bestSize = size;
+        }
+      }
+      if (best >= 0) {
+        return best;
+      }
+      return firstCanvas >= 0 ? firstCanvas : moves[0];
+    };
+  }
+
+  /**
+   * Returns a policy that looks one turn ahead: it tries every play, and after a play to the
+   * canvas every play to a palette that could follow it, and keeps the one that leaves the most
+   * plays to a palette that would take the lead from the cards still in the hand. A play that wins
+   * the game beats any other, and a play that loses it is only picked if every play does.
+   * The plays are made and undone on the given model, which is left as it was. It never uses the
+   * random object.
+   * @return The policy.
+   */
+  static PlayoutPolicy oneTurnLookahead() {
+    return (model, moves, numMoves, rand) -> {
+      int best = moves[0];
+      int bestScore = Integer.MIN_VALUE;
+      for (int i = 0; i < numMoves; i++) {
+        int move = moves[i];
+        int score;
+        if (RedMove.isCanvas(move)) {
+          model.playToCanvas(RedMove.cardIdxInHand(move));
+          score = bestPaletteScore(model);
+          model.undo();
+        } else {
+          score = paletteScore(model, move);
+        }
+        if (score > bestScore) {
+          best = move;
+          bestScore = score;
+        }
+      }
+      return best;
+    };
+  }
+
+  /**
+   * Returns the best score of a play to a palette in the given game, for oneTurnLookahead().
+   * @param model The game, which is left as it was.
+   * @return The best score, or -1 if every play to a palette loses.
+   */
+  private static int bestPaletteScore(AbstractSoloRedGameModel model) {
+    int best = -1;
+    int winner = model.winningPaletteIndex();
+    for (int paletteIdx = 0; paletteIdx < model.numPalettes(); paletteIdx++) {
+      for (int card = 0; card < model.numOfCardsInHand() && paletteIdx != winner; card++) {
+        best = Math.max(best, paletteScore(model, RedMove.toPalette(paletteIdx, card)));
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns the score of a legal play to a palette, for oneTurnLookahead(): -1 if it loses the
+   * game, the most an int can be if it wins it, and otherwise the number of plays to a palette
+   * that would take the lead afterwards, from the cards still in the hand.
+   * @param model The game, which is left as it was.
+   * @param move The play to a palette.
+   * @return The score of the play.
+   */
+  private static int paletteScore(AbstractSoloRedGameModel model, int move) {
+    if (model.winnerAfter(move) != RedMove.paletteIdx(move)) {
+      return -1;
+    }
+    model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+    int score = 0;
+    if (model.isGameOver()) {
+      score = model.isGameWon() ? Integer.MAX_VALUE : -1;
+    } else {
+      int winner = model.winningPaletteIndex();
+      for (int paletteIdx = 0; paletteIdx < model.numPalettes(); paletteIdx++) {
+        for (int card = 0; card < model.numOfCardsInHand() && paletteIdx != winner; card++) {
+          if (model.winnerAfter(RedMove.toPalette(paletteIdx, card)) == paletteIdx) {
+            score++;
+          }
+        }
+      }
+    }
+    model.undo();
+    return score;
+  }
+}
@@ -0,0 +1,200 @@
+package cs3500.solored.simulation;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw04.RedGameCreator;
+
+/**
+ * Plays many complete games of RedSeven with a {@link PlayoutPolicy}, with no controller or view,
+ * and reports how they went. Every game is dealt from every card of the game, shuffled.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The games are split evenly between the threads. Every thread plays all of its games on a
+ *   single model, dealing it again with {@link AbstractSoloRedGameModel#redeal()} after each one,
+ *   so that nothing is allocated per game.</li>
+ *   <li>Every thread has its own random objects for shuffling and for its policy, seeded from a
+ *   single seed, and its own policy from the given supplier. Threads only meet to add up their
+ *   counts once they are done, so the same seed and number of threads always give the same
+ *   report.</li>
+ * </ul>
+ */
+public final class SimulationEngine {
+  private final RedGameCreator.GameType type;
+  private final int numPalettes;
+  private final int handSize;
+  private final Supplier<? extends PlayoutPolicy> policies;
+
+  /**
+   * Creates an engine that plays games of the given type and size.
+   * @param type The variant of the game to play.
+   * @param numPalettes The number of palettes in every game.
+   * @param handSize The size of the hand in every game.
+   * @param policies Makes the policy of each thread. It may return the same policy every time, if
+   *                 that policy can be used from several threads at once.
+   * @throws IllegalArgumentException If type or policies is null, or if a game cannot start with
+   *                                  the given number of palettes and hand size.
+   */
+  public SimulationEngine(RedGameCreator.GameType type, int numPalettes, int handSize,
+                          Supplier<? extends PlayoutPolicy> policies) {
+    if (type == null) {
+      throw new IllegalArgumentException("The type of game may not be null!");
+    }
+    if (policies == null) {
+      throw new IllegalArgumentException("The policies may not be null!");
+    }
+    this.type = type;
+    this.numPalettes = numPalettes;
+    this.handSize = handSize;
+    this.policies = policies;
+    // Throws if a game cannot start with these options.
+    newModel(new Random(0));
+  }
+
+  /**
+   * Plays the given number of games, split between the given number of threads, and blocks until
+   * they are all done.
+   * @param numGames The number of games to play.
+   * @param numThreads The number of threads to play them on.
+   * @param seed The seed every random choice of the simulation follows from.
+   * @return How the games went.
+   * @throws IllegalArgumentException If numGames is negative or numThreads is not positive.
+   * @throws IllegalStateException If a policy picked a play that is not legal, or if the calling
+   *                               thread is interrupted while waiting for the games.
+   */
+  public SimulationReport run(long numGames, int numThreads, long seed) {
+    if (numGames < 0) {
+      throw new IllegalArgumentException("Cannot play a negative number of games: " + numGames);
+    }
+    if (numThreads <= 0) {
+      throw new IllegalArgumentException(
+              "A simulation needs at least 1 thread, not " + numThreads
+      );
+    }
+
+    long start = System.nanoTime();
+    SplittableRandom seeds = new SplittableRandom(seed);
+    AtomicReference<RuntimeException> failure = new AtomicReference<>();
+    Playouts[] playouts = new Playouts[numThreads];
+    Thread[] threads = new Thread[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      long games = numGames / numThreads + (i < numGames % numThreads ? 1 : 0);
+      playouts[i] = new Playouts(games, newModel(new Random(seeds.nextLong())),
+              policies.get(), new Random(seeds.nextLong()));
+      Playouts thread = playouts[i];
+      threads[i] = new Thread(() -> {
+        try {
+          thread.run();
+        } catch (RuntimeException e) {
+          failure.compareAndSet(null, e);
+        }
+      }, "Simulation-" + i);
+      threads[i].start();
+    }
+
+    try {
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while simulating games!");
+    }
+    if (failure.get() != null) {
+      throw new IllegalStateException("A simulated game failed!", failure.get());
+    }
+
+    long wins = 0;
+    long totalLength = 0;
+    int longestGame = 0;
+    long totalCardsLeft = 0;
+    for (Playouts thread : playouts) {
+      wins += thread.wins;
+      totalLength += thread.totalLength;
+      longestGame = Math.max(longestGame, thread.longestGame);
+      totalCardsLeft += thread.totalCardsLeft;
+    }
+    return new SimulationReport(numGames, wins, totalLength, longestGame, totalCardsLeft,
+            System.nanoTime() - start);
+  }
+
+  /**
+   * Creates a model of this engine's type, and starts a game on it.
+   * @param rand The random object the model shuffles with.
+   * @return The started model.
+   * @throws IllegalArgumentException If a game cannot start with this engine's options.
+   */
+  private AbstractSoloRedGameModel newModel(Random rand) {
+    AbstractSoloRedGameModel model = RedGameCreator.createGame(type, rand);
+    model.startGame(model.getAllCards(), false, numPalettes, handSize);
+    return model;
+  }
+
+  /**
+   * The games of one thread, and their counts once they are played.
+   */
+  private static final class Playouts {
+    private final long numGames;
+    private final AbstractSoloRedGameModel model;
+    private final PlayoutPolicy policy;
+    private final Random rand;
+    private long wins;
+    private long totalLength;
+    private int longestGame;
+    private long totalCardsLeft;
+
+    /**
+     * Creates the games of one thread.
+     * @param numGames The number of games to play.
+     * @param model The model to play them on, which belongs to this thread.
+     * @param policy The policy to play them with.
+     * @param rand The random object of the policy.
+     */
+    Playouts(long numGames, AbstractSoloRedGameModel model, PlayoutPolicy policy, Random rand) {
+      this.numGames = numGames;
+      this.model = model;
+      this.policy = policy;
+      this.rand = rand;
+    }
+
+    /**
+     * Plays every game, and counts how they went.
+     * @throws IllegalArgumentException If the policy picked a play that is not legal.
+     */
+    void run() {
+      int[] moves = new int[model.numLegalMoves()];
+      for (long game = 0; game < numGames; game++) {
+        model.redeal();
+        int length = 0;
+        while (!model.isGameOver()) {
+          int numMoves = model.numLegalMoves();
+          if (moves.length < numMoves) {
+            moves = new int[numMoves];
+          }
+          model.legalMoves(moves);
+          int move = policy.chooseMove(model, moves, numMoves, rand);
+          if (RedMove.isCanvas(move)) {
+            model.playToCanvas(RedMove.cardIdxInHand(move));
+            continue;
+          }
+          model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+          length++;
+          if (!model.isGameOver()) {
+            model.drawForHand();
+          }
+        }
+
+        if (model.isGameWon()) {
+          wins++;
+        }
+        totalLength += length;
+        longestGame = Math.max(longestGame, length);
+        totalCardsLeft += model.numOfCardsInDeck() + model.numOfCardsInHand();
+      }
+    }
+  }
+}
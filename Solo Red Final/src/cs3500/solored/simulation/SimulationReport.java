@@ -0,0 +1,108 @@
+package cs3500.solored.simulation;
+
+/**
+ * The results of simulating many games of RedSeven with a {@link SimulationEngine}.
+ */
+public final class SimulationReport {
+  private final long numGames;
+  private final long numWins;
+  // The number of plays to a palette, summed over every game.
+  private final long totalLength;
+  private final int longestGame;
+  // The number of cards left in the deck and hand when each game ended, summed over every game.
+  private final long totalCardsLeft;
+  private final long elapsedNanos;
+
+  /**
+   * Creates a new SimulationReport.
+   * @param numGames The number of games played.
+   * @param numWins The number of games won.
+   * @param totalLength The number of plays to a palette, summed over every game.
+   * @param longestGame The most plays to a palette in any one game.
+   * @param totalCardsLeft The number of cards left when each game ended, summed over every game.
+   * @param elapsedNanos The time the simulation took, in nanoseconds.
+   */
+  SimulationReport(long numGames, long numWins, long totalLength, int longestGame,
+                   long totalCardsLeft, long elapsedNanos) {
+    this.numGames = numGames;
+    this.numWins = numWins;
+    this.totalLength = totalLength;
+    this.longestGame = longestGame;
+    this.totalCardsLeft = totalCardsLeft;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the number of games played.
+   * @return The number of games played.
+   */
+  public long getNumGames() {
+    return numGames;
+  }
+
+  /**
+   * Returns the number of games won.
+   * @return The number of games won.
+   */
+  public long getNumWins() {
+    return numWins;
+  }
+
+  /**
+   * Returns the fraction of games that were won.
+   * @return The win rate, from 0 to 1, or 0 if no game was played.
+   */
+  public double getWinRate() {
+    return numGames == 0 ? 0 : (double) numWins / numGames;
+  }
+
+  /**
+   * Returns the average length of a game, counted in plays to a palette, since every turn ends
+   * with one.
+   * @return The average number of turns, or 0 if no game was played.
+   */
+  public double getAverageLength() {
+    return numGames == 0 ? 0 : (double) totalLength / numGames;
+  }
+
+  /**
+   * Returns the most turns any one game lasted.
+   * @return The length of the longest game.
+   */
+  public int getLongestGame() {
+    return longestGame;
+  }
+
+  /**
+   * Returns the average number of cards left in the deck and hand when a game ended. A game that
+   * was won always ends with none.
+   * @return The average number of cards left, or 0 if no game was played.
+   */
+  public double getAverageCardsLeft() {
+    return numGames == 0 ? 0 : (double) totalCardsLeft / numGames;
+  }
+
+  /**
+   * Returns how long the simulation took.
+   * @return The time the simulation took, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Summarizes the report on one line.
+   * @return The number of games, the win rate, the average length and cards left, and the speed.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+            "%d games, %.4f won, %.2f turns, %.2f cards left, %.0f games/s",
+            numGames,
+            getWinRate(),
+            getAverageLength(),
+            getAverageCardsLeft(),
+            elapsedNanos == 0 ? 0.0 : numGames * 1e9 / elapsedNanos
+    );
+  }
+}
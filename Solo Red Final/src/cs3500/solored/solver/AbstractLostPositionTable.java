@@ -0,0 +1,163 @@
+package cs3500.solored.solver;
+
+/**
+ * General implementation of a fixed-size {@link LostPositionTable} that any number of threads may
+ * read and write at once without locking. Subclasses decide where its longs are kept.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every slot is two longs: the fingerprint XOR the data, then the data. A reader only trusts
+ *   a slot if the two XOR back to the fingerprint it looks for, so a slot torn by two threads
+ *   writing it at once reads as a miss rather than a wrong answer.</li>
+ *   <li>The data of a slot holds the depth of the position, the search it was stored by, and a bit
+ *   that is always set, so that an empty slot never matches.</li>
+ *   <li>Slots are grouped in buckets of four, 64 bytes in all, so that a bucket is usually a single
+ *   cache line. A fingerprint may be stored in any slot of its bucket. When the bucket is full, a
+ *   slot stored by an earlier search is replaced first, and otherwise the one with the least
+ *   depth.</li>
+ *   <li>Positions are told apart only by their fingerprints, so two positions that share one are
+ *   confused. With 64 bits, this is far less likely than any other failure.</li>
+ * </ul>
+ */
+public abstract class AbstractLostPositionTable implements LostPositionTable {
+  // The number of slots in a bucket, and the number of longs in a slot.
+  protected static final int BUCKET_SIZE = 4;
+  protected static final int SLOT_LONGS = 2;
+  // The layout of the data of a slot.
+  private static final int DEPTH_MASK = 0xFF;
+  private static final int AGE_SHIFT = 8;
+  private static final int AGE_MASK = 0xFF;
+  private static final long IN_USE = 1L << 16;
+
+  private final long capacity;
+  private final long bucketMask;
+  // The age of the current search, which only ever counts up, wrapping around.
+  private volatile int age;
+
+  /**
+   * Sets up a table with room for the given number of positions, which the subclass must already
+   * have rounded to a power of two.
+   * @param capacity The number of positions the table can hold, a power of two of at least 4.
+   * @throws IllegalArgumentException If capacity is not a power of two of at least 4.
+   */
+  protected AbstractLostPositionTable(long capacity) {
+    if (capacity < BUCKET_SIZE || Long.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException(
+              "A table needs room for a power of two of at least " + BUCKET_SIZE
+                      + " positions, not " + capacity
+      );
+    }
+    this.capacity = capacity;
+    this.bucketMask = capacity / BUCKET_SIZE - 1;
+    this.age = 0;
+  }
+
+  /**
+   * Reads the long at the given index, with volatile semantics.
+   * @param index The index of the long, below capacity() * 2.
+   * @return The long at that index.
+   */
+  protected abstract long readLong(long index);
+
+  /**
+   * Writes the long at the given index, with volatile semantics.
+   * @param index The index of the long, below capacity() * 2.
+   * @param value The long to write.
+   */
+  protected abstract void writeLong(long index, long value);
+
+  @Override
+  public long capacity() {
+    return capacity;
+  }
+
+  @Override
+  public void newSearch() {
+    age = (age + 1) & AGE_MASK;
+  }
+
+  /**
+   * Returns the age of the current search, so that a table kept between runs can save it.
+   * @return The age of the current search, 0-255.
+   */
+  protected int age() {
+    return age;
+  }
+
+  /**
+   * Sets the age of the current search, so that a table kept between runs can restore it.
+   * @param age The age of the current search. Only its lowest 8 bits are kept.
+   */
+  protected void setAge(int age) {
+    this.age = age & AGE_MASK;
+  }
+
+  @Override
+  public boolean isLost(long fingerprint) {
+    long first = firstSlot(fingerprint);
+    for (long slot = first; slot < first + BUCKET_SIZE; slot++) {
+      long data = readLong(slot * SLOT_LONGS + 1);
+      if ((readLong(slot * SLOT_LONGS) ^ data) == fingerprint && (data & IN_USE) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Stores that the position with the given fingerprint is lost, replacing the least useful
+   * position of its bucket if there is no room.
+   * @param fingerprint The fingerprint of the position.
+   * @param depth How much is left to play from the position. Clamped to 0-255.
+   */
+  @Override
+  public void storeLost(long fingerprint, int depth) {
+    int currentAge = age;
+    long first = firstSlot(fingerprint);
+    long victim = first;
+    int victimWorth = Integer.MAX_VALUE;
+    for (long slot = first; slot < first + BUCKET_SIZE; slot++) {
+      long data = readLong(slot * SLOT_LONGS + 1);
+      if ((readLong(slot * SLOT_LONGS) ^ data) == fingerprint && (data & IN_USE) != 0) {
+        victim = slot;
+        break;
+      }
+      int worth = worth(data, currentAge);
+      if (worth < victimWorth) {
+        victim = slot;
+        victimWorth = worth;
+      }
+    }
+
+    long data = IN_USE
+            | (long) currentAge << AGE_SHIFT
+            | Math.max(0, Math.min(depth, DEPTH_MASK));
+    writeLong(victim * SLOT_LONGS + 1, data);
+    writeLong(victim * SLOT_LONGS, fingerprint ^ data);
+  }
+
+  /**
+   * Returns how much a slot is worth keeping: empty slots are worth the least, then slots from
+   * older searches, then shallower slots of the current search.
+   * @param data The data of the slot.
+   * @param currentAge The age of the current search.
+   * @return The worth of the slot, higher for slots to keep.
+   */
+  private static int worth(long data, int currentAge) {
+    if ((data & IN_USE) == 0) {
+      return -1;
+    }
+    int slotAge = (int) (data >>> AGE_SHIFT) & AGE_MASK;
+    int depth = (int) data & DEPTH_MASK;
+    return slotAge == currentAge ? DEPTH_MASK + 1 + depth : depth;
+  }
+
+  /**
+   * Returns the first slot of the bucket the given fingerprint belongs to.
+   * Fingerprints are already random, so their low bits pick the bucket.
+   * @param fingerprint The fingerprint of a position.
+   * @return The index of the first slot of its bucket.
+   */
+  private long firstSlot(long fingerprint) {
+    return (fingerprint & bucketMask) * BUCKET_SIZE;
+  }
+}
@@ -0,0 +1,141 @@
+package cs3500.solored.solver;
+
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * The result of asking a {@link MonteCarloTreeSearch} for a play: every legal play from the
+ * position that was searched, with how often the search tried it and how well it did.
+ * Every play is encoded by {@link RedMove}.
+ */
+public final class Advice {
+  private final int[] moves;
+  private final long[] visits;
+  // The rewards of every playout through each play, summed.
+  private final double[] totalRewards;
+  private final long numPlayouts;
+  private final long elapsedNanos;
+
+  /**
+   * Creates a new Advice.
+   * @param moves The legal plays from the position that was searched.
+   * @param visits The number of playouts that started with each play.
+   * @param totalRewards The rewards of the playouts that started with each play, summed.
+   * @param numPlayouts The number of playouts in the whole search.
+   * @param elapsedNanos The time the search took, in nanoseconds.
+   */
+  Advice(int[] moves, long[] visits, double[] totalRewards, long numPlayouts,
+         long elapsedNanos) {
+    this.moves = moves.clone();
+    this.visits = visits.clone();
+    this.totalRewards = totalRewards.clone();
+    this.numPlayouts = numPlayouts;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the play the search recommends: the one it tried most often, breaking ties by the
+   * higher mean reward.
+   * @return The recommended play.
+   */
+  public int getBestMove() {
+    int best = 0;
+    for (int i = 1; i < moves.length; i++) {
+      if (visits[i] > visits[best]
+              || visits[i] == visits[best] && getMeanReward(i) > getMeanReward(best)) {
+        best = i;
+      }
+    }
+    return moves[best];
+  }
+
+  /**
+   * Returns the number of legal plays from the position that was searched.
+   * @return The number of plays, at least 1.
+   */
+  public int getNumMoves() {
+    return moves.length;
+  }
+
+  /**
+   * Returns the given legal play, in the order of
+   * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#legalMoves(int[])}.
+   * @param index The index of the play.
+   * @return The play.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public int getMove(int index) {
+    checkIndex(index);
+    return moves[index];
+  }
+
+  /**
+   * Returns the number of playouts that started with the given play.
+   * @param index The index of the play.
+   * @return The number of visits.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public long getVisits(int index) {
+    checkIndex(index);
+    return visits[index];
+  }
+
+  /**
+   * Returns the mean reward of the playouts that started with the given play: the fraction of
+   * the cards left in the deck and hand that they went on to play, 1 for a win.
+   * @param index The index of the play.
+   * @return The mean reward, from 0 to 1, or 0 if the play was never tried.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public double getMeanReward(int index) {
+    checkIndex(index);
+    return visits[index] == 0 ? 0 : totalRewards[index] / visits[index];
+  }
+
+  /**
+   * Returns the number of playouts in the whole search, over every thread.
+   * @return The number of playouts.
+   */
+  public long getNumPlayouts() {
+    return numPlayouts;
+  }
+
+  /**
+   * Returns how long the search took.
+   * @return The time the search took, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Checks that the given index is the index of a play.
+   * @param index The index to check.
+   * @throws IllegalArgumentException If it is not.
+   */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= moves.length) {
+      throw new IllegalArgumentException(
+              "The move index " + index + " is out of the valid range 0-"
+                      + (moves.length - 1) + ", inclusive!"
+      );
+    }
+  }
+
+  /**
+   * Describes every play on its own line, in the same terms as the text controller's commands,
+   * followed by its visits and mean reward.
+   * @return The description of the advice.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < moves.length; i++) {
+      if (i > 0) {
+        builder.append("\n");
+      }
+      builder.append(String.format("%s: %d visits, %.3f", RedMove.toString(moves[i]), visits[i],
+              getMeanReward(i)));
+    }
+    return builder.toString();
+  }
+}
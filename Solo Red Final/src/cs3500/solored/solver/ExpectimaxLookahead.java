@@ -0,0 +1,279 @@
+package cs3500.solored.solver;
+
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * Looks a fixed number of turns ahead in a started game of RedSeven, of either variant, to judge
+ * how likely the player is to survive them, and which turn gives them the best chance.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Turns are found like the solvers find them, see {@link TurnSearch}, and the player is
+ *   assumed to pick the best one.</li>
+ *   <li>If the order of the deck is hidden, the draw after a turn is a chance node: every set of
+ *   cards the draw could take is equally likely. How many cards a draw takes comes from
+ *   {@link AbstractSoloRedGameModel#numCardsToDraw()}, so the extra card of the advanced variant
+ *   is accounted for from the state of the game, without copying any palette.</li>
+ *   <li>A chance node tries every set of cards it could draw if there are at most samplesPerDraw
+ *   of them, and that many sets picked at random otherwise. Drawn cards are chosen with
+ *   {@link AbstractSoloRedGameModel#stackDeck(int, int)} and undone afterwards.</li>
+ *   <li>If the order of the deck is known, draws are not chance nodes, and the lookahead is an
+ *   exact search of the next turns.</li>
+ *   <li>Everything is played and undone on a single fork of the given model.</li>
+ *   <li>A lookahead is not safe to use from several threads at once, but may be reused.</li>
+ * </ul>
+ */
+public class ExpectimaxLookahead {
+  private final int depth;
+  private final boolean knowsDeck;
+  private final int samplesPerDraw;
+  private final Random rand;
+
+  /**
+   * Creates a lookahead of the given number of turns.
+   * @param depth The number of turns to look ahead.
+   * @param knowsDeck Whether the lookahead may use the order of the deck. If not, every draw is
+   *                  a chance node.
+   * @param samplesPerDraw The most sets of cards a chance node tries.
+   * @param rand The random object to pick sets of cards with, when there are too many to try.
+   * @throws IllegalArgumentException If depth or samplesPerDraw is not positive, or rand is null.
+   */
+  public ExpectimaxLookahead(int depth, boolean knowsDeck, int samplesPerDraw, Random rand) {
+    if (depth <= 0) {
+      throw new IllegalArgumentException("A lookahead needs at least 1 turn, not " + depth);
+    }
+    if (samplesPerDraw <= 0) {
+      throw new IllegalArgumentException(
+              "A chance node needs at least 1 sample, not " + samplesPerDraw
+      );
+    }
+    if (rand == null) {
+      throw new IllegalArgumentException("The given Random object must not be null!");
+    }
+    this.depth = depth;
+    this.knowsDeck = knowsDeck;
+    this.samplesPerDraw = samplesPerDraw;
+    this.rand = rand;
+  }
+
+  /**
+   * Returns the chance that the player survives the next depth turns with the best play, counting
+   * a win within them as surviving. The given model is not changed.
+   *
+   * @param model the game to look ahead in, which must have started
+   * @return the chance of surviving, from 0 to 1
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started
+   */
+  public double survivalChance(AbstractSoloRedGameModel model) {
+    return lookAhead(model).value(0, depth);
+  }
+
+  /**
+   * Returns the plays of the turn that gives the player the best chance of surviving the next
+   * depth turns, as judged by survivalChance(). The given model is not changed.
+   *
+   * @param model the game to look ahead in, which must have started
+   * @return the plays of the best turn, encoded by {@link cs3500.solored.model.hw02.RedMove},
+   *         without the draw that follows them. Empty if the game is over, or if every turn
+   *         would end it with a loss.
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started
+   */
+  public int[] bestTurn(AbstractSoloRedGameModel model) {
+    ChanceSearch search = lookAhead(model);
+    search.value(0, depth);
+    return search.bestTurn;
+  }
+
+  /**
+   * Checks the given model, and creates a search of a fork of it.
+   * @param model The game to look ahead in.
+   * @return The new search.
+   * @throws IllegalArgumentException If model is null.
+   * @throws IllegalStateException If the game has not started.
+   */
+  private ChanceSearch lookAhead(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot look ahead in a null model!");
+    }
+    // Throws if the game has not started.
+    model.isGameOver();
+    return new ChanceSearch(model.fork());
+  }
+
+  /**
+   * A search of a single game that takes the best turn at every position, and averages over the
+   * cards that could be drawn.
+   */
+  private final class ChanceSearch extends TurnSearch {
+    // The plays of the best turn from the first position, once it is searched.
+    private int[] bestTurn;
+
+    /**
+     * Creates a search of the given game.
+     * @param game The game to search, which belongs to this search.
+     */
+    ChanceSearch(AbstractSoloRedGameModel game) {
+      super(game);
+      this.bestTurn = new int[0];
+    }
+
+    @Override
+    boolean isKnownLost() {
+      return false;
+    }
+
+    @Override
+    void rememberLost() {
+      // Nothing is remembered between positions.
+    }
+
+    /**
+     * Returns the chance of surviving the given number of turns from the current position.
+     * @param turn The number of turns taken since the search started.
+     * @param turnsLeft The number of turns to look ahead.
+     * @return The chance of surviving, from 0 to 1.
+     */
+    double value(int turn, int turnsLeft) {
+      if (game.isGameOver()) {
+        return game.isGameWon() ? 1 : 0;
+      }
+      // The first position is still searched, so that there is always a best turn.
+      if (turn > 0 && game.isProvablyLost()) {
+        return 0;
+      }
+      if (turnsLeft == 0) {
+        return 1;
+      }
+
+      int numTurns = findTurns(turn);
+      if (numTurns < 0) {
+        if (turn == 0) {
+          bestTurn = getWinningLine();
+        }
+        return 1;
+      }
+      long[] turns = turnsAt(turn);
+      orderTurns(turns, numTurns, turn);
+      double best = 0;
+      for (int i = 0; i < numTurns && best < 1; i++) {
+        playTurn(turns[i]);
+        double chance = drawValue(turn, turnsLeft);
+        if (turn == 0 && (chance > best || bestTurn.length == 0)) {
+          bestTurn = getLine();
+        }
+        unplayTurn(turns[i]);
+        best = Math.max(best, chance);
+      }
+      return best;
+    }
+
+    /**
+     * Returns the chance of surviving after the plays of a turn, averaged over what the draw that
+     * ends the turn could take.
+     * @param turn The number of turns taken before this one.
+     * @param turnsLeft The number of turns to look ahead, including this one.
+     * @return The chance of surviving, from 0 to 1.
+     */
+    private double drawValue(int turn, int turnsLeft) {
+      int numToDraw = game.numCardsToDraw();
+      if (knowsDeck || numToDraw == 0) {
+        return valueAfterDraw(turn, turnsLeft);
+      }
+
+      long deck = game.cardsInDeck();
+      int deckSize = Long.bitCount(deck);
+      long numOutcomes = numSets(deckSize, numToDraw);
+      if (numOutcomes <= samplesPerDraw) {
+        return sumOverSets(deck, numToDraw, 0, turn, turnsLeft) / numOutcomes;
+      }
+
+      double sum = 0;
+      for (int sample = 0; sample < samplesPerDraw; sample++) {
+        long left = deck;
+        for (int position = 0; position < numToDraw; position++) {
+          int code = nthCard(left, rand.nextInt(deckSize - position));
+          left &= ~(1L << code);
+          game.stackDeck(code, position);
+        }
+        sum += valueAfterDraw(turn, turnsLeft);
+        for (int position = 0; position < numToDraw; position++) {
+          game.undo();
+        }
+      }
+      return sum / samplesPerDraw;
+    }
+
+    /**
+     * Returns the sum of the chances of surviving over every set of the given number of cards the
+     * draw could take, where the cards before the given position are already stacked.
+     * @param cards The cards that could be stacked at the given position, as a bitboard.
+     * @param numToDraw The number of cards the draw takes.
+     * @param position The number of cards already stacked.
+     * @param turn The number of turns taken before this one.
+     * @param turnsLeft The number of turns to look ahead, including this one.
+     * @return The sum of the chances of surviving.
+     */
+    private double sumOverSets(long cards, int numToDraw, int position, int turn,
+                               int turnsLeft) {
+      if (position == numToDraw) {
+        return valueAfterDraw(turn, turnsLeft);
+      }
+      double sum = 0;
+      for (long left = cards; left != 0; left &= left - 1) {
+        int code = Long.numberOfTrailingZeros(left);
+        game.stackDeck(code, position);
+        // Only later cards follow, so that every set is tried once, in one order.
+        sum += sumOverSets(left & left - 1, numToDraw, position + 1, turn, turnsLeft);
+        game.undo();
+      }
+      return sum;
+    }
+
+    /**
+     * Draws for the hand, and returns the chance of surviving the turns after this one.
+     * @param turn The number of turns taken before this one.
+     * @param turnsLeft The number of turns to look ahead, including this one.
+     * @return The chance of surviving, from 0 to 1.
+     */
+    private double valueAfterDraw(int turn, int turnsLeft) {
+      game.drawForHand();
+      double chance = value(turn + 1, turnsLeft - 1);
+      game.undo();
+      return chance;
+    }
+  }
+
+  /**
+   * Returns the number of sets of the given size in a set of the given size, or a number larger
+   * than any sample count if there are too many to count.
+   * @param size The size of the whole set.
+   * @param subsetSize The size of each subset.
+   * @return The number of subsets.
+   */
+  private static long numSets(int size, int subsetSize) {
+    long count = 1;
+    for (int i = 0; i < subsetSize; i++) {
+      count = count * (size - i) / (i + 1);
+      if (count > Integer.MAX_VALUE) {
+        return Long.MAX_VALUE;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Returns the code of the given card of a bitboard, counting from the lowest code.
+   * @param cards The bitboard.
+   * @param index The index of the card, less than the number of cards.
+   * @return The code of the card.
+   */
+  private static int nthCard(long cards, int index) {
+    for (int i = 0; i < index; i++) {
+      cards &= cards - 1;
+    }
+    return Long.numberOfTrailingZeros(cards);
+  }
+}
@@ -0,0 +1,66 @@
+package cs3500.solored.solver;
+
+/**
+ * A {@link LostPositionTable} that puts a {@link LostPositionFilter} in front of another table.
+ * Most positions a search looks at were never proven lost, and the filter, being small enough to
+ * stay in cache, rules them out without touching the table at all.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>A position is only reported lost if the table holds it. The filter can claim positions
+ *   that were never added, so it cannot prove a position lost on its own.</li>
+ *   <li>The filter never forgets, while the table replaces positions when it fills up. A position
+ *   the filter still holds but the table lost can be found with {@link #wasProbablyLost(long)},
+ *   as a hint for callers that order or sample positions.</li>
+ *   <li>It is as safe to use from several threads as the table it wraps.</li>
+ * </ul>
+ */
+public final class FilteredLostPositionTable implements LostPositionTable {
+  private final LostPositionTable table;
+  private final LostPositionFilter filter;
+
+  /**
+   * Creates a table that checks the given filter before the given table.
+   * @param table The table that holds lost positions exactly.
+   * @param filter The filter of every lost position, which should start empty.
+   * @throws IllegalArgumentException If table or filter is null.
+   */
+  public FilteredLostPositionTable(LostPositionTable table, LostPositionFilter filter) {
+    if (table == null || filter == null) {
+      throw new IllegalArgumentException("The table and the filter may not be null!");
+    }
+    this.table = table;
+    this.filter = filter;
+  }
+
+  @Override
+  public boolean isLost(long fingerprint) {
+    return filter.mightContain(fingerprint) && table.isLost(fingerprint);
+  }
+
+  @Override
+  public void storeLost(long fingerprint, int depth) {
+    filter.add(fingerprint);
+    table.storeLost(fingerprint, depth);
+  }
+
+  /**
+   * Returns if the position with the given fingerprint was probably stored as lost, even if the
+   * table has since replaced it. This is only a hint, and is wrong for a few positions that were
+   * never stored.
+   * @param fingerprint The fingerprint of the position.
+   * @return False if the position was certainly never stored, true if it probably was.
+   */
+  public boolean wasProbablyLost(long fingerprint) {
+    return filter.mightContain(fingerprint);
+  }
+
+  @Override
+  public void newSearch() {
+    table.newSearch();
+  }
+
+  @Override
+  public long capacity() {
+    return table.capacity();
+  }
+}
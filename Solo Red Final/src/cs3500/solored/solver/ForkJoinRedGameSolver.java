@@ -0,0 +1,222 @@
+package cs3500.solored.solver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * Decides whether a started game of RedSeven can still be won, like {@link RedGameSolver}, by
+ * splitting the tree of turns into tasks of a {@link ForkJoinPool}, which its threads steal from
+ * each other as they run out of work.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Splitting follows the young brothers wait idea: near the start of the game, the first
+ *   turn of a position is searched on its own, and only if it does not win are the remaining
+ *   turns, its younger brothers, searched in parallel. The first turn is the most likely to win,
+ *   so this avoids searching the others for nothing.</li>
+ *   <li>Every task plays on its own fork of the model, so no model is ever shared between threads.
+ *   Deeper in the tree, a task searches the rest of its position with a {@link TurnSearch} on
+ *   that fork.</li>
+ *   <li>Every task shares one {@link LostPositionTable}, so whatever one proves lost, the others
+ *   skip.</li>
+ *   <li>Once any task finds a win, every other task is told to stop, and stops at its next
+ *   position.</li>
+ * </ul>
+ */
+public class ForkJoinRedGameSolver {
+  // The capacity of the table made by the default constructor, which takes 16 MB.
+  private static final int DEFAULT_CAPACITY = 1 << 20;
+  // The number of turns from the start of a search in which positions are split into tasks.
+  private static final int SPLIT_TURNS = 2;
+
+  private final ForkJoinPool pool;
+  private final LostPositionTable table;
+
+  /**
+   * Creates a solver that runs in the common pool, with a new {@link TranspositionTable} of its
+   * own.
+   */
+  public ForkJoinRedGameSolver() {
+    this(ForkJoinPool.commonPool(), new TranspositionTable(DEFAULT_CAPACITY));
+  }
+
+  /**
+   * Creates a solver that runs in the given pool, and remembers lost positions in the given table.
+   * @param pool The pool to run the search in.
+   * @param table The table to share between the tasks of the search.
+   * @throws IllegalArgumentException If pool or table is null.
+   */
+  public ForkJoinRedGameSolver(ForkJoinPool pool, LostPositionTable table) {
+    if (pool == null) {
+      throw new IllegalArgumentException("The pool may not be null!");
+    }
+    if (table == null) {
+      throw new IllegalArgumentException("The transposition table may not be null!");
+    }
+    this.pool = pool;
+    this.table = table;
+  }
+
+  /**
+   * Decides whether the given game can be won from its current position, and finds a winning line
+   * if it can. The given model is not changed. Blocks until the answer is known.
+   *
+   * @param model the game to solve, which must have started
+   * @return whether the game can be won, and how
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started
+   */
+  public Solution solve(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot solve a null model!");
+    }
+    // Throws if the game has not started.
+    model.isGameOver();
+
+    table.newSearch();
+    Shared shared = new Shared(table);
+    pool.invoke(new TurnTask(model.fork(), new int[0], 0, shared));
+    int[] line = shared.winningLine.get();
+    return new Solution(line != null, line == null ? new int[0] : line,
+            shared.positionsSearched.get());
+  }
+
+  /**
+   * Everything the tasks of one solve share.
+   */
+  private static final class Shared {
+    private final LostPositionTable table;
+    // Set once a win is found.
+    private final AtomicBoolean stopped;
+    // The plays that win the game from the position being solved, once they are found.
+    private final AtomicReference<int[]> winningLine;
+    private final AtomicLong positionsSearched;
+
+    /**
+     * Creates the shared state of a new solve.
+     * @param table The table of lost positions.
+     */
+    Shared(LostPositionTable table) {
+      this.table = table;
+      this.stopped = new AtomicBoolean(false);
+      this.winningLine = new AtomicReference<>();
+      this.positionsSearched = new AtomicLong();
+    }
+
+    /**
+     * Records a win, and tells every task to stop.
+     * @param line The plays that win the game from the position being solved.
+     */
+    void win(int[] line) {
+      winningLine.compareAndSet(null, line);
+      stopped.set(true);
+    }
+  }
+
+  /**
+   * Searches one position of the game for a win, on a model that belongs to this task.
+   */
+  // Tasks are never serialized, so they need no serialVersionUID.
+  @SuppressWarnings("serial")
+  private static final class TurnTask extends RecursiveAction {
+    private final AbstractSoloRedGameModel game;
+    // The plays that led from the position being solved to this one.
+    private final int[] prefix;
+    // The number of turns taken from the position being solved to this one.
+    private final int turn;
+    private final Shared shared;
+
+    /**
+     * Creates a task to search the current position of the given game.
+     * @param game The game to search, which belongs to this task until it is done.
+     * @param prefix The plays that led from the position being solved to this one.
+     * @param turn The number of turns those plays took.
+     * @param shared Everything the tasks of this solve share.
+     */
+    TurnTask(AbstractSoloRedGameModel game, int[] prefix, int turn, Shared shared) {
+      this.game = game;
+      this.prefix = prefix;
+      this.turn = turn;
+      this.shared = shared;
+    }
+
+    @Override
+    protected void compute() {
+      TableSearch search = new TableSearch(game, shared.table, shared.stopped);
+      try {
+        if (turn >= SPLIT_TURNS || game.isGameOver()) {
+          if (search.search(0)) {
+            shared.win(concat(prefix, search.getWinningLine()));
+          }
+          return;
+        }
+        split(search);
+      } finally {
+        shared.positionsSearched.addAndGet(search.getPositionsSearched());
+      }
+    }
+
+    /**
+     * Searches the first turn of this position in this task, then every other turn in parallel,
+     * each on a fork of the game. Remembers the position as lost if none of them win.
+     * @param search A search of this task's game, used to find, take and undo turns.
+     */
+    private void split(TableSearch search) {
+      if (search.isStopped() || search.isKnownLost()) {
+        return;
+      }
+      int numTurns = search.findTurns(0);
+      if (numTurns < 0) {
+        shared.win(concat(prefix, search.getWinningLine()));
+        return;
+      }
+      long[] turns = search.turnsAt(0);
+      search.orderTurns(turns, numTurns, 0);
+      if (numTurns == 0) {
+        search.rememberLost();
+        return;
+      }
+
+      // The eldest brother, searched on this task's own model.
+      search.takeTurn(turns[0]);
+      new TurnTask(game, concat(prefix, search.getLine()), turn + 1, shared).compute();
+      search.undoTurn(turns[0]);
+      if (search.isStopped()) {
+        return;
+      }
+
+      // The younger brothers, each on a fork of the model, searched in parallel.
+      List<TurnTask> brothers = new ArrayList<>();
+      for (int i = 1; i < numTurns; i++) {
+        search.takeTurn(turns[i]);
+        brothers.add(new TurnTask(game.fork(), concat(prefix, search.getLine()), turn + 1,
+                shared));
+        search.undoTurn(turns[i]);
+      }
+      ForkJoinTask.invokeAll(brothers);
+      if (!search.isStopped()) {
+        search.rememberLost();
+      }
+    }
+
+    /**
+     * Joins two lines of plays.
+     * @param first The plays to come first.
+     * @param second The plays to follow them.
+     * @return A new array of both lines, in order.
+     */
+    private static int[] concat(int[] first, int[] second) {
+      int[] joined = new int[first.length + second.length];
+      System.arraycopy(first, 0, joined, 0, first.length);
+      System.arraycopy(second, 0, joined, first.length, second.length);
+      return joined;
+    }
+  }
+}
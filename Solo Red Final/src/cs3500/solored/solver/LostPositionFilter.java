@@ -0,0 +1,118 @@
+package cs3500.solored.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A Bloom filter of the fingerprints of positions proven lost, see
+ * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#fingerprint()}. It never forgets a
+ * position and never misses one it was given, but may claim to hold a position it was not given.
+ * Any number of threads may use it at once without locking.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every position sets a few bits of one {@link AtomicLongArray}, at indices found by double
+ *   hashing its fingerprint. Bits are only ever set, so a position that was added is always
+ *   found.</li>
+ *   <li>Fingerprints are already random, so the first hash is the fingerprint itself, and the
+ *   second only scrambles it.</li>
+ *   <li>With 8 bits for every position and 4 bits set per position, about 1 in 40 positions that
+ *   were never added are claimed anyway. This rises as the filter fills up.</li>
+ * </ul>
+ */
+public final class LostPositionFilter {
+  // The most bits a filter can hold, limited by the length of an array.
+  private static final long MAX_BITS = (long) Integer.highestOneBit(Integer.MAX_VALUE) << 6;
+  private static final int WORD_SHIFT = 6;
+  private static final int WORD_MASK = Long.SIZE - 1;
+
+  private final AtomicLongArray words;
+  private final long bitMask;
+  private final int numHashes;
+
+  /**
+   * Creates an empty filter of the given number of bits, rounded down to a power of two, that
+   * sets the given number of bits for every position.
+   * @param numBits The size of the filter in bits. About 8 bits for every position the filter
+   *                should hold is a good size.
+   * @param numHashes The number of bits set for every position, at least 1.
+   * @throws IllegalArgumentException If numBits is less than 64 or more than 2^36, or numHashes
+   *                                  is less than 1.
+   */
+  public LostPositionFilter(long numBits, int numHashes) {
+    if (numBits < Long.SIZE || numBits > MAX_BITS) {
+      throw new IllegalArgumentException(
+              "A filter must have " + Long.SIZE + " to " + MAX_BITS + " bits, not " + numBits
+      );
+    }
+    if (numHashes < 1) {
+      throw new IllegalArgumentException("A filter must set at least 1 bit, not " + numHashes);
+    }
+    long rounded = Long.highestOneBit(numBits);
+    this.words = new AtomicLongArray((int) (rounded >>> WORD_SHIFT));
+    this.bitMask = rounded - 1;
+    this.numHashes = numHashes;
+  }
+
+  /**
+   * Returns the number of bits in this filter.
+   * @return The size of the filter in bits.
+   */
+  public long numBits() {
+    return bitMask + 1;
+  }
+
+  /**
+   * Adds the position with the given fingerprint to this filter.
+   * @param fingerprint The fingerprint of the position.
+   */
+  public void add(long fingerprint) {
+    long step = step(fingerprint);
+    long hash = fingerprint;
+    for (int i = 0; i < numHashes; i++) {
+      int word = (int) ((hash & bitMask) >>> WORD_SHIFT);
+      long bit = 1L << (hash & WORD_MASK);
+      if ((words.get(word) & bit) == 0) {
+        words.accumulateAndGet(word, bit, LostPositionFilter::or);
+      }
+      hash += step;
+    }
+  }
+
+  /**
+   * Returns if the position with the given fingerprint might have been added to this filter.
+   * @param fingerprint The fingerprint of the position.
+   * @return False if the position was certainly never added, true if it probably was.
+   */
+  public boolean mightContain(long fingerprint) {
+    long step = step(fingerprint);
+    long hash = fingerprint;
+    for (int i = 0; i < numHashes; i++) {
+      int word = (int) ((hash & bitMask) >>> WORD_SHIFT);
+      if ((words.get(word) & 1L << (hash & WORD_MASK)) == 0) {
+        return false;
+      }
+      hash += step;
+    }
+    return true;
+  }
+
+  /**
+   * Returns the distance between the bits of the given fingerprint, which is odd so that it
+   * reaches every bit of the filter.
+   * @param fingerprint The fingerprint of a position.
+   * @return The step of the double hashing.
+   */
+  private static long step(long fingerprint) {
+    long z = fingerprint * 0x9E3779B97F4A7C15L;
+    return (z ^ (z >>> 32)) | 1;
+  }
+
+  /**
+   * Combines two words, for updating a word atomically.
+   * @param word The word as it is.
+   * @param bits The bits to set in it.
+   * @return The word with the bits set.
+   */
+  private static long or(long word, long bits) {
+    return word | bits;
+  }
+}
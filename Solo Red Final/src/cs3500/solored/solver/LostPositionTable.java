@@ -0,0 +1,37 @@
+package cs3500.solored.solver;
+
+/**
+ * A table of positions of RedSeven that have been proven lost, keyed by
+ * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#fingerprint()}, that searches can
+ * share to skip positions they have already refuted. Tables may forget positions to make room
+ * for new ones, but never report a position they were not given.
+ */
+public interface LostPositionTable {
+
+  /**
+   * Returns if the position with the given fingerprint was stored as lost.
+   * @param fingerprint The fingerprint of the position.
+   * @return If the position is known to be lost.
+   */
+  boolean isLost(long fingerprint);
+
+  /**
+   * Stores that the position with the given fingerprint is lost.
+   * @param fingerprint The fingerprint of the position.
+   * @param depth How much is left to play from the position, such as the number of cards left in
+   *              the deck. Deeper positions took longer to prove lost, so they are worth more.
+   */
+  void storeLost(long fingerprint, int depth);
+
+  /**
+   * Starts a new search, so that positions stored by earlier searches are the first to be
+   * forgotten. They are still found until then.
+   */
+  void newSearch();
+
+  /**
+   * Returns the number of positions this table can hold.
+   * @return The capacity of the table.
+   */
+  long capacity();
+}
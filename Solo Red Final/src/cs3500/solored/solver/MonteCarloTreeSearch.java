@@ -0,0 +1,380 @@
+package cs3500.solored.solver;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * Advises the next play in a started game of RedSeven, of either variant, by Monte Carlo tree
+ * search within a time budget, without knowing the order of the deck.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every playout first shuffles the deck of its own fork of the game with
+ *   {@link AbstractSoloRedGameModel#shuffleDeck(Random)}, so it plays one way the hidden cards
+ *   could be ordered. The tree is shared by every ordering: a play is identified by the card it
+ *   moves and where it moves it, since the index of a card in the hand depends on what was drawn.
+ *   A play is only chosen in a playout where it is legal, and is judged against the number of
+ *   playouts it was legal in, rather than the visits of its parent.</li>
+ *   <li>Plays are chosen by UCB1 until a play that was never tried is reached, which is added to
+ *   the tree. The game is then played out to the end by a {@link PlayoutPolicy}.</li>
+ *   <li>Wins are too rare in a random playout to tell plays apart, so a playout is rewarded with
+ *   the fraction of the cards left in the deck and hand that it played, which is 1 for a win.</li>
+ *   <li>Every thread grows a tree of its own on its own fork of the game, and the visits of the
+ *   plays from the first position are added up once the time is up. The trees are kept in
+ *   parallel arrays, so growing one allocates nothing but more room.</li>
+ *   <li>The threads are made once, as daemon threads, and reused by every search, since a caller
+ *   such as a hint may ask for advice at every position of a game. A search whose caller is
+ *   interrupted is told to stop after the playout it is on.</li>
+ *   <li>Every play and shuffle is undone after its playout, so each fork is only made once.</li>
+ * </ul>
+ */
+public class MonteCarloTreeSearch {
+  // The weight of exploring plays that were tried less, used by the default constructor.
+  private static final double DEFAULT_EXPLORATION = 0.5;
+  // The number of nodes a tree has room for before it grows.
+  private static final int INITIAL_NODES = 1 << 12;
+
+  private final int numThreads;
+  private final PlayoutPolicy rollout;
+  private final double exploration;
+  // Seeds the random objects of every search.
+  private final SplittableRandom seeds;
+  // Grows the trees of every search, on numThreads daemon threads.
+  private final ExecutorService executor;
+
+  /**
+   * Creates a search with one thread for every processor, that plays out games with
+   * {@link PlayoutPolicy#randomSurviving()}.
+   */
+  public MonteCarloTreeSearch() {
+    this(Runtime.getRuntime().availableProcessors(), PlayoutPolicy.randomSurviving(),
+            DEFAULT_EXPLORATION, System.nanoTime());
+  }
+
+  /**
+   * Creates a search with the given number of threads, that plays out games with the given policy.
+   * @param numThreads The number of threads to search with.
+   * @param rollout The policy that plays out a game once the search leaves the tree. It is used by
+   *                every thread at once.
+   * @param exploration The weight of exploring plays that were tried less, against playing the
+   *                    plays that did best so far.
+   * @param seed The seed every random choice of the search follows from.
+   * @throws IllegalArgumentException If numThreads is not positive, rollout is null, or
+   *                                  exploration is negative.
+   */
+  public MonteCarloTreeSearch(int numThreads, PlayoutPolicy rollout, double exploration,
+                              long seed) {
+    if (numThreads <= 0) {
+      throw new IllegalArgumentException("A search needs at least 1 thread, not " + numThreads);
+    }
+    if (rollout == null) {
+      throw new IllegalArgumentException("The rollout policy may not be null!");
+    }
+    if (!(exploration >= 0)) {
+      throw new IllegalArgumentException("The exploration weight cannot be " + exploration);
+    }
+    this.numThreads = numThreads;
+    this.rollout = rollout;
+    this.exploration = exploration;
+    this.seeds = new SplittableRandom(seed);
+    AtomicInteger numMade = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+      Thread thread = new Thread(r, "MonteCarloTreeSearch-" + numMade.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Searches the given game for the given time, and advises the next play. The given model is not
+   * changed. Every thread plays out at least one game, even if that takes longer than the budget.
+   *
+   * @param model the game to search, which must be running
+   * @param budgetMillis the time to search for, in milliseconds
+   * @return every legal play, with how often it was tried and how well it did
+   * @throws IllegalArgumentException if model is null or budgetMillis is not positive
+   * @throws IllegalStateException if the game is not running, if this search was shut down, if
+   *                               a thread failed, or if the calling thread is interrupted while
+   *                               waiting for the search
+   */
+  public Advice advise(AbstractSoloRedGameModel model, long budgetMillis) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot search a null model!");
+    }
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException("A search needs a positive budget, not " + budgetMillis);
+    }
+    if (model.isGameOver()) {
+      throw new IllegalStateException("The game is over, there is no play to advise!");
+    }
+
+    long start = System.nanoTime();
+    long deadline = start + budgetMillis * 1_000_000L;
+    AtomicBoolean stopped = new AtomicBoolean();
+    Search[] searches = new Search[numThreads];
+    Future<?>[] growing = new Future<?>[numThreads];
+    try {
+      for (int i = 0; i < numThreads; i++) {
+        long seed;
+        synchronized (seeds) {
+          seed = seeds.nextLong();
+        }
+        Search search = new Search(model.fork(), new Random(seed));
+        searches[i] = search;
+        growing[i] = executor.submit(() -> search.grow(deadline, stopped));
+      }
+    } catch (RuntimeException e) {
+      stopped.set(true);
+      throw new IllegalStateException("The search was shut down!", e);
+    }
+
+    try {
+      for (Future<?> tree : growing) {
+        tree.get();
+      }
+    } catch (InterruptedException e) {
+      stopped.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while searching the game!");
+    } catch (ExecutionException e) {
+      stopped.set(true);
+      throw new IllegalStateException("Searching the game failed!", e.getCause());
+    }
+
+    int[] moves = model.getLegalMoves();
+    long[] visits = new long[moves.length];
+    double[] totalRewards = new double[moves.length];
+    long numPlayouts = 0;
+    for (Search search : searches) {
+      numPlayouts += search.numPlayouts;
+      for (int i = 0; i < moves.length; i++) {
+        int child = search.findChild(Search.ROOT, edgeKey(model, moves[i]));
+        if (child >= 0) {
+          visits[i] += search.visits[child];
+          totalRewards[i] += search.rewards[child];
+        }
+      }
+    }
+    return new Advice(moves, visits, totalRewards, numPlayouts, System.nanoTime() - start);
+  }
+
+  /**
+   * Stops the threads of this search once they finish any search they are working on. The search
+   * cannot be used afterwards. Its threads are daemon threads, so this is only needed to free them
+   * before the program ends.
+   */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * Identifies the given play by the card it moves and where it moves it, so that it means the
+   * same play whatever was drawn before it.
+   * @param game The game the play is legal in.
+   * @param move The play, encoded by {@link RedMove}.
+   * @return The key of the play.
+   */
+  private static int edgeKey(AbstractSoloRedGameModel game, int move) {
+    int numPalettes = game.numPalettes();
+    int target = RedMove.isCanvas(move) ? numPalettes : RedMove.paletteIdx(move);
+    return game.cardCodeInHand(RedMove.cardIdxInHand(move)) * (numPalettes + 1) + target;
+  }
+
+  /**
+   * The tree of one thread, grown on its own fork of the game.
+   */
+  private final class Search {
+    // The index of the node of the first position.
+    static final int ROOT = 0;
+
+    private final AbstractSoloRedGameModel game;
+    private final Random rand;
+    // The cards left in the deck and hand at the first position.
+    private final int cardsAtRoot;
+    // The nodes of the tree, as parallel arrays. A node stands for the play that reaches it.
+    private int[] keys;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] visits;
+    // The number of playouts the play of each node was legal in.
+    private int[] available;
+    private double[] rewards;
+    private int numNodes;
+    // The nodes of the current playout, from the root.
+    private int[] path;
+    // Reused to list the legal plays of every position.
+    private int[] moves;
+    private int[] untried;
+    private long numPlayouts;
+
+    /**
+     * Creates a search of the given game, with a tree of just the first position.
+     * @param game The game to search, which belongs to this search.
+     * @param rand The random object of this search.
+     */
+    Search(AbstractSoloRedGameModel game, Random rand) {
+      this.game = game;
+      this.rand = rand;
+      this.cardsAtRoot = game.numOfCardsInDeck() + game.numOfCardsInHand();
+      this.keys = new int[INITIAL_NODES];
+      this.firstChild = new int[INITIAL_NODES];
+      this.nextSibling = new int[INITIAL_NODES];
+      this.visits = new int[INITIAL_NODES];
+      this.available = new int[INITIAL_NODES];
+      this.rewards = new double[INITIAL_NODES];
+      this.path = new int[cardsAtRoot * 2 + 1];
+      this.moves = new int[0];
+      this.untried = new int[0];
+      addNode(-1);
+    }
+
+    /**
+     * Plays out games until the given time or until told to stop, at least once.
+     * @param deadline The time to stop at, as by {@link System#nanoTime()}.
+     * @param stopped Set when the caller no longer waits for the search.
+     */
+    void grow(long deadline, AtomicBoolean stopped) {
+      do {
+        playout();
+        numPlayouts++;
+      } while (System.nanoTime() - deadline < 0 && !stopped.get());
+    }
+
+    /**
+     * Shuffles the deck, walks down the tree, adds a play to it, plays the game out from there,
+     * and counts the result in every node on the way. Everything is undone afterwards.
+     */
+    private void playout() {
+      game.shuffleDeck(rand);
+      int numUndos = 1;
+      int node = ROOT;
+      int depth = 0;
+      path[depth++] = node;
+      boolean added = false;
+      while (!added && !game.isGameOver()) {
+        int numMoves = listMoves();
+        int numUntried = 0;
+        int best = -1;
+        int bestMove = 0;
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < numMoves; i++) {
+          int child = findChild(node, edgeKey(game, moves[i]));
+          if (child < 0) {
+            untried[numUntried++] = i;
+            continue;
+          }
+          available[child]++;
+          double value = rewards[child] / visits[child]
+                  + exploration * Math.sqrt(Math.log(available[child]) / visits[child]);
+          if (value > bestValue) {
+            best = child;
+            bestMove = moves[i];
+            bestValue = value;
+          }
+        }
+        if (numUntried > 0) {
+          bestMove = moves[untried[rand.nextInt(numUntried)]];
+          best = addChild(node, edgeKey(game, bestMove));
+          added = true;
+        }
+        numUndos += TurnSearch.playAndDraw(game, bestMove);
+        node = best;
+        if (depth == path.length) {
+          path = Arrays.copyOf(path, depth * 2);
+        }
+        path[depth++] = node;
+      }
+
+      while (!game.isGameOver()) {
+        int numMoves = listMoves();
+        int move = rollout.chooseMove(game, moves, numMoves, rand);
+        numUndos += TurnSearch.playAndDraw(game, move);
+      }
+      double reward = 1 - (double) (game.numOfCardsInDeck() + game.numOfCardsInHand())
+              / cardsAtRoot;
+      for (int i = 0; i < depth; i++) {
+        visits[path[i]]++;
+        rewards[path[i]] += reward;
+      }
+      for (int i = 0; i < numUndos; i++) {
+        game.undo();
+      }
+    }
+
+    /**
+     * Lists the legal plays of the current position into the reused arrays.
+     * @return The number of legal plays.
+     */
+    private int listMoves() {
+      moves = TurnSearch.fitLegalMoves(game, moves);
+      if (untried.length < moves.length) {
+        untried = new int[moves.length];
+      }
+      return game.legalMoves(moves);
+    }
+
+    /**
+     * Returns the child of the given node with the given key.
+     * @param node The index of the node.
+     * @param key The key of the play of the child.
+     * @return The index of the child, or -1 if it is not in the tree.
+     */
+    int findChild(int node, int key) {
+      for (int child = firstChild[node]; child >= 0; child = nextSibling[child]) {
+        if (keys[child] == key) {
+          return child;
+        }
+      }
+      return -1;
+    }
+
+    /**
+     * Adds a child with the given key to the given node, which is legal in the current playout.
+     * @param node The index of the node.
+     * @param key The key of the play of the child.
+     * @return The index of the child.
+     */
+    private int addChild(int node, int key) {
+      int child = addNode(key);
+      available[child] = 1;
+      nextSibling[child] = firstChild[node];
+      firstChild[node] = child;
+      return child;
+    }
+
+    /**
+     * Adds a node with no children to the tree, making room for it if needed.
+     * @param key The key of the play of the node.
+     * @return The index of the node.
+     */
+    private int addNode(int key) {
+      if (numNodes == keys.length) {
+        int capacity = numNodes * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        visits = Arrays.copyOf(visits, capacity);
+        available = Arrays.copyOf(available, capacity);
+        rewards = Arrays.copyOf(rewards, capacity);
+      }
+      int node = numNodes++;
+      keys[node] = key;
+      firstChild[node] = -1;
+      nextSibling[node] = -1;
+      visits[node] = 0;
+      available[node] = 0;
+      rewards[node] = 0;
+      return node;
+    }
+  }
+}
@@ -0,0 +1,212 @@
+package cs3500.solored.solver;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A fixed-size, lock-free {@link LostPositionTable} kept outside the heap, so that tables of many
+ * gigabytes add nothing to garbage collection. A table can also be mapped from a file, so that
+ * the positions it holds outlive the run that found them.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The table is split into direct or mapped {@link ByteBuffer}s of at most 1 GB each, since
+ *   a single buffer cannot be larger than 2 GB. Chunks hold whole buckets.</li>
+ *   <li>Longs are read and written through a {@link VarHandle} with volatile semantics, which is
+ *   what the lock-free slots of {@link AbstractLostPositionTable} need.</li>
+ *   <li>A file starts with a header of 64 bytes: a magic number, the capacity of the table, and the
+ *   age of its current search. The slots follow it. Everything is in the byte order of the
+ *   machine, so files should not be moved between machines of different byte orders.</li>
+ *   <li>The header needs no key for the rules of the game, since every fingerprint already holds
+ *   the variant, the number of palettes and the hand size, so one file can serve every game. The
+ *   last byte of the magic number is the version of those fingerprints, and files written with
+ *   fingerprints that left out the rules are refused.</li>
+ *   <li>The memory of a table is only released once the table can be garbage collected.</li>
+ * </ul>
+ */
+public final class OffHeapTranspositionTable extends AbstractLostPositionTable {
+  // The number of bytes in a chunk, and in a long.
+  private static final int CHUNK_SHIFT = 30;
+  private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+  private static final int LONG_SHIFT = 3;
+  private static final int SLOT_BYTES = SLOT_LONGS << LONG_SHIFT;
+  // The most positions a table can hold, 16 TB worth.
+  private static final long MAX_CAPACITY = 1L << 40;
+  // The layout of the header of a file.
+  private static final int HEADER_SIZE = 64;
+  private static final long MAGIC = 0x5245_4454_5442_4C32L;
+  private static final int MAGIC_OFFSET = 0;
+  private static final int CAPACITY_OFFSET = 8;
+  private static final int AGE_OFFSET = 16;
+  // Reads and writes longs of a ByteBuffer in the order of this machine.
+  private static final VarHandle LONGS =
+          MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+  private final ByteBuffer[] chunks;
+  // The header of the file the table is mapped from, or null if it is not.
+  private final MappedByteBuffer header;
+
+  /**
+   * Creates a table around the given chunks.
+   * @param capacity The number of positions the table can hold.
+   * @param chunks The chunks holding the slots of the table.
+   * @param header The header of the file the table is mapped from, or null if it is not.
+   */
+  private OffHeapTranspositionTable(long capacity, ByteBuffer[] chunks, MappedByteBuffer header) {
+    super(capacity);
+    this.chunks = chunks;
+    this.header = header;
+  }
+
+  /**
+   * Creates an empty table in memory outside the heap, with room for the given number of
+   * positions rounded down to a power of two. Every position takes 16 bytes. The JVM limits the
+   * memory of all such tables together, see -XX:MaxDirectMemorySize.
+   * @param capacity The number of positions the table can hold.
+   * @return The new table.
+   * @throws IllegalArgumentException If capacity is less than 4 or more than 2^40.
+   */
+  public static OffHeapTranspositionTable allocate(long capacity) {
+    long rounded = roundCapacity(capacity);
+    ByteBuffer[] chunks = new ByteBuffer[numChunks(rounded)];
+    for (int i = 0; i < chunks.length; i++) {
+      chunks[i] = ByteBuffer.allocateDirect((int) chunkSize(rounded, i));
+    }
+    return new OffHeapTranspositionTable(rounded, chunks, null);
+  }
+
+  /**
+   * Maps a table from the given file, creating it if it does not exist. A table that already
+   * exists keeps every position it held, and must have been made with the same capacity and the
+   * same version of fingerprints. It may have been filled by games of any rules.
+   * Changes reach the file as the operating system sees fit, or when {@link #flush()} is called.
+   * @param file The file to keep the table in.
+   * @param capacity The number of positions the table can hold, rounded down to a power of two.
+   * @return The table.
+   * @throws IllegalArgumentException If file is null, if capacity is less than 4 or more than
+   *                                  2^40, or if the file is not a table of that capacity and
+   *                                  version.
+   * @throws IllegalStateException If the file cannot be opened or mapped.
+   */
+  public static OffHeapTranspositionTable map(Path file, long capacity) {
+    if (file == null) {
+      throw new IllegalArgumentException("The file of a table may not be null!");
+    }
+    long rounded = roundCapacity(capacity);
+    try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      long size = channel.size();
+      if (size != 0 && size != HEADER_SIZE + rounded * SLOT_BYTES) {
+        throw new IllegalArgumentException(
+                "The file " + file + " is not a table of " + rounded + " positions!"
+        );
+      }
+
+      MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+      header.order(ByteOrder.nativeOrder());
+      if (size == 0) {
+        header.putLong(MAGIC_OFFSET, MAGIC);
+        header.putLong(CAPACITY_OFFSET, rounded);
+        header.putLong(AGE_OFFSET, 0);
+      } else if (header.getLong(MAGIC_OFFSET) != MAGIC
+              || header.getLong(CAPACITY_OFFSET) != rounded) {
+        throw new IllegalArgumentException(
+                "The file " + file + " is not a table of " + rounded + " positions!"
+        );
+      }
+
+      ByteBuffer[] chunks = new ByteBuffer[numChunks(rounded)];
+      for (int i = 0; i < chunks.length; i++) {
+        chunks[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                HEADER_SIZE + ((long) i << CHUNK_SHIFT), chunkSize(rounded, i));
+      }
+      OffHeapTranspositionTable table = new OffHeapTranspositionTable(rounded, chunks, header);
+      table.setAge((int) header.getLong(AGE_OFFSET));
+      return table;
+    } catch (IOException e) {
+      throw new IllegalStateException("Could not map a table from " + file, e);
+    }
+  }
+
+  /**
+   * Starts a new search, saving its age to the file the table is mapped from, if any.
+   */
+  @Override
+  public void newSearch() {
+    super.newSearch();
+    if (header != null) {
+      header.putLong(AGE_OFFSET, age());
+    }
+  }
+
+  /**
+   * Writes every change to the file the table is mapped from. Does nothing for tables that are
+   * not mapped from a file.
+   */
+  public void flush() {
+    if (header == null) {
+      return;
+    }
+    header.force();
+    for (ByteBuffer chunk : chunks) {
+      ((MappedByteBuffer) chunk).force();
+    }
+  }
+
+  @Override
+  protected long readLong(long index) {
+    long offset = index << LONG_SHIFT;
+    return (long) LONGS.getVolatile(chunks[(int) (offset >>> CHUNK_SHIFT)],
+            (int) (offset & CHUNK_MASK));
+  }
+
+  @Override
+  protected void writeLong(long index, long value) {
+    long offset = index << LONG_SHIFT;
+    LONGS.setVolatile(chunks[(int) (offset >>> CHUNK_SHIFT)], (int) (offset & CHUNK_MASK), value);
+  }
+
+  /**
+   * Rounds the given capacity down to a power of two.
+   * @param capacity The requested capacity.
+   * @return The rounded capacity.
+   * @throws IllegalArgumentException If capacity is less than 4 or more than MAX_CAPACITY.
+   */
+  private static long roundCapacity(long capacity) {
+    if (capacity < BUCKET_SIZE || capacity > MAX_CAPACITY) {
+      throw new IllegalArgumentException(
+              "An off-heap table needs room for " + BUCKET_SIZE + " to " + MAX_CAPACITY
+                      + " positions, not " + capacity
+      );
+    }
+    return Long.highestOneBit(capacity);
+  }
+
+  /**
+   * Returns the number of chunks a table of the given capacity is split into.
+   * @param capacity The capacity of the table.
+   * @return The number of chunks.
+   */
+  private static int numChunks(long capacity) {
+    long bytes = capacity * SLOT_BYTES;
+    return (int) ((bytes + CHUNK_MASK) >>> CHUNK_SHIFT);
+  }
+
+  /**
+   * Returns the number of bytes in the given chunk of a table of the given capacity. Every chunk
+   * is full, unless the whole table is smaller than a chunk.
+   * @param capacity The capacity of the table.
+   * @param chunk The index of the chunk.
+   * @return The size of the chunk in bytes.
+   */
+  private static long chunkSize(long capacity, int chunk) {
+    long bytes = capacity * SLOT_BYTES;
+    return Math.min(bytes - ((long) chunk << CHUNK_SHIFT), 1L << CHUNK_SHIFT);
+  }
+}
@@ -0,0 +1,150 @@
+package cs3500.solored.solver;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * Decides whether a started game of RedSeven can still be won, like {@link RedGameSolver}, using
+ * several threads that share one {@link LostPositionTable}.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every thread runs a whole {@link TurnSearch} on its own fork of the model. The threads
+ *   only share the table, so whatever one thread proves lost, the others skip.</li>
+ *   <li>The first thread keeps the usual order of turns. The others shuffle the turns near the
+ *   start of the game, so that they spread out over different parts of the tree instead of
+ *   following each other.</li>
+ *   <li>The first thread to finish decides the answer: either it found a win, or it searched every
+ *   line without one. The other threads are then told to stop.</li>
+ *   <li>The table may be shared by several solvers, and keeps its positions between solves, since
+ *   positions are keyed by fingerprints that include the whole deck and the rules of the game, so
+ *   games of either variant, any number of palettes and any hand size can share it.</li>
+ * </ul>
+ */
+public class ParallelRedGameSolver {
+  // The capacity of the table made by the default constructor, which takes 16 MB.
+  private static final int DEFAULT_CAPACITY = 1 << 20;
+  // The number of turns from the start of a search in which the helper threads shuffle turns.
+  private static final int SHUFFLED_TURNS = 4;
+
+  private final int numThreads;
+  private final LostPositionTable table;
+
+  /**
+   * Creates a solver with one thread for every processor, and a new {@link TranspositionTable} of
+   * its own.
+   */
+  public ParallelRedGameSolver() {
+    this(Runtime.getRuntime().availableProcessors(), new TranspositionTable(DEFAULT_CAPACITY));
+  }
+
+  /**
+   * Creates a solver with the given number of threads, that remembers lost positions in the given
+   * table. The table may live on or off the heap, see {@link OffHeapTranspositionTable}.
+   * @param numThreads The number of threads to search with.
+   * @param table The table to share between the threads.
+   * @throws IllegalArgumentException If numThreads is not positive or table is null.
+   */
+  public ParallelRedGameSolver(int numThreads, LostPositionTable table) {
+    if (numThreads <= 0) {
+      throw new IllegalArgumentException("A solver needs at least 1 thread, not " + numThreads);
+    }
+    if (table == null) {
+      throw new IllegalArgumentException("The transposition table may not be null!");
+    }
+    this.numThreads = numThreads;
+    this.table = table;
+  }
+
+  /**
+   * Decides whether the given game can be won from its current position, and finds a winning line
+   * if it can. The given model is not changed. Blocks until the answer is known.
+   *
+   * @param model the game to solve, which must have started
+   * @return whether the game can be won, and how
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started, or if the calling thread is
+   *                               interrupted while waiting for the answer
+   */
+  public Solution solve(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot solve a null model!");
+    }
+    // Throws if the game has not started.
+    model.isGameOver();
+
+    table.newSearch();
+    AtomicBoolean stopped = new AtomicBoolean(false);
+    // The search that finished first, which holds the answer.
+    AtomicReference<SharedSearch> decider = new AtomicReference<>();
+    AtomicLong positionsSearched = new AtomicLong();
+    Thread[] threads = new Thread[numThreads];
+    for (int i = 0; i < numThreads; i++) {
+      SharedSearch search = new SharedSearch(model.fork(), table, stopped, i);
+      threads[i] = new Thread(() -> {
+        search.won = search.search(0);
+        positionsSearched.addAndGet(search.getPositionsSearched());
+        // A search that was not stopped is a complete answer, whichever it is.
+        if ((search.won || !stopped.get()) && decider.compareAndSet(null, search)) {
+          stopped.set(true);
+        }
+      }, "RedGameSolver-" + i);
+      threads[i].start();
+    }
+
+    try {
+      for (Thread thread : threads) {
+        thread.join();
+      }
+    } catch (InterruptedException e) {
+      stopped.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while solving the game!");
+    }
+    SharedSearch answer = decider.get();
+    if (answer == null) {
+      throw new IllegalStateException("Every thread of the search failed!");
+    }
+    return new Solution(answer.won, answer.getWinningLine(), positionsSearched.get());
+  }
+
+  /**
+   * A search that shuffles the turns near the start of the game, unless it is the first search.
+   */
+  private static final class SharedSearch extends TableSearch {
+    // Shuffles turns near the start of the game. Null for the search that keeps the usual order.
+    private final Random shuffler;
+    // Whether this search found a win, once it is done.
+    private boolean won;
+
+    /**
+     * Creates a search of the given game.
+     * @param game The game to search, which belongs to this search.
+     * @param table The table of lost positions, shared with the other searches.
+     * @param stopped Set once any search has the answer.
+     * @param index The index of this search among the others.
+     */
+    SharedSearch(AbstractSoloRedGameModel game, LostPositionTable table, AtomicBoolean stopped,
+                 int index) {
+      super(game, table, stopped);
+      this.shuffler = index == 0 ? null : new Random(index);
+    }
+
+    @Override
+    void orderTurns(long[] turns, int numTurns, int turn) {
+      super.orderTurns(turns, numTurns, turn);
+      if (shuffler == null || turn >= SHUFFLED_TURNS) {
+        return;
+      }
+      for (int i = numTurns - 1; i > 0; i--) {
+        int j = shuffler.nextInt(i + 1);
+        long swap = turns[i];
+        turns[i] = turns[j];
+        turns[j] = swap;
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package cs3500.solored.solver;
+
+/**
+ * A set of position keys, as written by
+ * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#positionKey(long[])}.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Keys are kept side by side in one flat array of longs, using open addressing with linear
+ *   probing, so that checking and adding a key never allocates.</li>
+ *   <li>The table doubles in size whenever it becomes half full.</li>
+ *   <li>Every key has a slot, which stays the same until the table grows. A subclass can keep
+ *   values for its keys in arrays indexed by slot, and move them in {@link #slotsMoved(int[])}.
+ *   </li>
+ * </ul>
+ */
+class PositionSet {
+  // The number of slots a new set starts with. Always a power of two.
+  private static final int INITIAL_CAPACITY = 1 << 12;
+
+  private final int keyLength;
+  // Slot i holds its key at keys[i * keyLength] through keys[(i + 1) * keyLength - 1].
+  private long[] keys;
+  private boolean[] used;
+  private int size;
+
+  /**
+   * Creates an empty set of keys of the given length.
+   * @param keyLength The number of longs in every key.
+   * @throws IllegalArgumentException If keyLength is not positive.
+   */
+  PositionSet(int keyLength) {
+    if (keyLength <= 0) {
+      throw new IllegalArgumentException("Keys must have at least 1 long, not " + keyLength);
+    }
+    this.keyLength = keyLength;
+    this.keys = new long[INITIAL_CAPACITY * keyLength];
+    this.used = new boolean[INITIAL_CAPACITY];
+    this.size = 0;
+  }
+
+  /**
+   * Returns if the given key is in this set.
+   * @param key The key to look for. Only its first keyLength longs are read.
+   * @return If the key is in this set.
+   */
+  final boolean contains(long[] key) {
+    return used[slotOf(key)];
+  }
+
+  /**
+   * Returns the slot of the given key.
+   * @param key The key to look for. Only its first keyLength longs are read.
+   * @return The index of the slot, or -1 if the key is not in this set.
+   */
+  final int indexOf(long[] key) {
+    int slot = slotOf(key);
+    return used[slot] ? slot : -1;
+  }
+
+  /**
+   * Adds the given key to this set, if it is not already in it.
+   * @param key The key to add. Only its first keyLength longs are read, and they are copied.
+   * @return The index of the slot of the key.
+   */
+  final int add(long[] key) {
+    int slot = slotOf(key);
+    if (used[slot]) {
+      return slot;
+    }
+    System.arraycopy(key, 0, keys, slot * keyLength, keyLength);
+    used[slot] = true;
+    size++;
+    if (size * 2 > used.length) {
+      grow();
+      slot = slotOf(key);
+    }
+    return slot;
+  }
+
+  /**
+   * Returns the number of slots, which bounds the index of every slot.
+   * @return The number of slots.
+   */
+  final int capacity() {
+    return used.length;
+  }
+
+  /**
+   * Called after the table grew, to move whatever a subclass keeps by slot. Does nothing here.
+   * @param newSlots The new slot of the key of every old slot, or -1 for a slot that was empty.
+   */
+  void slotsMoved(int[] newSlots) {
+    // Nothing is kept by slot.
+  }
+
+  /**
+   * Returns the number of keys in this set.
+   * @return The number of keys in this set.
+   */
+  final int size() {
+    return size;
+  }
+
+  /**
+   * Finds the slot that holds the given key, or the empty slot where it would be added.
+   * @param key The key to look for.
+   * @return The index of the slot.
+   */
+  private int slotOf(long[] key) {
+    int mask = used.length - 1;
+    int slot = hash(key, 0) & mask;
+    while (used[slot] && !matches(slot, key)) {
+      slot = (slot + 1) & mask;
+    }
+    return slot;
+  }
+
+  /**
+   * Returns if the given slot holds the given key.
+   * @param slot The slot to check, which must be used.
+   * @param key The key to compare to.
+   * @return If the slot holds the key.
+   */
+  private boolean matches(int slot, long[] key) {
+    int offset = slot * keyLength;
+    for (int i = 0; i < keyLength; i++) {
+      if (keys[offset + i] != key[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Hashes the key that starts at the given index of the given array.
+   * @param array The array holding the key.
+   * @param offset The index of the first long of the key.
+   * @return The hash of the key.
+   */
+  private int hash(long[] array, int offset) {
+    long hash = 0;
+    for (int i = 0; i < keyLength; i++) {
+      hash = (hash ^ array[offset + i]) * 0x9E3779B97F4A7C15L;
+      hash ^= hash >>> 29;
+    }
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /**
+   * Doubles the number of slots, adds every key again, and lets a subclass move what it keeps.
+   */
+  private void grow() {
+    long[] oldKeys = keys;
+    boolean[] oldUsed = used;
+    int[] newSlots = new int[oldUsed.length];
+    keys = new long[oldKeys.length * 2];
+    used = new boolean[oldUsed.length * 2];
+    int mask = used.length - 1;
+    for (int oldSlot = 0; oldSlot < oldUsed.length; oldSlot++) {
+      if (!oldUsed[oldSlot]) {
+        newSlots[oldSlot] = -1;
+        continue;
+      }
+      int slot = hash(oldKeys, oldSlot * keyLength) & mask;
+      while (used[slot]) {
+        slot = (slot + 1) & mask;
+      }
+      System.arraycopy(oldKeys, oldSlot * keyLength, keys, slot * keyLength, keyLength);
+      used[slot] = true;
+      newSlots[oldSlot] = slot;
+    }
+    slotsMoved(newSlots);
+  }
+}
@@ -0,0 +1,231 @@
+package cs3500.solored.solver;
+
+import java.util.Arrays;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * Decides whether a started game of RedSeven can still be won, like {@link RedGameSolver}, using
+ * depth-first proof-number search (df-pn) instead of plain depth-first search.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every position at the start of a turn has a proof number, an estimate of how hard it is to
+ *   show that the position can be won, and a disproof number, an estimate of how hard it is to
+ *   show that it cannot. The player picks every turn, so a position is as easy to prove as its
+ *   easiest turn, and as hard to disprove as all of its turns together.</li>
+ *   <li>The search always follows the turn that looks easiest to prove, until it looks harder than
+ *   the next easiest turn, or the position as a whole looks too hard to disprove. This moves it
+ *   away from hopeless branches long before they are searched to the end.</li>
+ *   <li>Since every position has only one player to move, proof numbers would all be 1 if every
+ *   new position started with 1, and the search would be plain depth-first search. Instead, the
+ *   turns of a position are put in the usual order of {@link TurnSearch}, and a new position
+ *   starts with a proof number of 1 for the first turn, 2 for the second, and so on, and with a
+ *   disproof number of 1. The search then leaves a turn once its subtree has grown harder than
+ *   the next turn was thought to be. Positions that
+ *   {@link AbstractSoloRedGameModel#isProvablyLost()} shows to be lost start disproven.</li>
+ *   <li>The numbers of every position searched are kept in a {@link ProofTable} by position key,
+ *   so a search can resume where it left off, and positions reached by several orders of turns
+ *   are only searched once.</li>
+ *   <li>Turns are found, taken and undone with the same code as the other solvers, so the winning
+ *   line is in the same form.</li>
+ *   <li>A solver is not safe to use from several threads at once, but may be reused.</li>
+ * </ul>
+ */
+public class ProofNumberSolver {
+  // Proof and disproof numbers at or above this are infinite: a position is proven when its
+  // disproof number is infinite, and disproven when its proof number is.
+  static final int INFINITY = Integer.MAX_VALUE / 2;
+
+  /**
+   * Decides whether the given game can be won from its current position, and finds a winning line
+   * if it can. The given model is not changed.
+   *
+   * @param model the game to solve, which must have started
+   * @return whether the game can be won, and how
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started
+   */
+  public Solution solve(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot solve a null model!");
+    }
+    if (model.isGameOver()) {
+      return new Solution(model.isGameWon(), new int[0], 1);
+    }
+
+    ProofSearch search = new ProofSearch(model.fork());
+    search.prove(0, INFINITY, INFINITY);
+    boolean winnable = search.proofNumber() == 0;
+    int[] line = winnable ? search.winningLine(0) : new int[0];
+    return new Solution(winnable, line, search.positionsSearched);
+  }
+
+  /**
+   * A proof-number search of a single game, which uses the turns of a {@link TurnSearch}.
+   */
+  private static final class ProofSearch extends TurnSearch {
+    private final ProofTable table;
+    // The key of the position being looked at.
+    private final long[] key;
+    // The numbers of the turns of every position on the current line, by turn.
+    private int[][] proofsAtTurn;
+    private int[][] disproofsAtTurn;
+    // The number of positions whose turns were found, or whose numbers were first looked up.
+    private long positionsSearched;
+
+    /**
+     * Creates a search of the given game.
+     * @param game The game to search, which belongs to this search and must not be over.
+     */
+    ProofSearch(AbstractSoloRedGameModel game) {
+      super(game);
+      this.table = new ProofTable(game.positionKeyLength());
+      this.key = new long[game.positionKeyLength()];
+      this.proofsAtTurn = new int[0][];
+      this.disproofsAtTurn = new int[0][];
+      this.positionsSearched = 0;
+    }
+
+    // These hooks are only called by search(), which df-pn never calls: prove() stores lost
+    // positions in the table itself, as disproven.
+    @Override
+    boolean isKnownLost() {
+      throw new UnsupportedOperationException("Proof-number search does not use search()!");
+    }
+
+    @Override
+    void rememberLost() {
+      throw new UnsupportedOperationException("Proof-number search does not use search()!");
+    }
+
+    /**
+     * Returns the proof number of the current position, as last stored.
+     * @return The proof number, 0 if the position is proven, or 1 if it was never searched.
+     */
+    int proofNumber() {
+      game.positionKey(key);
+      return table.contains(key) ? table.proofNumber(key) : 1;
+    }
+
+    /**
+     * Searches the current position, which must not be over, until it is proven or disproven, or
+     * until its proof number reaches proofLimit or its disproof number reaches disproofLimit. Its
+     * numbers are then stored in the table.
+     * @param turn The number of turns taken since the search started.
+     * @param proofLimit The proof number at which to stop.
+     * @param disproofLimit The disproof number at which to stop.
+     */
+    void prove(int turn, int proofLimit, int disproofLimit) {
+      positionsSearched++;
+      int numTurns = findTurns(turn);
+      if (numTurns <= 0) {
+        // Either one of the turns won the game, or there is no turn that keeps it going.
+        game.positionKey(key);
+        if (numTurns < 0) {
+          table.put(key, 0, INFINITY);
+        } else {
+          table.put(key, INFINITY, 0);
+        }
+        return;
+      }
+      long[] turns = turnsAt(turn);
+      orderTurns(turns, numTurns, turn);
+      ensureBuffers(turn, numTurns);
+      int[] proofs = proofsAtTurn[turn];
+      int[] disproofs = disproofsAtTurn[turn];
+      for (int i = 0; i < numTurns; i++) {
+        takeTurn(turns[i]);
+        positionsSearched++;
+        game.positionKey(key);
+        if (table.contains(key)) {
+          proofs[i] = table.proofNumber(key);
+          disproofs[i] = table.disproofNumber(key);
+        } else if (game.isProvablyLost()) {
+          proofs[i] = INFINITY;
+          disproofs[i] = 0;
+        } else {
+          // Turns the usual order would try later look harder to prove.
+          proofs[i] = 1 + i;
+          disproofs[i] = 1;
+        }
+        undoTurn(turns[i]);
+      }
+
+      int proof;
+      int disproof;
+      while (true) {
+        // The easiest turn to prove, and the proof number of the next easiest.
+        int best = 0;
+        int secondProof = INFINITY;
+        proof = INFINITY;
+        disproof = 0;
+        for (int i = 0; i < numTurns; i++) {
+          disproof = Math.min(INFINITY, disproof + disproofs[i]);
+          if (proofs[i] < proof) {
+            secondProof = proof;
+            proof = proofs[i];
+            best = i;
+          } else if (proofs[i] < secondProof) {
+            secondProof = proofs[i];
+          }
+        }
+        if (proof >= proofLimit || disproof >= disproofLimit) {
+          break;
+        }
+
+        takeTurn(turns[best]);
+        prove(turn + 1, Math.min(proofLimit, secondProof + 1),
+                Math.min(INFINITY, disproofLimit - disproof + disproofs[best]));
+        game.positionKey(key);
+        proofs[best] = table.proofNumber(key);
+        disproofs[best] = table.disproofNumber(key);
+        undoTurn(turns[best]);
+      }
+
+      game.positionKey(key);
+      table.put(key, proof, disproof);
+    }
+
+    /**
+     * Follows proven positions from the current one to the end of the game, and returns the
+     * plays on the way, undoing every turn it takes.
+     * @param turn The number of turns taken since the search started.
+     * @return The plays that win the game from the position the search started at.
+     * @throws IllegalStateException If the current position is not proven.
+     */
+    int[] winningLine(int turn) {
+      int numTurns = findTurns(turn);
+      if (numTurns < 0) {
+        return getWinningLine();
+      }
+      long[] turns = turnsAt(turn);
+      for (int i = 0; i < numTurns; i++) {
+        takeTurn(turns[i]);
+        game.positionKey(key);
+        boolean proven = table.contains(key) && table.proofNumber(key) == 0;
+        int[] line = proven ? winningLine(turn + 1) : null;
+        undoTurn(turns[i]);
+        if (line != null) {
+          return line;
+        }
+      }
+      throw new IllegalStateException("A proven position has no proven turn!");
+    }
+
+    /**
+     * Makes sure the buffers of the given turn exist, and can hold the given number of turns.
+     * @param turn The number of turns taken since the search started.
+     * @param numTurns The number of turns the buffers need to hold.
+     */
+    private void ensureBuffers(int turn, int numTurns) {
+      if (turn >= proofsAtTurn.length) {
+        proofsAtTurn = Arrays.copyOf(proofsAtTurn, turn + 1);
+        disproofsAtTurn = Arrays.copyOf(disproofsAtTurn, turn + 1);
+      }
+      if (proofsAtTurn[turn] == null || proofsAtTurn[turn].length < numTurns) {
+        proofsAtTurn[turn] = new int[numTurns];
+        disproofsAtTurn[turn] = new int[numTurns];
+      }
+    }
+  }
+}
@@ -0,0 +1,86 @@
+package cs3500.solored.solver;
+
+/**
+ * A map from position keys, as written by
+ * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#positionKey(long[])}, to the proof and
+ * disproof numbers of a proof-number search.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The keys are kept by the {@link PositionSet} this extends, so they are stored and found
+ *   the same way. Nothing is ever evicted, so a proof or disproof is never lost.</li>
+ *   <li>The numbers of slot i are kept at numbers[2 * i] and numbers[2 * i + 1], and are moved
+ *   with their keys when the table grows.</li>
+ * </ul>
+ */
+final class ProofTable extends PositionSet {
+  private int[] numbers;
+
+  /**
+   * Creates an empty table for keys of the given length.
+   * @param keyLength The number of longs in every key.
+   * @throws IllegalArgumentException If keyLength is not positive.
+   */
+  ProofTable(int keyLength) {
+    super(keyLength);
+    this.numbers = new int[capacity() * 2];
+  }
+
+  /**
+   * Returns the proof number stored for the given key.
+   * @param key The key to look for, which must be in this table.
+   * @return The proof number of the key.
+   * @throws IllegalArgumentException If the key is not in this table.
+   */
+  int proofNumber(long[] key) {
+    return numbers[2 * usedSlotOf(key)];
+  }
+
+  /**
+   * Returns the disproof number stored for the given key.
+   * @param key The key to look for, which must be in this table.
+   * @return The disproof number of the key.
+   * @throws IllegalArgumentException If the key is not in this table.
+   */
+  int disproofNumber(long[] key) {
+    return numbers[2 * usedSlotOf(key) + 1];
+  }
+
+  /**
+   * Stores the given numbers for the given key, replacing any it had.
+   * @param key The key to store. Only its first keyLength longs are read, and they are copied.
+   * @param proofNumber The proof number of the key.
+   * @param disproofNumber The disproof number of the key.
+   */
+  void put(long[] key, int proofNumber, int disproofNumber) {
+    int slot = add(key);
+    numbers[2 * slot] = proofNumber;
+    numbers[2 * slot + 1] = disproofNumber;
+  }
+
+  @Override
+  void slotsMoved(int[] newSlots) {
+    int[] oldNumbers = numbers;
+    numbers = new int[capacity() * 2];
+    for (int oldSlot = 0; oldSlot < newSlots.length; oldSlot++) {
+      int slot = newSlots[oldSlot];
+      if (slot >= 0) {
+        numbers[2 * slot] = oldNumbers[2 * oldSlot];
+        numbers[2 * slot + 1] = oldNumbers[2 * oldSlot + 1];
+      }
+    }
+  }
+
+  /**
+   * Finds the slot that holds the given key, which must be in this table.
+   * @param key The key to look for.
+   * @return The index of the slot.
+   * @throws IllegalArgumentException If the key is not in this table.
+   */
+  private int usedSlotOf(long[] key) {
+    int slot = indexOf(key);
+    if (slot < 0) {
+      throw new IllegalArgumentException("The position is not in the table!");
+    }
+    return slot;
+  }
+}
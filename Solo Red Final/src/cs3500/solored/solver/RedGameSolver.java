@@ -0,0 +1,71 @@
+package cs3500.solored.solver;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * Decides whether a started game of RedSeven can still be won, knowing the order of its deck, and
+ * finds a line of plays that wins it.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The search itself is a {@link TurnSearch} on a single fork of the given model.</li>
+ *   <li>Every position that was fully explored without a win is remembered by its position key,
+ *   so that reaching it again by another order of moves costs nothing.</li>
+ *   <li>A solver is not safe to use from several threads at once, but may be reused.</li>
+ * </ul>
+ */
+public class RedGameSolver {
+
+  /**
+   * Decides whether the given game can be won from its current position, and finds a winning line
+   * if it can. The given model is not changed.
+   *
+   * @param model the game to solve, which must have started
+   * @return whether the game can be won, and how
+   * @throws IllegalArgumentException if model is null
+   * @throws IllegalStateException if the game has not started
+   */
+  public Solution solve(AbstractSoloRedGameModel model) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot solve a null model!");
+    }
+    // Throws if the game has not started.
+    model.isGameOver();
+
+    ExactSearch search = new ExactSearch(model.fork());
+    boolean winnable = search.search(0);
+    return new Solution(winnable, search.getWinningLine(), search.getPositionsSearched());
+  }
+
+  /**
+   * A search that remembers lost positions exactly, by their position keys.
+   */
+  private static final class ExactSearch extends TurnSearch {
+    // Every position at the start of a turn searched without finding a win.
+    private final PositionSet lostPositions;
+    // The key of the position being looked at.
+    private final long[] key;
+
+    /**
+     * Creates a search of the given game.
+     * @param game The game to search, which belongs to this search.
+     */
+    ExactSearch(AbstractSoloRedGameModel game) {
+      super(game);
+      this.lostPositions = new PositionSet(game.positionKeyLength());
+      this.key = new long[game.positionKeyLength()];
+    }
+
+    @Override
+    boolean isKnownLost() {
+      game.positionKey(key);
+      return lostPositions.contains(key);
+    }
+
+    @Override
+    void rememberLost() {
+      // The key was overwritten by the deeper searches.
+      game.positionKey(key);
+      lostPositions.add(key);
+    }
+  }
+}
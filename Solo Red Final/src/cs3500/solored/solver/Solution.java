@@ -0,0 +1,71 @@
+package cs3500.solored.solver;
+
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * The result of solving a game of RedSeven: whether it can still be won, and if so, a line of
+ * plays that wins it.
+ * Every play in the line is encoded by {@link RedMove}. Like the text controller's palette
+ * command, every play to a palette is followed by drawing for the hand, unless it ended the game.
+ */
+public final class Solution {
+  private final boolean winnable;
+  private final int[] line;
+  private final long positionsSearched;
+
+  /**
+   * Creates a new Solution.
+   * @param winnable Whether the game can be won.
+   * @param line The plays that win the game, empty if it cannot be won.
+   * @param positionsSearched The number of positions the solver visited.
+   */
+  Solution(boolean winnable, int[] line, long positionsSearched) {
+    this.winnable = winnable;
+    this.line = line.clone();
+    this.positionsSearched = positionsSearched;
+  }
+
+  /**
+   * Returns if the game can be won from the position that was solved.
+   * @return If the game can be won.
+   */
+  public boolean isWinnable() {
+    return winnable;
+  }
+
+  /**
+   * Returns the plays that win the game, in order.
+   * @return A new array of the plays, encoded by {@link RedMove}. Empty if the game cannot be won,
+   *         or if it was already won.
+   */
+  public int[] getLine() {
+    return line.clone();
+  }
+
+  /**
+   * Returns the number of positions the solver visited to find this solution.
+   * @return The number of positions searched.
+   */
+  public long getPositionsSearched() {
+    return positionsSearched;
+  }
+
+  /**
+   * Describes the winning line in the same terms as the text controller's commands.
+   * @return The plays of the line separated by commas, or "unwinnable".
+   */
+  @Override
+  public String toString() {
+    if (!winnable) {
+      return "unwinnable";
+    }
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < line.length; i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(RedMove.toString(line[i]));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,42 @@
+package cs3500.solored.solver;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+
+/**
+ * A {@link TurnSearch} that remembers lost positions in a {@link LostPositionTable} shared with
+ * other searches, and stops once any of them has the answer. Used by the solvers that search with
+ * several threads.
+ */
+class TableSearch extends TurnSearch {
+  private final LostPositionTable table;
+  private final AtomicBoolean stopped;
+
+  /**
+   * Creates a search of the given game.
+   * @param game The game to search, which belongs to this search.
+   * @param table The table of lost positions, shared with the other searches.
+   * @param stopped Set once any search has the answer.
+   */
+  TableSearch(AbstractSoloRedGameModel game, LostPositionTable table, AtomicBoolean stopped) {
+    super(game);
+    this.table = table;
+    this.stopped = stopped;
+  }
+
+  @Override
+  boolean isKnownLost() {
+    return table.isLost(game.fingerprint());
+  }
+
+  @Override
+  void rememberLost() {
+    table.storeLost(game.fingerprint(), game.numOfCardsInDeck());
+  }
+
+  @Override
+  boolean isStopped() {
+    return stopped.get();
+  }
+}
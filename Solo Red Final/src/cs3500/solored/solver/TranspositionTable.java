@@ -0,0 +1,52 @@
+package cs3500.solored.solver;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, lock-free {@link LostPositionTable} kept on the heap, in a single
+ * {@link AtomicLongArray}. See {@link AbstractLostPositionTable} for how slots are laid out and
+ * replaced.
+ */
+public final class TranspositionTable extends AbstractLostPositionTable {
+  // The most positions a table can hold, limited by the length of an array.
+  private static final int MAX_CAPACITY = 1 << 29;
+
+  private final AtomicLongArray slots;
+
+  /**
+   * Creates an empty table with room for the given number of positions, rounded down to a power
+   * of two and to at most 2^29. Every position takes 16 bytes.
+   * @param capacity The number of positions the table can hold.
+   * @throws IllegalArgumentException If capacity is less than 4.
+   */
+  public TranspositionTable(int capacity) {
+    super(roundCapacity(capacity));
+    this.slots = new AtomicLongArray((int) capacity() * SLOT_LONGS);
+  }
+
+  /**
+   * Rounds the given capacity down to a power of two, and to at most MAX_CAPACITY.
+   * @param capacity The requested capacity.
+   * @return The rounded capacity.
+   * @throws IllegalArgumentException If capacity is less than 4.
+   */
+  private static long roundCapacity(int capacity) {
+    if (capacity < BUCKET_SIZE) {
+      throw new IllegalArgumentException(
+              "A transposition table needs room for at least " + BUCKET_SIZE + " positions, not "
+                      + capacity
+      );
+    }
+    return Math.min(Integer.highestOneBit(capacity), MAX_CAPACITY);
+  }
+
+  @Override
+  protected long readLong(long index) {
+    return slots.get((int) index);
+  }
+
+  @Override
+  protected void writeLong(long index, long value) {
+    slots.set((int) index, value);
+  }
+}
@@ -0,0 +1,393 @@
+package cs3500.solored.solver;
+
+import java.util.Arrays;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * A depth-first search of a single game of RedSeven for a line of play that wins it, shared by
+ * the solvers of this package. Solvers decide how lost positions are remembered, and may stop the
+ * search early or change the order turns are tried in.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>The search is over whole turns: an optional play to the canvas, then a play to a palette,
+ *   then a draw. It runs on a single model, undoing every turn once it has been explored, so that
+ *   nothing is allocated per position.</li>
+ *   <li>Plays to a palette that would not take the lead are never made, since they lose at once.
+ *   This is checked with {@link AbstractSoloRedGameModel#winnerAfter(int)}.</li>
+ *   <li>By default, turns that also play to the canvas are tried first, since they use up a card
+ *   without needing another palette to take the lead. After that, turns that leave the winning
+ *   palette with a lower score are tried first, since they leave more room for later turns to
+ *   beat it.</li>
+ *   <li>Positions that {@link AbstractSoloRedGameModel#isProvablyLost()} shows to be lost are
+ *   not searched, which is cheaper than finding every turn only to learn there are none.</li>
+ *   <li>The search stops at the first win it finds, so there is no need to remember wins.</li>
+ *   <li>A position is only remembered as lost if it was searched completely, never when the
+ *   search was stopped partway through it.</li>
+ * </ul>
+ */
+abstract class TurnSearch {
+  // Turns are kept as longs that sort in the order they should be tried. The palette move is kept
+  // in the lowest bits, then the card played to the canvas, then the score of the turn, and then
+  // whether the turn skips the canvas.
+  private static final int CANVAS_CARD_SHIFT = 16;
+  private static final int SCORE_SHIFT = 24;
+  private static final int SKIPS_CANVAS_SHIFT = 56;
+  private static final int PALETTE_MOVE_MASK = (1 << CANVAS_CARD_SHIFT) - 1;
+  private static final int CANVAS_CARD_MASK = 0xFF;
+  // The canvas card of a turn that does not play to the canvas.
+  private static final int NO_CANVAS = CANVAS_CARD_MASK;
+
+  // The game being searched, which belongs to this search.
+  final AbstractSoloRedGameModel game;
+  // Buffers for every turn of the search, made as the search first reaches that turn.
+  private int[][] movesAtTurn;
+  private int[][] followUpsAtTurn;
+  private long[][] turnsAtTurn;
+  // The plays that led to the current position.
+  private int[] line;
+  private int lineLength;
+  // The plays that win the game, once they are found.
+  private int[] winningLine;
+  private long positionsSearched;
+
+  /**
+   * Creates a search of the given game, which it will play on and must not be shared.
+   * @param game The game to search, which must have started.
+   */
+  TurnSearch(AbstractSoloRedGameModel game) {
+    this.game = game;
+    this.movesAtTurn = new int[0][];
+    this.followUpsAtTurn = new int[0][];
+    this.turnsAtTurn = new long[0][];
+    this.line = new int[2];
+    this.lineLength = 0;
+    this.winningLine = new int[0];
+    this.positionsSearched = 0;
+  }
+
+  /**
+   * Returns if the current position of the game is already known to be lost.
+   * @return If the position is known to be lost.
+   */
+  abstract boolean isKnownLost();
+
+  /**
+   * Remembers that the current position of the game is lost.
+   */
+  abstract void rememberLost();
+
+  /**
+   * Returns if the search should give up, because its answer is no longer needed.
+   * Checked once for every position. Never stops by default.
+   * @return If the search should stop.
+   */
+  boolean isStopped() {
+    return false;
+  }
+
+  /**
+   * Puts the turns found for a position into the order they should be tried in. By default,
+   * this is the order described above.
+   * @param turns The turns, as found by findTurns().
+   * @param numTurns The number of turns.
+   * @param turn The number of turns taken since the search started.
+   */
+  void orderTurns(long[] turns, int numTurns, int turn) {
+    Arrays.sort(turns, 0, numTurns);
+  }
+
+  /**
+   * Searches every line of play from the current position of the game for a win.
+   * When one is found, it is kept as the winning line.
+   * @param turn The number of turns taken since the search started.
+   * @return If the game can be won from the current position. False if the search was stopped.
+   */
+  final boolean search(int turn) {
+    positionsSearched++;
+    if (isStopped()) {
+      return false;
+    }
+    if (game.isGameOver()) {
+      if (game.isGameWon()) {
+        winningLine = Arrays.copyOf(line, lineLength);
+        return true;
+      }
+      return false;
+    }
+    if (isKnownLost()) {
+      return false;
+    }
+    if (game.isProvablyLost()) {
+      rememberLost();
+      return false;
+    }
+
+    int numTurns = findTurns(turn);
+    if (numTurns < 0) {
+      // One of the turns won the game on its own.
+      return true;
+    }
+    long[] turns = turnsAtTurn[turn];
+    orderTurns(turns, numTurns, turn);
+    for (int i = 0; i < numTurns; i++) {
+      if (takeTurnAndSearch(turns[i], turn)) {
+        return true;
+      }
+    }
+
+    if (!isStopped()) {
+      rememberLost();
+    }
+    return false;
+  }
+
+  /**
+   * Finds every turn from the current position that keeps the game going. They can then be read
+   * with turnsAt().
+   * @param turn The number of turns taken since the search started.
+   * @return The number of turns found, or -1 if one of them won the game.
+   */
+  final int findTurns(int turn) {
+    ensureBuffers(turn);
+    int[] moves = fit(movesAtTurn, turn, game.numLegalMoves());
+    int numMoves = game.legalMoves(moves);
+    int numTurns = 0;
+
+    for (int i = 0; i < numMoves && numTurns >= 0; i++) {
+      int move = moves[i];
+      if (!RedMove.isCanvas(move)) {
+        numTurns = addTurn(turn, numTurns, NO_CANVAS, move);
+        continue;
+      }
+
+      int canvasCard = RedMove.cardIdxInHand(move);
+      game.playToCanvas(canvasCard);
+      int[] followUps = fit(followUpsAtTurn, turn, game.numLegalMoves());
+      int numFollowUps = game.legalMoves(followUps);
+      for (int j = 0; j < numFollowUps && numTurns >= 0; j++) {
+        numTurns = addTurn(turn, numTurns, canvasCard, followUps[j]);
+      }
+      game.undo();
+    }
+    return numTurns;
+  }
+
+  /**
+   * Returns the buffer that the last call to findTurns() for the given turn filled.
+   * @param turn The number of turns taken since the search started.
+   * @return The turns found, followed by unused space.
+   */
+  final long[] turnsAt(int turn) {
+    return turnsAtTurn[turn];
+  }
+
+  /**
+   * Adds a turn ending with the given palette move to turnsAtTurn, if that move takes the lead.
+   * If the move wins the game, the winning line is recorded instead. Any play to the canvas must
+   * already have been made.
+   * @param turn The number of turns taken since the search started.
+   * @param numTurns The number of turns found so far.
+   * @param canvasCard The card played to the canvas this turn, or NO_CANVAS.
+   * @param move The palette move, which must be legal.
+   * @return The new number of turns found, or -1 if the move won the game.
+   */
+  private int addTurn(int turn, int numTurns, int canvasCard, int move) {
+    int paletteIdx = RedMove.paletteIdx(move);
+    if (game.winnerAfter(move) != paletteIdx) {
+      return numTurns;
+    }
+
+    game.playToPalette(paletteIdx, RedMove.cardIdxInHand(move));
+    // The palette played to is winning, so the game is only over if it was won.
+    boolean won = game.isGameOver();
+    long score = game.paletteScore(paletteIdx);
+    game.undo();
+
+    if (won) {
+      int start = lineLength;
+      if (canvasCard != NO_CANVAS) {
+        addToLine(RedMove.toCanvas(canvasCard));
+      }
+      addToLine(move);
+      winningLine = Arrays.copyOf(line, lineLength);
+      lineLength = start;
+      return -1;
+    }
+
+    long[] turns = turnsAtTurn[turn];
+    if (numTurns == turns.length) {
+      turns = Arrays.copyOf(turns, turns.length * 2);
+      turnsAtTurn[turn] = turns;
+    }
+    turns[numTurns] = (canvasCard == NO_CANVAS ? 1L : 0L) << SKIPS_CANVAS_SHIFT
+            | score << SCORE_SHIFT
+            | (long) canvasCard << CANVAS_CARD_SHIFT
+            | move;
+    return numTurns + 1;
+  }
+
+  /**
+   * Takes the given turn, searches the position it leads to, and undoes the turn.
+   * @param encodedTurn A turn found by findTurns().
+   * @param turn The number of turns taken before this one.
+   * @return If the game can be won after the turn.
+   */
+  private boolean takeTurnAndSearch(long encodedTurn, int turn) {
+    takeTurn(encodedTurn);
+    boolean won = search(turn + 1);
+    undoTurn(encodedTurn);
+    return won;
+  }
+
+  /**
+   * Takes the given turn, and adds its plays to the current line.
+   * @param encodedTurn A turn found by findTurns() for the current position.
+   */
+  final void takeTurn(long encodedTurn) {
+    playTurn(encodedTurn);
+    // Turns that would end the game are never found, so there is always a draw.
+    game.drawForHand();
+  }
+
+  /**
+   * Undoes the given turn, which must be the last turn taken, and removes its plays from the
+   * current line.
+   * @param encodedTurn The turn given to takeTurn().
+   */
+  final void undoTurn(long encodedTurn) {
+    game.undo();
+    unplayTurn(encodedTurn);
+  }
+
+  /**
+   * Makes the plays of the given turn, but not its draw, and adds them to the current line.
+   * Searches that do not know the order of the deck use this to decide what is drawn themselves.
+   * @param encodedTurn A turn found by findTurns() for the current position.
+   */
+  final void playTurn(long encodedTurn) {
+    int canvasCard = (int) (encodedTurn >>> CANVAS_CARD_SHIFT) & CANVAS_CARD_MASK;
+    int move = (int) encodedTurn & PALETTE_MOVE_MASK;
+    if (canvasCard != NO_CANVAS) {
+      game.playToCanvas(canvasCard);
+      addToLine(RedMove.toCanvas(canvasCard));
+    }
+    game.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+    addToLine(move);
+  }
+
+  /**
+   * Undoes the plays of the given turn, which must be the last moves made, and removes them from
+   * the current line.
+   * @param encodedTurn The turn given to playTurn().
+   */
+  final void unplayTurn(long encodedTurn) {
+    int canvasCard = (int) (encodedTurn >>> CANVAS_CARD_SHIFT) & CANVAS_CARD_MASK;
+    game.undo();
+    lineLength--;
+    if (canvasCard != NO_CANVAS) {
+      game.undo();
+      lineLength--;
+    }
+  }
+
+  /**
+   * Adds a play to the end of the current line.
+   * @param move The play, encoded by {@link RedMove}.
+   */
+  private void addToLine(int move) {
+    if (lineLength == line.length) {
+      line = Arrays.copyOf(line, line.length * 2);
+    }
+    line[lineLength] = move;
+    lineLength++;
+  }
+
+  /**
+   * Returns the plays that led from the start of the search to the current position.
+   * @return A new array of the plays, encoded by {@link RedMove}.
+   */
+  final int[] getLine() {
+    return Arrays.copyOf(line, lineLength);
+  }
+
+  /**
+   * Returns the plays that win the game, once search() has found them.
+   * @return The winning plays, encoded by {@link RedMove}, including any turns taken before the
+   *         search started. Empty if no win was found.
+   */
+  final int[] getWinningLine() {
+    return winningLine;
+  }
+
+  /**
+   * Returns the number of positions this search has visited.
+   * @return The number of positions searched.
+   */
+  final long getPositionsSearched() {
+    return positionsSearched;
+  }
+
+  /**
+   * Makes the given play on the given game, and draws for the hand after a play to a palette that
+   * did not end the game. Searches that play one move at a time, rather than whole turns, share
+   * this.
+   * @param game The game to play on.
+   * @param move A legal play, encoded by {@link RedMove}.
+   * @return The number of moves to undo to take the play back.
+   */
+  static int playAndDraw(AbstractSoloRedGameModel game, int move) {
+    if (RedMove.isCanvas(move)) {
+      game.playToCanvas(RedMove.cardIdxInHand(move));
+      return 1;
+    }
+    game.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+    if (game.isGameOver()) {
+      return 1;
+    }
+    game.drawForHand();
+    return 2;
+  }
+
+  /**
+   * Returns a buffer that can hold every legal play of the current position of the given game:
+   * the given buffer if it is large enough, otherwise a new one.
+   * @param game The game whose plays will be listed.
+   * @param moves The buffer to reuse.
+   * @return A buffer with room for every legal play.
+   */
+  static int[] fitLegalMoves(AbstractSoloRedGameModel game, int[] moves) {
+    int numMoves = game.numLegalMoves();
+    return moves.length < numMoves ? new int[numMoves] : moves;
+  }
+
+  /**
+   * Makes sure the buffers of every turn up to the given one exist.
+   * @param turn The number of turns taken since the search started.
+   */
+  private void ensureBuffers(int turn) {
+    if (turn < turnsAtTurn.length) {
+      return;
+    }
+    movesAtTurn = Arrays.copyOf(movesAtTurn, turn + 1);
+    followUpsAtTurn = Arrays.copyOf(followUpsAtTurn, turn + 1);
+    turnsAtTurn = Arrays.copyOf(turnsAtTurn, turn + 1);
+    turnsAtTurn[turn] = new long[64];
+  }
+
+  /**
+   * Returns the move buffer of the given turn, replacing it first if it cannot hold the given
+   * number of moves.
+   * @param buffers The move buffers of every turn.
+   * @param turn The number of turns taken since the search started.
+   * @param size The number of moves the buffer needs to hold.
+   * @return A buffer that can hold size moves.
+   */
+  private static int[] fit(int[][] buffers, int turn, int size) {
+    if (buffers[turn] == null || buffers[turn].length < size) {
+      buffers[turn] = new int[size];
+    }
+    return buffers[turn];
+  }
+}
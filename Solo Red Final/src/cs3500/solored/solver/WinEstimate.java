@@ -0,0 +1,241 @@
+package cs3500.solored.solver;
+
+import cs3500.solored.model.hw02.RedMove;
+
+/**
+ * The result of a {@link WinProbabilityEstimator}: every legal play from the position that was
+ * estimated, with the fraction of sampled decks it went on to win, and a 95% confidence interval
+ * around it. Every play is encoded by {@link RedMove}.
+ */
+public final class WinEstimate {
+  // The z-score of a two-sided 95% confidence interval.
+  private static final double Z = 1.96;
+
+  private final int[] moves;
+  private final long[] wins;
+  private final long numSamples;
+  // Whether sampling stopped early because the best play was clearly better than the rest.
+  private final boolean separated;
+  private final long elapsedNanos;
+
+  /**
+   * Creates a new WinEstimate.
+   * @param moves The legal plays from the position that was estimated.
+   * @param wins The number of sampled decks each play went on to win.
+   * @param numSamples The number of decks sampled, the same for every play.
+   * @param separated Whether sampling stopped because the intervals separated.
+   * @param elapsedNanos The time the estimate took, in nanoseconds.
+   */
+  WinEstimate(int[] moves, long[] wins, long numSamples, boolean separated, long elapsedNanos) {
+    this.moves = moves.clone();
+    this.wins = wins.clone();
+    this.numSamples = numSamples;
+    this.separated = separated;
+    this.elapsedNanos = elapsedNanos;
+  }
+
+  /**
+   * Returns the play with the highest estimated chance of winning, the first such play if several
+   * are tied.
+   * @return The best play.
+   */
+  public int getBestMove() {
+    return moves[bestIndex(wins, moves.length)];
+  }
+
+  /**
+   * Returns the number of legal plays from the position that was estimated.
+   * @return The number of plays, at least 1.
+   */
+  public int getNumMoves() {
+    return moves.length;
+  }
+
+  /**
+   * Returns the given legal play, in the order of
+   * {@link cs3500.solored.model.hw02.AbstractSoloRedGameModel#legalMoves(int[])}.
+   * @param index The index of the play.
+   * @return The play.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public int getMove(int index) {
+    checkIndex(index);
+    return moves[index];
+  }
+
+  /**
+   * Returns the estimated chance of winning after the given play.
+   * @param index The index of the play.
+   * @return The fraction of sampled decks the play won, from 0 to 1, or 0 if none were sampled.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public double getWinProbability(int index) {
+    checkIndex(index);
+    return numSamples == 0 ? 0 : (double) wins[index] / numSamples;
+  }
+
+  /**
+   * Returns the lower end of the 95% confidence interval of the chance of winning after the given
+   * play.
+   * @param index The index of the play.
+   * @return The lower end of the interval, from 0 to 1.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public double getLowerBound(int index) {
+    checkIndex(index);
+    return lowerBound(wins[index], numSamples);
+  }
+
+  /**
+   * Returns the upper end of the 95% confidence interval of the chance of winning after the given
+   * play.
+   * @param index The index of the play.
+   * @return The upper end of the interval, from 0 to 1.
+   * @throws IllegalArgumentException If index is not the index of a play.
+   */
+  public double getUpperBound(int index) {
+    checkIndex(index);
+    return upperBound(wins[index], numSamples);
+  }
+
+  /**
+   * Returns the number of decks sampled, which every play was tried on.
+   * @return The number of samples.
+   */
+  public long getNumSamples() {
+    return numSamples;
+  }
+
+  /**
+   * Returns if sampling stopped early, because the interval of the best play was above the
+   * interval of every other play.
+   * @return If the intervals separated.
+   */
+  public boolean isSeparated() {
+    return separated;
+  }
+
+  /**
+   * Returns how long the estimate took.
+   * @return The time the estimate took, in nanoseconds.
+   */
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  /**
+   * Returns the index of the play with the most wins, the first such play if several are tied.
+   * @param wins The wins of every play.
+   * @param numMoves The number of plays.
+   * @return The index of the best play.
+   */
+  static int bestIndex(long[] wins, int numMoves) {
+    int best = 0;
+    for (int i = 1; i < numMoves; i++) {
+      if (wins[i] > wins[best]) {
+        best = i;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Returns if the interval of the best play lies above the interval of every other play.
+   * @param wins The wins of every play.
+   * @param numMoves The number of plays.
+   * @param numSamples The number of samples every play was tried on.
+   * @return If the intervals are separated. Always true for a single play.
+   */
+  static boolean isSeparated(long[] wins, int numMoves, long numSamples) {
+    int best = bestIndex(wins, numMoves);
+    double floor = lowerBound(wins[best], numSamples);
+    for (int i = 0; i < numMoves; i++) {
+      if (i != best && upperBound(wins[i], numSamples) >= floor) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the lower end of the Wilson score interval of the given number of wins, which stays
+   * sensible for rare wins and few samples.
+   * @param wins The number of wins.
+   * @param samples The number of samples.
+   * @return The lower end of the interval, 0 if there are no samples.
+   */
+  private static double lowerBound(long wins, long samples) {
+    if (samples == 0) {
+      return 0;
+    }
+    return Math.max(0, center(wins, samples) - halfWidth(wins, samples));
+  }
+
+  /**
+   * Returns the upper end of the Wilson score interval of the given number of wins.
+   * @param wins The number of wins.
+   * @param samples The number of samples.
+   * @return The upper end of the interval, 1 if there are no samples.
+   */
+  private static double upperBound(long wins, long samples) {
+    if (samples == 0) {
+      return 1;
+    }
+    return Math.min(1, center(wins, samples) + halfWidth(wins, samples));
+  }
+
+  /**
+   * Returns the center of the Wilson score interval of the given number of wins.
+   * @param wins The number of wins, with samples positive.
+   * @param samples The number of samples.
+   * @return The center of the interval.
+   */
+  private static double center(long wins, long samples) {
+    double p = (double) wins / samples;
+    return (p + Z * Z / (2 * samples)) / (1 + Z * Z / samples);
+  }
+
+  /**
+   * Returns half the width of the Wilson score interval of the given number of wins.
+   * @param wins The number of wins, with samples positive.
+   * @param samples The number of samples.
+   * @return Half the width of the interval.
+   */
+  private static double halfWidth(long wins, long samples) {
+    double p = (double) wins / samples;
+    return Z / (1 + Z * Z / samples)
+            * Math.sqrt(p * (1 - p) / samples + Z * Z / (4.0 * samples * samples));
+  }
+
+  /**
+   * Checks that the given index is the index of a play.
+   * @param index The index to check.
+   * @throws IllegalArgumentException If it is not.
+   */
+  private void checkIndex(int index) {
+    if (index < 0 || index >= moves.length) {
+      throw new IllegalArgumentException(
+              "The move index " + index + " is out of the valid range 0-"
+                      + (moves.length - 1) + ", inclusive!"
+      );
+    }
+  }
+
+  /**
+   * Describes every play on its own line, in the same terms as the text controller's commands,
+   * followed by its chance of winning and the interval around it, as percentages.
+   * @return The description of the estimate.
+   */
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder();
+    for (int i = 0; i < moves.length; i++) {
+      if (i > 0) {
+        builder.append("\n");
+      }
+      builder.append(String.format("%s: %.1f%% (%.1f%%-%.1f%%)", RedMove.toString(moves[i]),
+              100 * getWinProbability(i), 100 * getLowerBound(i), 100 * getUpperBound(i)));
+    }
+    return builder.toString();
+  }
+}
@@ -0,0 +1,338 @@
+package cs3500.solored.solver;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * Estimates the chance of winning a started game of RedSeven, of either variant, after each legal
+ * play, by perfect-information Monte Carlo: the cards the player has not seen are dealt into the
+ * deck in many random orders, and every play is judged on each order as if it were known.
+ * <p>Notes on this implementation:</p>
+ * <ul>
+ *   <li>Every sample shuffles the deck of a fork of the game with
+ *   {@link AbstractSoloRedGameModel#shuffleDeck(Random)}. The cards in the deck are exactly the
+ *   cards of {@link AbstractSoloRedGameModel#getAllCards()} that are not in the hand, on a palette
+ *   or on the canvas, so this samples the orders of the unseen cards.</li>
+ *   <li>Every play is tried on the same orders, so that the differences between plays are not
+ *   lost in the differences between orders.</li>
+ *   <li>After each play, the order is solved like {@link RedGameSolver} would, but only up to a
+ *   number of positions. A sample the search cannot decide in time is played out to the end by a
+ *   {@link PlayoutPolicy} instead, which may lose a game that could be won.</li>
+ *   <li>Every thread samples on its own fork, and the threads share one table of lost positions,
+ *   like {@link ParallelRedGameSolver}. They only meet to count each finished sample.</li>
+ *   <li>The threads are made once, as daemon threads, and reused by every estimate, since a caller
+ *   such as a controller may estimate every position of a game.</li>
+ *   <li>Sampling stops at the sample limit, at the time budget, or as soon as the 95% Wilson
+ *   interval of the best play lies above the intervals of all the others.</li>
+ * </ul>
+ */
+public class WinProbabilityEstimator {
+  // The positions each solve may search, used by the default constructor.
+  private static final int DEFAULT_POSITIONS_PER_SOLVE = 2000;
+  // The capacity of the table made by the constructors, which takes 4 MB.
+  private static final int TABLE_CAPACITY = 1 << 18;
+  // The fewest samples to take before checking whether the intervals separated.
+  private static final int MIN_SAMPLES = 16;
+
+  private final int numThreads;
+  private final int positionsPerSolve;
+  private final PlayoutPolicy fallback;
+  private final LostPositionTable table;
+  // Seeds the random objects of every thread.
+  private final SplittableRandom seeds;
+  // Runs the samplers of every estimate, on numThreads daemon threads.
+  private final ExecutorService executor;
+
+  /**
+   * Creates an estimator with one thread for every processor, that plays out the samples it
+   * cannot solve with {@link PlayoutPolicy#randomSurviving()}.
+   */
+  public WinProbabilityEstimator() {
+    this(Runtime.getRuntime().availableProcessors(), DEFAULT_POSITIONS_PER_SOLVE,
+            PlayoutPolicy.randomSurviving(), System.nanoTime());
+  }
+
+  /**
+   * Creates an estimator with the given number of threads and effort per sample.
+   * @param numThreads The number of threads to sample with.
+   * @param positionsPerSolve The most positions a solve of one play on one sample may search.
+   * @param fallback The policy that plays out a sample the solve could not decide. It is used by
+   *                 every thread at once.
+   * @param seed The seed every shuffle of the estimator follows from.
+   * @throws IllegalArgumentException If numThreads or positionsPerSolve is not positive, or
+   *                                  fallback is null.
+   */
+  public WinProbabilityEstimator(int numThreads, int positionsPerSolve, PlayoutPolicy fallback,
+                                 long seed) {
+    if (numThreads <= 0) {
+      throw new IllegalArgumentException(
+              "An estimator needs at least 1 thread, not " + numThreads
+      );
+    }
+    if (positionsPerSolve <= 0) {
+      throw new IllegalArgumentException(
+              "A solve needs at least 1 position, not " + positionsPerSolve
+      );
+    }
+    if (fallback == null) {
+      throw new IllegalArgumentException("The fallback policy may not be null!");
+    }
+    this.numThreads = numThreads;
+    this.positionsPerSolve = positionsPerSolve;
+    this.fallback = fallback;
+    this.table = new TranspositionTable(TABLE_CAPACITY);
+    this.seeds = new SplittableRandom(seed);
+    AtomicInteger numMade = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(numThreads, r -> {
+      Thread thread = new Thread(r, "WinProbabilityEstimator-" + numMade.getAndIncrement());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Estimates the chance of winning after every legal play of the given game. The given model is
+   * not changed. Every thread finishes the sample it is on when the time is up, so the estimate
+   * may take a little longer than the budget.
+   *
+   * @param model the game to estimate, which must be running
+   * @param maxSamples the most orders of the deck to sample
+   * @param budgetMillis the time to sample for, in milliseconds
+   * @return every legal play, with its estimated chance of winning
+   * @throws IllegalArgumentException if model is null, or maxSamples or budgetMillis is not
+   *                                  positive
+   * @throws IllegalStateException if the game is not running, if this estimator was shut down,
+   *                               if sampling failed, or if the calling thread is interrupted
+   *                               while waiting for the estimate
+   */
+  public WinEstimate estimate(AbstractSoloRedGameModel model, int maxSamples, long budgetMillis) {
+    if (model == null) {
+      throw new IllegalArgumentException("Cannot estimate a null model!");
+    }
+    if (maxSamples <= 0) {
+      throw new IllegalArgumentException("An estimate needs at least 1 sample, not " + maxSamples);
+    }
+    if (budgetMillis <= 0) {
+      throw new IllegalArgumentException(
+              "An estimate needs a positive budget, not " + budgetMillis
+      );
+    }
+    if (model.isGameOver()) {
+      throw new IllegalStateException("The game is over, there is no play to estimate!");
+    }
+
+    long start = System.nanoTime();
+    Tally tally = new Tally(model.getLegalMoves(), maxSamples,
+            start + budgetMillis * 1_000_000L);
+    table.newSearch();
+    Future<?>[] samplers = new Future<?>[numThreads];
+    try {
+      for (int i = 0; i < numThreads; i++) {
+        long seed;
+        synchronized (seeds) {
+          seed = seeds.nextLong();
+        }
+        samplers[i] = executor.submit(new Sampler(model.fork(), new Random(seed), tally)::run);
+      }
+    } catch (RuntimeException e) {
+      tally.stopped.set(true);
+      throw new IllegalStateException("The estimator was shut down!", e);
+    }
+
+    try {
+      for (Future<?> sampler : samplers) {
+        sampler.get();
+      }
+    } catch (InterruptedException e) {
+      tally.stopped.set(true);
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while estimating the game!");
+    } catch (ExecutionException e) {
+      tally.stopped.set(true);
+      throw new IllegalStateException("Sampling the game failed!", e.getCause());
+    }
+    return new WinEstimate(tally.moves, tally.wins, tally.numSamples,
+            tally.numSamples >= MIN_SAMPLES
+                    && WinEstimate.isSeparated(tally.wins, tally.moves.length, tally.numSamples),
+            System.nanoTime() - start);
+  }
+
+  /**
+   * Stops the threads of this estimator once they finish any estimate they are working on. The
+   * estimator cannot be used afterwards. Its threads are daemon threads, so this is only needed to
+   * free them before the program ends.
+   */
+  public void shutdown() {
+    executor.shutdown();
+  }
+
+  /**
+   * The samples of one estimate, counted by every thread.
+   */
+  private static final class Tally {
+    // The legal plays of the position being estimated.
+    private final int[] moves;
+    private final int maxSamples;
+    // The time to stop at, as by System.nanoTime().
+    private final long deadline;
+    // The number of samples any thread has started.
+    private final AtomicLong started;
+    // Set once sampling should stop.
+    private final AtomicBoolean stopped;
+    // The number of finished samples each play won, and the number of finished samples. Only
+    // changed while holding the lock of this tally.
+    private final long[] wins;
+    private long numSamples;
+
+    /**
+     * Creates an empty tally.
+     * @param moves The legal plays of the position being estimated.
+     * @param maxSamples The most samples to take.
+     * @param deadline The time to stop at, as by System.nanoTime().
+     */
+    Tally(int[] moves, int maxSamples, long deadline) {
+      this.moves = moves;
+      this.maxSamples = maxSamples;
+      this.deadline = deadline;
+      this.started = new AtomicLong();
+      this.stopped = new AtomicBoolean(false);
+      this.wins = new long[moves.length];
+    }
+
+    /**
+     * Returns if another sample should be started, and counts it as started if so.
+     * @return If another sample should be taken.
+     */
+    boolean startSample() {
+      if (stopped.get() || System.nanoTime() - deadline >= 0
+              || started.getAndIncrement() >= maxSamples) {
+        stopped.set(true);
+        return false;
+      }
+      return true;
+    }
+
+    /**
+     * Counts a finished sample, and stops sampling if the best play is now clearly the best.
+     * @param won Whether each play won the sample.
+     */
+    synchronized void finishSample(boolean[] won) {
+      for (int i = 0; i < moves.length; i++) {
+        if (won[i]) {
+          wins[i]++;
+        }
+      }
+      numSamples++;
+      if (numSamples >= MIN_SAMPLES && WinEstimate.isSeparated(wins, moves.length, numSamples)) {
+        stopped.set(true);
+      }
+    }
+  }
+
+  /**
+   * The samples of one thread, taken on its own fork of the game.
+   */
+  private final class Sampler extends TurnSearch {
+    private final Random rand;
+    private final Tally tally;
+    // Whether each play won the current sample.
+    private final boolean[] won;
+    // Reused to list the legal plays while playing out a sample.
+    private int[] moves;
+    // The number of positions searched when the current solve must stop.
+    private long searchLimit;
+
+    /**
+     * Creates the sampler of one thread.
+     * @param game The game to sample, which belongs to this sampler.
+     * @param rand The random object to shuffle with.
+     * @param tally The tally to count samples in.
+     */
+    Sampler(AbstractSoloRedGameModel game, Random rand, Tally tally) {
+      super(game);
+      this.rand = rand;
+      this.tally = tally;
+      this.won = new boolean[tally.moves.length];
+      this.moves = new int[0];
+    }
+
+    @Override
+    boolean isKnownLost() {
+      return table.isLost(game.fingerprint());
+    }
+
+    @Override
+    void rememberLost() {
+      table.storeLost(game.fingerprint(), game.numOfCardsInDeck());
+    }
+
+    @Override
+    boolean isStopped() {
+      return getPositionsSearched() >= searchLimit;
+    }
+
+    /**
+     * Takes samples until the tally says to stop.
+     */
+    void run() {
+      while (tally.startSample()) {
+        game.shuffleDeck(rand);
+        for (int i = 0; i < won.length; i++) {
+          won[i] = wins(tally.moves[i]);
+        }
+        game.undo();
+        tally.finishSample(won);
+      }
+    }
+
+    /**
+     * Returns if the given play wins the current order of the deck, as far as the search can
+     * tell. The game is left as it was.
+     * @param move A legal play, encoded by {@link RedMove}.
+     * @return If the play wins.
+     */
+    private boolean wins(int move) {
+      int numUndos = playAndDraw(game, move);
+      boolean wins;
+      if (game.isGameOver()) {
+        wins = game.isGameWon();
+      } else {
+        searchLimit = getPositionsSearched() + positionsPerSolve;
+        wins = search(0);
+        if (!wins && isStopped()) {
+          numUndos += playOut();
+          wins = game.isGameWon();
+        }
+      }
+      for (int i = 0; i < numUndos; i++) {
+        game.undo();
+      }
+      return wins;
+    }
+
+    /**
+     * Plays the game to the end with the fallback policy.
+     * @return The number of moves to undo.
+     */
+    private int playOut() {
+      int numUndos = 0;
+      while (!game.isGameOver()) {
+        moves = fitLegalMoves(game, moves);
+        int numMoves = game.legalMoves(moves);
+        numUndos += playAndDraw(game, fallback.chooseMove(game, moves, numMoves, rand));
+      }
+      return numUndos;
+    }
+  }
+}
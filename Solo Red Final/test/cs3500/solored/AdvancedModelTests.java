@@ -96,4 +96,83 @@ public class AdvancedModelTests extends GeneralModelTests {
     );
   }
 
+  @Test
+  public void testForkKeepsExtraDraw() {
+    model.startGame(fullDeck.subList(1,15), false, 4, 5);
+
+    model.playToCanvas(4);
+    model.playToPalette(2, 0);
+    AdvancedSoloRedGameModel fork = ((AdvancedSoloRedGameModel) model).fork();
+    fork.drawForHand();
+
+    Assert.assertEquals(
+            "A fork should still be allowed to draw 2 cards!",
+            5,
+            fork.getHand().size()
+    );
+    Assert.assertEquals(
+            "Drawing on a fork should not draw for the original!",
+            3,
+            model.getHand().size()
+    );
+  }
+
+  @Test
+  public void testUndoRestoresExtraDraw() {
+    AdvancedSoloRedGameModel advanced = (AdvancedSoloRedGameModel) model;
+    model.startGame(fullDeck.subList(1,15), false, 4, 5);
+
+    model.playToCanvas(4);
+    model.playToPalette(2, 0);
+    model.drawForHand();
+    advanced.undo();
+    model.drawForHand();
+
+    Assert.assertEquals(
+            "Undoing a draw should let the next draw take 2 cards again!",
+            5,
+            model.getHand().size()
+    );
+
+    advanced.undo();
+    advanced.undo();
+    advanced.undo();
+    model.playToPalette(2, 0);
+    model.playToPalette(1, 0);
+    model.drawForHand();
+    Assert.assertEquals(
+            "Undoing the plays that earned the extra card should take it away!",
+            4,
+            model.getHand().size()
+    );
+  }
+
+  @Test
+  public void testNumCardsToDrawCountsExtraCard() {
+    AdvancedSoloRedGameModel advanced = (AdvancedSoloRedGameModel) model;
+    model.startGame(fullDeck.subList(1,15), false, 4, 5);
+
+    model.playToPalette(2, 0);
+    Assert.assertEquals(
+            "Only 1 card is drawn without a play to the canvas!",
+            1,
+            advanced.numCardsToDraw()
+    );
+
+    advanced.undo();
+    model.playToCanvas(4);
+    model.playToPalette(2, 0);
+    Assert.assertEquals(
+            "2 cards are drawn when the canvas card's value > the winning length!",
+            2,
+            advanced.numCardsToDraw()
+    );
+    model.drawForHand();
+    Assert.assertEquals(
+            "The draw should take as many cards as were counted!",
+            5,
+            model.getHand().size()
+    );
+  }
+
 }
@@ -0,0 +1,67 @@
+package cs3500.solored;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.CardImpl;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+
+/**
+ * Games and plays shared by the tests of everything that searches or plays a game.
+ */
+public final class GameFixtures {
+
+  /**
+   * Creates a model for the game of the given seed, alternating between the variants: even seeds
+   * play the basic game and odd seeds the advanced one. The model shuffles with the seed.
+   * @param seed The seed of the game.
+   * @return The model, which has not started.
+   */
+  public static AbstractSoloRedGameModel newGame(int seed) {
+    return seed % 2 == 0
+            ? new SoloRedGameModel(new Random(seed))
+            : new AdvancedSoloRedGameModel(new Random(seed));
+  }
+
+  /**
+   * Starts the game of the given seed, see {@link #newGame(int)}, dealt from only some of the
+   * cards, chosen by the seed.
+   * @param seed The seed of the game.
+   * @param numCards The number of cards to deal the game from.
+   * @param numPalettes The number of palettes.
+   * @param handSize The size of the hand.
+   * @return The started game.
+   */
+  public static AbstractSoloRedGameModel dealtGame(int seed, int numCards, int numPalettes,
+                                                   int handSize) {
+    AbstractSoloRedGameModel model = newGame(seed);
+    List<CardImpl> deck = new ArrayList<>(model.getAllCards());
+    Collections.shuffle(deck, new Random(seed));
+    model.startGame(deck.subList(0, numCards), false, numPalettes, handSize);
+    return model;
+  }
+
+  /**
+   * Plays the given line on the given model the way the text controller would, drawing after
+   * every play to a palette unless the game is over.
+   * @param model The model to play on.
+   * @param line The plays, encoded by RedMove.
+   */
+  public static void playLine(AbstractSoloRedGameModel model, int[] line) {
+    for (int move : line) {
+      if (RedMove.isCanvas(move)) {
+        model.playToCanvas(RedMove.cardIdxInHand(move));
+      } else {
+        model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+        if (!model.isGameOver()) {
+          model.drawForHand();
+        }
+      }
+    }
+  }
+}
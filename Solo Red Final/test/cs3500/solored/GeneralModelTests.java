@@ -5,15 +5,21 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
 import cs3500.solored.model.hw02.Card;
 import cs3500.solored.model.hw02.CardColor;
 import cs3500.solored.model.hw02.CardImpl;
 import cs3500.solored.model.hw02.CardNumber;
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
+import cs3500.solored.model.hw02.RedMove;
 import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+import cs3500.solored.solver.RedGameSolver;
 import cs3500.solored.view.hw02.RedGameView;
 import cs3500.solored.view.hw02.SoloRedGameTextView;
 
@@ -691,4 +697,672 @@ public abstract class GeneralModelTests {
             model.winningPaletteIndex()
     );
   }
+
+  @Test
+  public void testForkIsIndependent() {
+    model.startGame(fullDeck, false, 4, 5);
+    RedGameModel fork = ((AbstractSoloRedGameModel) model).fork();
+    RedGameView forkView = new SoloRedGameTextView(fork);
+
+    Assert.assertEquals(
+            "A fork should start in the same state as the original!",
+            view.toString(),
+            forkView.toString()
+    );
+
+    fork.playToCanvas(4);
+    fork.playToPalette(0, 0);
+    fork.drawForHand();
+
+    Assert.assertEquals(
+            "Playing on a fork should not change the original!",
+            "Canvas: R\nP1: R1\nP2: R2\nP3: R3\n> P4: R4\nHand: R5 R6 R7 O1 O2",
+            view.toString()
+    );
+    Assert.assertEquals(
+            "A fork should play like the original would!",
+            "Canvas: O\n> P1: R1 R5\nP2: R2\nP3: R3\nP4: R4\nHand: R6 R7 O1 O3 O4",
+            forkView.toString()
+    );
+  }
+
+  @Test
+  public void testForkBeforeStart() {
+    RedGameModel fork = ((AbstractSoloRedGameModel) model).fork();
+    fork.startGame(fullDeck, false, 4, 5);
+
+    Assert.assertThrows(
+            "Starting a fork should not start the original!",
+            IllegalStateException.class,
+        () -> model.getHand()
+    );
+  }
+
+  @Test
+  public void testUndoRestoresGame() {
+    AbstractSoloRedGameModel undoModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    String start = view.toString();
+
+    model.playToCanvas(4);
+    model.playToPalette(0, 0);
+    model.drawForHand();
+    String afterTurn = view.toString();
+    model.playToPalette(1, 2);
+
+    Assert.assertTrue(
+            "The last play should have ended the game!",
+            model.isGameOver()
+    );
+
+    undoModel.undo();
+    Assert.assertEquals(
+            "Undoing should restore the game from before the last move!",
+            afterTurn,
+            view.toString()
+    );
+    Assert.assertFalse(
+            "Undoing the move that ended the game should let it continue!",
+            model.isGameOver()
+    );
+
+    undoModel.undo();
+    undoModel.undo();
+    undoModel.undo();
+    Assert.assertEquals(
+            "Undoing every move should restore the game from the start!",
+            start,
+            view.toString()
+    );
+    Assert.assertFalse(
+            "The opening hand should not be undoable!",
+            undoModel.canUndo()
+    );
+
+    model.playToCanvas(3);
+    Assert.assertEquals(
+            "The canvas should be playable again once it is undone!",
+            "O1",
+            model.getCanvas().toString()
+    );
+  }
+
+  @Test
+  public void testUndoWithNoMoveThrows() {
+    AbstractSoloRedGameModel undoModel = (AbstractSoloRedGameModel) model;
+
+    Assert.assertThrows(
+            "Should not be able to undo before the game starts.",
+            IllegalStateException.class,
+        () -> undoModel.undo()
+    );
+
+    model.startGame(fullDeck, false, 4, 5);
+    Assert.assertThrows(
+            "Should not be able to undo without making a move.",
+            IllegalStateException.class,
+        () -> undoModel.undo()
+    );
+
+    Assert.assertThrows(
+            "A move that is not allowed should not be undoable.",
+            IllegalStateException.class,
+        () -> model.playToPalette(3, 0)
+    );
+    Assert.assertFalse(
+            "A move that is not allowed should not be undoable.",
+            undoModel.canUndo()
+    );
+  }
+
+  @Test
+  public void testLegalMoves() {
+    AbstractSoloRedGameModel movesModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+
+    int[] moves = movesModel.getLegalMoves();
+    Assert.assertEquals(
+            "Every card should be playable to 3 palettes and the canvas!",
+            20,
+            moves.length
+    );
+    for (int move : moves) {
+      Assert.assertNotEquals(
+              "The winning palette should not be playable!",
+              3,
+              RedMove.isCanvas(move) ? -1 : RedMove.paletteIdx(move)
+      );
+    }
+
+    model.playToCanvas(4);
+    Assert.assertEquals(
+            "The canvas should not be playable twice in a turn!",
+            12,
+            movesModel.numLegalMoves()
+    );
+    Assert.assertEquals(
+            "Moves should be listed by palette, then by card!",
+            RedMove.toPalette(1, 2),
+            movesModel.getLegalMoves()[6]
+    );
+
+    model.playToPalette(1, 3);
+    Assert.assertEquals(
+            "There should be no legal moves once the game is over!",
+            0,
+            movesModel.legalMoves(new int[0])
+    );
+  }
+
+  @Test
+  public void testLegalMovesNeedRoom() {
+    AbstractSoloRedGameModel movesModel = (AbstractSoloRedGameModel) model;
+
+    Assert.assertThrows(
+            "Should not be able to list moves before the game starts.",
+            IllegalStateException.class,
+        () -> movesModel.getLegalMoves()
+    );
+
+    model.startGame(fullDeck, false, 4, 5);
+    Assert.assertThrows(
+            "Should not be able to list moves into an array that is too small.",
+            IllegalArgumentException.class,
+        () -> movesModel.legalMoves(new int[19])
+    );
+  }
+
+  @Test
+  public void testTryPlayReportsStatus() {
+    Assert.assertEquals(
+            "Should not be able to play before the game starts.",
+            MoveStatus.NOT_RUNNING,
+            model.tryPlayToCanvas(0)
+    );
+
+    model.startGame(fullDeck, false, 4, 5);
+    Assert.assertEquals(
+            "Should not be able to play to a palette that doesn't exist.",
+            MoveStatus.PALETTE_OUT_OF_RANGE,
+            model.tryPlayToPalette(4, 0)
+    );
+    Assert.assertEquals(
+            "Should not be able to play a card that isn't in the hand.",
+            MoveStatus.CARD_OUT_OF_RANGE,
+            model.tryPlayToPalette(0, 5)
+    );
+    Assert.assertEquals(
+            "Should not be able to play to the wining palette.",
+            MoveStatus.WINNING_PALETTE,
+            model.tryPlayToPalette(3, 0)
+    );
+    Assert.assertEquals(
+            "A move that is not allowed should not change the game!",
+            "Canvas: R\nP1: R1\nP2: R2\nP3: R3\n> P4: R4\nHand: R5 R6 R7 O1 O2",
+            view.toString()
+    );
+
+    Assert.assertEquals(
+            "Should be able to play to the canvas.",
+            MoveStatus.PLAYED,
+            model.tryPlayToCanvas(4)
+    );
+    Assert.assertEquals(
+            "Should not be able to play to the canvas twice in a turn.",
+            MoveStatus.CANVAS_ALREADY_PLAYED,
+            model.tryPlayToCanvas(0)
+    );
+    Assert.assertEquals(
+            "Should be able to play to a losing palette.",
+            MoveStatus.PLAYED,
+            model.tryPlayToPalette(0, 0)
+    );
+    Assert.assertEquals(
+            "The card should have been played to the palette!",
+            2,
+            model.getPalette(0).size()
+    );
+  }
+
+  @Test
+  public void testWinnerAfterPredictsWinner() {
+    AbstractSoloRedGameModel movesModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+
+    Assert.assertEquals(
+            "Playing O2 to the canvas should leave P4 winning with R4!",
+            3,
+            movesModel.winnerAfter(RedMove.toCanvas(4))
+    );
+    Assert.assertEquals(
+            "Playing R5 to P1 should make it win!",
+            0,
+            movesModel.winnerAfter(RedMove.toPalette(0, 0))
+    );
+    Assert.assertEquals(
+            "Predicting a move should not make it!",
+            5,
+            model.getHand().size()
+    );
+    Assert.assertTrue(
+            "The winning palette should have the highest score!",
+            movesModel.paletteScore(3) > movesModel.paletteScore(2)
+    );
+    Assert.assertThrows(
+            "Should not be able to predict a move that is not legal.",
+            IllegalArgumentException.class,
+        () -> movesModel.winnerAfter(RedMove.toPalette(3, 0))
+    );
+  }
+
+  @Test
+  public void testPositionKeyIgnoresOrder() {
+    AbstractSoloRedGameModel keyModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    long[] start = new long[keyModel.positionKeyLength()];
+    keyModel.positionKey(start);
+
+    model.playToCanvas(0);
+    long[] afterCanvas = new long[keyModel.positionKeyLength()];
+    keyModel.positionKey(afterCanvas);
+    Assert.assertFalse(
+            "Playing a card should change the key!",
+            Arrays.equals(start, afterCanvas)
+    );
+
+    keyModel.undo();
+    long[] undone = new long[keyModel.positionKeyLength()];
+    keyModel.positionKey(undone);
+    Assert.assertArrayEquals(
+            "Undoing a play should restore the key!",
+            start,
+            undone
+    );
+  }
+
+  @Test
+  public void testFingerprintFollowsPosition() {
+    AbstractSoloRedGameModel fingerprintModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    long start = fingerprintModel.fingerprint();
+    Assert.assertEquals(
+            "A fork should have the same fingerprint!",
+            start,
+            fingerprintModel.fork().fingerprint()
+    );
+
+    model.playToCanvas(0);
+    Assert.assertNotEquals(
+            "Playing a card should change the fingerprint!",
+            start,
+            fingerprintModel.fingerprint()
+    );
+
+    fingerprintModel.undo();
+    Assert.assertEquals(
+            "Undoing a play should restore the fingerprint!",
+            start,
+            fingerprintModel.fingerprint()
+    );
+  }
+
+  @Test
+  public void testFingerprintIncludesRules() {
+    AbstractSoloRedGameModel fingerprintModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    long start = fingerprintModel.fingerprint();
+
+    AbstractSoloRedGameModel other = fingerprintModel instanceof AdvancedSoloRedGameModel
+            ? new SoloRedGameModel()
+            : new AdvancedSoloRedGameModel();
+    List<CardImpl> deck = new ArrayList<>();
+    for (Card card : fullDeck) {
+      deck.add((CardImpl) card);
+    }
+    other.startGame(deck, false, 4, 5);
+    Assert.assertNotEquals(
+            "The same deal in the other variant should have another fingerprint!",
+            start,
+            other.fingerprint()
+    );
+
+    for (int[] rules : new int[][] {{4, 6}, {5, 5}}) {
+      AbstractSoloRedGameModel same = fingerprintModel instanceof AdvancedSoloRedGameModel
+              ? new AdvancedSoloRedGameModel()
+              : new SoloRedGameModel();
+      same.startGame(deck, false, rules[0], rules[1]);
+      Assert.assertNotEquals(
+              "The same deal with " + rules[0] + " palettes and a hand of " + rules[1]
+                      + " should have another fingerprint!",
+              start,
+              same.fingerprint()
+      );
+    }
+  }
+
+  @Test
+  public void testFingerprintNeedsStartedGame() {
+    Assert.assertThrows(
+            "There is no fingerprint before the game starts!",
+            IllegalStateException.class,
+        () -> ((AbstractSoloRedGameModel) model).fingerprint()
+    );
+  }
+
+  @Test
+  public void testCanonicalKeyIgnoresPaletteOrder() {
+    List<Card> swappedDeck = new ArrayList<>(fullDeck);
+    swappedDeck.set(0, fullDeck.get(1));
+    swappedDeck.set(1, fullDeck.get(0));
+    AbstractSoloRedGameModel keyModel = (AbstractSoloRedGameModel) model;
+    AbstractSoloRedGameModel swappedModel = newModelOfSameVariant();
+    RedGameModel swappedGame = swappedModel;
+    model.startGame(fullDeck, false, 4, 5);
+    swappedGame.startGame(swappedDeck, false, 4, 5);
+
+    long[] key = new long[keyModel.positionKeyLength()];
+    long[] swappedKey = new long[swappedModel.positionKeyLength()];
+    keyModel.positionKey(key);
+    swappedModel.positionKey(swappedKey);
+    Assert.assertFalse(
+            "Swapping two palettes should change the position key!",
+            Arrays.equals(key, swappedKey)
+    );
+
+    key = new long[keyModel.canonicalKeyLength()];
+    swappedKey = new long[swappedModel.canonicalKeyLength()];
+    keyModel.canonicalKey(key);
+    swappedModel.canonicalKey(swappedKey);
+    Assert.assertArrayEquals(
+            "Swapping two palettes should not change the canonical key!",
+            key,
+            swappedKey
+    );
+  }
+
+  @Test
+  public void testCanonicalKeySpansDeals() {
+    // Three palettes and a hand of three leave six cards in the deck.
+    List<Card> deck = new ArrayList<>(fullDeck.subList(0, 12));
+    List<Card> swappedPalettes = new ArrayList<>(deck);
+    swappedPalettes.set(0, deck.get(2));
+    swappedPalettes.set(2, deck.get(0));
+    List<Card> swappedDeck = new ArrayList<>(deck);
+    swappedDeck.set(10, deck.get(11));
+    swappedDeck.set(11, deck.get(10));
+    List<Card> otherDeck = new ArrayList<>(deck);
+    otherDeck.set(11, fullDeck.get(12));
+
+    long[] key = canonicalKeyOf(deck);
+    Assert.assertArrayEquals(
+            "A deal with its palettes swapped should share the canonical key!",
+            key,
+            canonicalKeyOf(swappedPalettes)
+    );
+    Assert.assertEquals(
+            "Deals that share a canonical key should play out the same way!",
+            isWinnable(deck),
+            isWinnable(swappedPalettes)
+    );
+    Assert.assertFalse(
+            "A deal whose deck is in another order should not share the canonical key!",
+            Arrays.equals(key, canonicalKeyOf(swappedDeck))
+    );
+    Assert.assertFalse(
+            "A deal whose deck holds other cards should not share the canonical key!",
+            Arrays.equals(key, canonicalKeyOf(otherDeck))
+    );
+
+    AbstractSoloRedGameModel other = model instanceof AdvancedSoloRedGameModel
+            ? new SoloRedGameModel()
+            : new AdvancedSoloRedGameModel();
+    List<CardImpl> cards = new ArrayList<>();
+    for (Card card : deck) {
+      cards.add((CardImpl) card);
+    }
+    other.startGame(cards, false, 3, 3);
+    long[] otherKey = new long[other.canonicalKeyLength()];
+    other.canonicalKey(otherKey);
+    Assert.assertFalse(
+            "The same deal in the other variant should not share the canonical key!",
+            Arrays.equals(key, otherKey)
+    );
+  }
+
+  /**
+   * Creates a new model of the same variant as the model under test.
+   * @return The new model, which has not started.
+   */
+  private AbstractSoloRedGameModel newModelOfSameVariant() {
+    return model instanceof AdvancedSoloRedGameModel
+            ? new AdvancedSoloRedGameModel(new Random(0))
+            : new SoloRedGameModel(new Random(0));
+  }
+
+  /**
+   * Returns the canonical key of a game of the model's variant dealt, unshuffled, from the given
+   * deck, with 3 palettes and a hand of 3.
+   * @param deck The deck to deal.
+   * @return The canonical key of the dealt game.
+   */
+  private long[] canonicalKeyOf(List<Card> deck) {
+    AbstractSoloRedGameModel game = newModelOfSameVariant();
+    ((RedGameModel) game).startGame(deck, false, 3, 3);
+    long[] key = new long[game.canonicalKeyLength()];
+    game.canonicalKey(key);
+    return key;
+  }
+
+  /**
+   * Returns if a game of the model's variant dealt, unshuffled, from the given deck, with 3
+   * palettes and a hand of 3, can be won.
+   * @param deck The deck to deal.
+   * @return If the game can be won.
+   */
+  private boolean isWinnable(List<Card> deck) {
+    AbstractSoloRedGameModel game = newModelOfSameVariant();
+    ((RedGameModel) game).startGame(deck, false, 3, 3);
+    return new RedGameSolver().solve(game).isWinnable();
+  }
+
+
+  @Test
+  public void testProvablyLostFindsDeadPosition() {
+    // Only red cards are left, and none of them beat the red 7 of the winning palette.
+    List<Card> deadDeck = Arrays.asList(fullDeck.get(6), fullDeck.get(0), fullDeck.get(1),
+            fullDeck.get(2));
+    model.startGame(deadDeck, false, 2, 2);
+
+    Assert.assertFalse(
+            "The game should not be over yet!",
+            model.isGameOver()
+    );
+    Assert.assertTrue(
+            "No card left can ever take the lead from the red 7!",
+            ((AbstractSoloRedGameModel) model).isProvablyLost()
+    );
+  }
+
+  @Test
+  public void testProvablyLostMissesWinnableGame() {
+    model.startGame(fullDeck, false, 4, 5);
+
+    Assert.assertFalse(
+            "A game that can be won should never be called lost!",
+            ((AbstractSoloRedGameModel) model).isProvablyLost()
+    );
+  }
+
+  @Test
+  public void testProvablyLostNeedsStartedGame() {
+    Assert.assertThrows(
+            "Nothing is lost before the game starts!",
+            IllegalStateException.class,
+        () -> ((AbstractSoloRedGameModel) model).isProvablyLost()
+    );
+  }
+
+  @Test
+  public void testPaletteSizeMatchesPalette() {
+    AbstractSoloRedGameModel sizeModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    model.playToPalette(0, 2);
+
+    for (int i = 0; i < 4; i++) {
+      Assert.assertEquals(
+              "The size of palette " + i + " should match its cards!",
+              model.getPalette(i).size(),
+              sizeModel.paletteSize(i)
+      );
+    }
+    Assert.assertThrows(
+            "There is no fifth palette!",
+            IllegalArgumentException.class,
+        () -> sizeModel.paletteSize(4)
+    );
+  }
+
+  @Test
+  public void testStackDeckChangesNextDraw() {
+    AbstractSoloRedGameModel stackModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    Card last = fullDeck.get(fullDeck.size() - 1);
+    long fingerprint = stackModel.fingerprint();
+    long deck = stackModel.cardsInDeck();
+
+    model.playToPalette(0, 2);
+    stackModel.stackDeck(((CardImpl) last).getCode(), 0);
+    Assert.assertEquals(
+            "Stacking the deck should not change which cards are in it!",
+            deck,
+            stackModel.cardsInDeck()
+    );
+    model.drawForHand();
+    List<? extends Card> hand = model.getHand();
+    Assert.assertEquals(
+            "The stacked card should be drawn next!",
+            last,
+            hand.get(hand.size() - 1)
+    );
+
+    stackModel.undo();
+    stackModel.undo();
+    stackModel.undo();
+    Assert.assertEquals(
+            "Undoing should put the deck back in order!",
+            fingerprint,
+            stackModel.fingerprint()
+    );
+    Assert.assertThrows(
+            "A card in the hand is not in the deck!",
+            IllegalArgumentException.class,
+        () -> stackModel.stackDeck(((CardImpl) fullDeck.get(4)).getCode(), 0)
+    );
+  }
+
+  @Test
+  public void testRedealStartsFreshGame() {
+    AbstractSoloRedGameModel dealModel = (AbstractSoloRedGameModel) model;
+    Assert.assertThrows(
+            "Cannot deal again before the game has started.",
+            IllegalStateException.class,
+        () -> dealModel.redeal()
+    );
+    model.startGame(fullDeck, false, 4, 5);
+    model.playToPalette(0, 2);
+    model.drawForHand();
+
+    dealModel.redeal();
+    Assert.assertEquals(
+            "A new deal should have the same number of palettes!",
+            4,
+            model.numPalettes()
+    );
+    Assert.assertEquals(
+            "A new deal should fill the hand!",
+            5,
+            model.getHand().size()
+    );
+    Assert.assertEquals(
+            "A new deal should use every card again!",
+            fullDeck.size() - 4 - 5,
+            model.numOfCardsInDeck()
+    );
+    Assert.assertFalse(
+            "A new deal should not be over!",
+            model.isGameOver()
+    );
+    Assert.assertThrows(
+            "The old game cannot be undone.",
+            IllegalStateException.class,
+        () -> dealModel.undo()
+    );
+  }
+
+  @Test
+  public void testNumOfCardsInHandMatchesHand() {
+    AbstractSoloRedGameModel handModel = (AbstractSoloRedGameModel) model;
+    Assert.assertThrows(
+            "There is no hand before the game starts.",
+            IllegalStateException.class,
+        () -> handModel.numOfCardsInHand()
+    );
+    model.startGame(fullDeck, false, 4, 5);
+    model.playToCanvas(0);
+    Assert.assertEquals(
+            "The count should match the hand!",
+            model.getHand().size(),
+            handModel.numOfCardsInHand()
+    );
+  }
+
+  @Test
+  public void testShuffleDeckIsUndoneAsOne() {
+    AbstractSoloRedGameModel shuffleModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    long fingerprint = shuffleModel.fingerprint();
+    long deck = shuffleModel.cardsInDeck();
+
+    shuffleModel.shuffleDeck(new Random(3));
+    Assert.assertEquals(
+            "Shuffling should not change which cards are in the deck!",
+            deck,
+            shuffleModel.cardsInDeck()
+    );
+    Assert.assertNotEquals(
+            "Shuffling should change the order of the deck!",
+            fingerprint,
+            shuffleModel.fingerprint()
+    );
+    shuffleModel.undo();
+    Assert.assertEquals(
+            "One undo should put the deck back in order!",
+            fingerprint,
+            shuffleModel.fingerprint()
+    );
+    Assert.assertThrows(
+            "Cannot shuffle with a null Random object.",
+            IllegalArgumentException.class,
+        () -> shuffleModel.shuffleDeck(null)
+    );
+  }
+
+  @Test
+  public void testCardCodeInHandMatchesHand() {
+    AbstractSoloRedGameModel codeModel = (AbstractSoloRedGameModel) model;
+    model.startGame(fullDeck, false, 4, 5);
+    List<? extends Card> hand = model.getHand();
+    for (int i = 0; i < hand.size(); i++) {
+      Assert.assertEquals(
+              "The code should be the code of the card in the hand!",
+              ((CardImpl) hand.get(i)).getCode(),
+              codeModel.cardCodeInHand(i)
+      );
+    }
+    Assert.assertThrows(
+            "There is no sixth card in the hand!",
+            IllegalArgumentException.class,
+        () -> codeModel.cardCodeInHand(5)
+    );
+  }
 }
@@ -36,4 +36,18 @@ public class ModelTests extends GeneralModelTests {
     );
   }
 
+  @Test
+  public void testNumCardsToDrawFillsHand() {
+    SoloRedGameModel basic = (SoloRedGameModel) model;
+    model.startGame(fullDeck.subList(1,11), false, 4, 4);
+
+    model.playToCanvas(3);
+    model.playToPalette(2, 0);
+    Assert.assertEquals(
+            "The draw should fill the hand back up!",
+            2,
+            basic.numCardsToDraw()
+    );
+  }
+
 }
@@ -0,0 +1,143 @@
+package cs3500.solored.controller;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.controller.bots.Policy;
+import cs3500.solored.controller.commands.PlayToPaletteCommand;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+import cs3500.solored.view.hw02.MockModel;
+
+/**
+ * Tests for BotController and the built-in bots it plays with.
+ */
+public class TestBotController {
+
+  /**
+   * Plays games of both variants with the given bot, and returns how many were won.
+   * @param policy The bot to play with.
+   * @param numGames The number of games of each variant to play.
+   * @return The number of games won.
+   */
+  private static int wins(Policy policy, int numGames) {
+    BotController controller = new BotController(policy);
+    int wins = 0;
+    for (int seed = 0; seed < 2 * numGames; seed++) {
+      AbstractSoloRedGameModel model = GameFixtures.newGame(seed);
+      controller.playGame(model, model.getAllCards(), true, 4, 7);
+      Assert.assertTrue(
+              "A bot should play until the game is over!",
+              model.isGameOver()
+      );
+      Assert.assertTrue(
+              "A game takes at least one command!",
+              controller.getNumCommands() > 0
+      );
+      if (model.isGameWon()) {
+        wins++;
+      }
+    }
+    return wins;
+  }
+
+  @Test
+  public void testEveryBotFinishesGames() {
+    wins(Policy.randomLegal(new Random(0)), 50);
+    wins(Policy.greedy(), 50);
+    wins(Policy.oneTurnLookahead(), 10);
+  }
+
+  @Test
+  public void testLookaheadWinsMoreThanGreedy() {
+    int lookahead = wins(Policy.oneTurnLookahead(), 50);
+    Assert.assertTrue(
+            "Looking ahead should win some games!",
+            lookahead > 0
+    );
+    Assert.assertTrue(
+            "Looking ahead should beat being greedy!",
+            lookahead > wins(Policy.greedy(), 50)
+    );
+  }
+
+  @Test
+  public void testLookaheadLeavesModelAlone() {
+    AbstractSoloRedGameModel model = new AdvancedSoloRedGameModel(new Random(5));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    long fingerprint = model.fingerprint();
+    Policy.oneTurnLookahead().nextCommand(model);
+    Assert.assertEquals(
+            "Looking ahead should leave the game as it was!",
+            fingerprint,
+            model.fingerprint()
+    );
+    Assert.assertFalse(
+            "Looking ahead should not leave moves to undo!",
+            model.canUndo()
+    );
+  }
+
+  @Test
+  public void testRejectedCommandFails() {
+    BotController controller = new BotController(model -> new PlayToPaletteCommand(9, 1));
+    SoloRedGameModel model = new SoloRedGameModel();
+    Assert.assertThrows(
+            "A bot that picks a command the model rejects should stop the game.",
+            IllegalStateException.class,
+        () -> controller.playGame(model, model.getAllCards(), false, 4, 7)
+    );
+  }
+
+  @Test
+  public void testBotExceptions() {
+    Assert.assertThrows(
+            "A controller needs a bot.",
+            IllegalArgumentException.class,
+        () -> new BotController(null)
+    );
+    Assert.assertThrows(
+            "A bot needs a Random object.",
+            IllegalArgumentException.class,
+        () -> Policy.randomLegal(null)
+    );
+    Assert.assertThrows(
+            "A controller needs a model.",
+            IllegalArgumentException.class,
+        () -> new BotController(Policy.greedy()).playGame(null, null, false, 4, 7)
+    );
+    boolean[] started = new boolean[1];
+    MockModel mock = new MockModel() {
+      @Override
+      public void startGame(List deck, boolean shuffle, int numPalettes, int handSize) {
+        started[0] = true;
+      }
+    };
+    Assert.assertThrows(
+            "A bot can only play a model that lists its plays.",
+            IllegalArgumentException.class,
+        () -> new BotController(Policy.greedy()).playGame(mock, new ArrayList<>(), false, 4, 7)
+    );
+    Assert.assertFalse(
+            "A model the bot cannot play should not be started!",
+            started[0]
+    );
+    SoloRedGameModel model = new SoloRedGameModel();
+    Assert.assertThrows(
+            "A game with one palette cannot start.",
+            IllegalArgumentException.class,
+        () -> new BotController(Policy.greedy()).playGame(model, model.getAllCards(), false, 1, 7)
+    );
+    Assert.assertThrows(
+            "A bot cannot pick a command before the game starts.",
+            IllegalStateException.class,
+        () -> Policy.greedy().nextCommand(new SoloRedGameModel())
+    );
+  }
+}
@@ -5,6 +5,15 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.StringReader;
+import java.util.Random;
+
+import cs3500.solored.controller.analysis.PositionAnalysis;
+import cs3500.solored.controller.analysis.SpeculativeAnalyzer;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.simulation.PlayoutPolicy;
+import cs3500.solored.solver.WinProbabilityEstimator;
 
 /**
  * Tests for SoloRedTextController, specifically those that rely on implementation details.
@@ -45,4 +54,103 @@ public class TestSoloRedTextController {
             true
     );
   }
+
+  @Test
+  public void testAnalysisDoesNotChangeOutput() {
+    String input = "palette 1 2 canvas 9 palette 4 1 q";
+    StringBuilder plain = new StringBuilder();
+    SoloRedGameModel plainModel = new SoloRedGameModel(new Random(4));
+    new SoloRedTextController(new StringReader(input), plain)
+            .playGame(plainModel, plainModel.getAllCards(), true, 4, 7);
+
+    StringBuilder analyzed = new StringBuilder();
+    SoloRedGameModel analyzedModel = new SoloRedGameModel(new Random(4));
+    SpeculativeAnalyzer analyzer = new SpeculativeAnalyzer();
+    new SoloRedTextController(new StringReader(input), analyzed, analyzer)
+            .playGame(analyzedModel, analyzedModel.getAllCards(), true, 4, 7);
+    analyzer.shutdown();
+
+    Assert.assertEquals(
+            "Analyzing in the background should not change what the player sees without hints!",
+            plain.toString(),
+            analyzed.toString()
+    );
+  }
+
+  @Test
+  public void testHintShowsRecommendedPlay() {
+    StringBuilder out = new StringBuilder();
+    SoloRedGameModel model = new SoloRedGameModel(new Random(4));
+    SpeculativeAnalyzer analyzer = new SpeculativeAnalyzer(
+            new WinProbabilityEstimator(1, 200, PlayoutPolicy.randomSurviving(), 0), 20, 5000, 8);
+    new SoloRedTextController(new StringReader("hint hint q"), out, analyzer, 10_000)
+            .playGame(model, model.getAllCards(), true, 4, 7);
+
+    AbstractSoloRedGameModel replay = new SoloRedGameModel(new Random(4));
+    replay.startGame(replay.getAllCards(), true, 4, 7);
+    PositionAnalysis analysis = analyzer.analysis(replay, 0);
+    analyzer.shutdown();
+    Assert.assertNotNull(
+            "The hinted position should be cached!",
+            analysis
+    );
+    String hint = "Hint: " + RedMove.toString(analysis.getBestMove()) + "\n"
+            + "The game may still be won, with about "
+            + Math.round(analysis.getWinChance() * 100) + "% chance.\n";
+    Assert.assertTrue(
+            "The hint should show the recommended play!",
+            out.indexOf(hint) >= 0
+    );
+    Assert.assertTrue(
+            "Asking again should give the same hint, from the same analysis!",
+            out.lastIndexOf(hint) > out.indexOf(hint)
+    );
+    Assert.assertEquals(
+            "A hint should not play a move!",
+            replay.numOfCardsInDeck(),
+            model.numOfCardsInDeck()
+    );
+  }
+
+  @Test
+  public void testHintRespectsTimeLimit() {
+    StringBuilder out = new StringBuilder();
+    SoloRedGameModel model = new SoloRedGameModel(new Random(4));
+    SpeculativeAnalyzer analyzer = new SpeculativeAnalyzer(
+            new WinProbabilityEstimator(1, 1_000_000, PlayoutPolicy.randomSurviving(), 0),
+            1_000_000, 60_000, 8);
+    new SoloRedTextController(new StringReader("hint q"), out, analyzer, 0)
+            .playGame(model, model.getAllCards(), true, 4, 7);
+    analyzer.shutdown();
+    Assert.assertTrue(
+            "A hint that is not ready in time should say so instead of waiting!",
+            out.toString().contains("Still thinking about this position.")
+    );
+  }
+
+  @Test
+  public void testHintOnlyWithAnalyzer() {
+    StringBuilder out = new StringBuilder();
+    SoloRedGameModel model = new SoloRedGameModel(new Random(4));
+    new SoloRedTextController(new StringReader("hint q"), out)
+            .playGame(model, model.getAllCards(), true, 4, 7);
+    Assert.assertTrue(
+            "Without an analyzer, hint should not be a command!",
+            out.toString().contains("Invalid command. Try again.")
+    );
+  }
+
+  @Test
+  public void testConstructorExceptionsAnalyzerNull() {
+    Assert.assertThrows(
+            "The constructor should throw an exception when passed a null analyzer!!!",
+            IllegalArgumentException.class,
+        () -> new SoloRedTextController(readable, appendable, null)
+    );
+    Assert.assertThrows(
+            "The constructor should throw an exception when passed a negative hint time!!!",
+            IllegalArgumentException.class,
+        () -> new SoloRedTextController(readable, appendable, new SpeculativeAnalyzer(), -1)
+    );
+  }
 }
@@ -0,0 +1,197 @@
+package cs3500.solored.controller.analysis;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.simulation.PlayoutPolicy;
+import cs3500.solored.solver.WinProbabilityEstimator;
+
+/**
+ * Tests for the background analysis of positions.
+ */
+public class TestSpeculativeAnalyzer {
+
+  /**
+   * Creates an analyzer that samples a little, quickly.
+   * @return The analyzer.
+   */
+  private static SpeculativeAnalyzer quickAnalyzer() {
+    return new SpeculativeAnalyzer(
+            new WinProbabilityEstimator(2, 200, PlayoutPolicy.randomSurviving(), 0), 20, 5000, 2);
+  }
+
+  @Test
+  public void testAnalysisRecommendsSafePlay() {
+    SpeculativeAnalyzer analyzer = quickAnalyzer();
+    for (int seed = 0; seed < 4; seed++) {
+      AbstractSoloRedGameModel model = GameFixtures.newGame(seed);
+      model.startGame(model.getAllCards(), true, 4, 7);
+      long fingerprint = model.fingerprint();
+      PositionAnalysis analysis = analyzer.analysis(model, 10_000);
+
+      Assert.assertNotNull(
+              "The analysis should finish in time!",
+              analysis
+      );
+      int move = analysis.getBestMove();
+      Assert.assertTrue(
+              "A new game should have a safe play to recommend!",
+              analysis.isSafe(move)
+      );
+      Assert.assertTrue(
+              "A chance should be between 0 and 1!",
+              analysis.getWinChance() >= 0 && analysis.getWinChance() <= 1
+      );
+      Assert.assertEquals(
+              "Analyzing should not change game " + seed + "!",
+              fingerprint,
+              model.fingerprint()
+      );
+    }
+    analyzer.shutdown();
+  }
+
+  @Test
+  public void testSamePositionIsReused() {
+    SpeculativeAnalyzer analyzer = quickAnalyzer();
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(2));
+    model.startGame(model.getAllCards(), true, 4, 7);
+
+    analyzer.speculate(model);
+    analyzer.speculate(model);
+    PositionAnalysis first = analyzer.analysis(model, 10_000);
+    Assert.assertSame(
+            "Asking about the same position should reuse its analysis!",
+            first,
+            analyzer.analysis(model, 10_000)
+    );
+
+    int move = first.getBestMove();
+    if (RedMove.isCanvas(move)) {
+      model.playToCanvas(RedMove.cardIdxInHand(move));
+    } else {
+      model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+      model.drawForHand();
+    }
+    Assert.assertFalse(
+            "A new position should be analyzed again!",
+            first == analyzer.analysis(model, 10_000)
+    );
+    analyzer.shutdown();
+  }
+
+  @Test
+  public void testUndonePositionIsCached() {
+    SpeculativeAnalyzer analyzer = quickAnalyzer();
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(5));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    PositionAnalysis first = analyzer.analysis(model, 10_000);
+
+    model.playToCanvas(RedMove.cardIdxInHand(first.getBestMove()));
+    PositionAnalysis second = analyzer.analysis(model, 10_000);
+    model.undo();
+    Assert.assertSame(
+            "A position that comes back after an undo should be answered from the cache!",
+            first,
+            analyzer.analysis(model, 10_000)
+    );
+    analyzer.cancel();
+    Assert.assertSame(
+            "Cancelling should not forget finished analyses!",
+            first,
+            analyzer.analysis(model, 0)
+    );
+
+    model.playToPalette(0, 0);
+    if (!model.isGameOver()) {
+      model.drawForHand();
+      analyzer.analysis(model, 10_000);
+      Assert.assertEquals(
+              "The cache should not grow past its size!",
+              2,
+              analyzer.getNumCached()
+      );
+      model.undo();
+      model.undo();
+      model.playToCanvas(RedMove.cardIdxInHand(first.getBestMove()));
+      Assert.assertFalse(
+              "The least recently used position should be forgotten first!",
+              second == analyzer.analysis(model, 10_000)
+      );
+    }
+    analyzer.shutdown();
+  }
+
+  @Test
+  public void testTimeoutAndCancel() {
+    SpeculativeAnalyzer analyzer = new SpeculativeAnalyzer(
+            new WinProbabilityEstimator(1, 1_000_000, PlayoutPolicy.randomSurviving(), 0),
+            1_000_000, 60_000, 8);
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(3));
+    model.startGame(model.getAllCards(), true, 4, 7);
+
+    Assert.assertNull(
+            "An analysis that is not done in time should not be waited for!",
+            analyzer.analysis(model, 0)
+    );
+    analyzer.cancel();
+    Assert.assertNull(
+            "A cancelled analysis should start again, and not be done at once!",
+            analyzer.analysis(model, 0)
+    );
+    analyzer.shutdown();
+    Assert.assertThrows(
+            "An analyzer that was shut down cannot analyze.",
+            IllegalStateException.class,
+        () -> analyzer.speculate(model)
+    );
+  }
+
+  @Test
+  public void testAnalyzerExceptions() {
+    Assert.assertThrows(
+            "An analyzer needs an estimator.",
+            IllegalArgumentException.class,
+        () -> new SpeculativeAnalyzer(null, 10, 10, 10)
+    );
+    Assert.assertThrows(
+            "An analysis needs a sample.",
+            IllegalArgumentException.class,
+        () -> new SpeculativeAnalyzer(new WinProbabilityEstimator(), 0, 10, 10)
+    );
+    Assert.assertThrows(
+            "An analysis needs time.",
+            IllegalArgumentException.class,
+        () -> new SpeculativeAnalyzer(new WinProbabilityEstimator(), 10, 0, 10)
+    );
+    Assert.assertThrows(
+            "The cache needs room.",
+            IllegalArgumentException.class,
+        () -> new SpeculativeAnalyzer(new WinProbabilityEstimator(), 10, 10, 0)
+    );
+
+    SpeculativeAnalyzer analyzer = quickAnalyzer();
+    Assert.assertThrows(
+            "An analysis needs a model.",
+            IllegalArgumentException.class,
+        () -> analyzer.speculate(null)
+    );
+    Assert.assertThrows(
+            "Cannot wait a negative time.",
+            IllegalArgumentException.class,
+        () -> analyzer.analysis(new SoloRedGameModel(), -1)
+    );
+    Assert.assertThrows(
+            "Should not be able to analyze a game that hasn't started.",
+            IllegalStateException.class,
+        () -> analyzer.speculate(new SoloRedGameModel())
+    );
+    analyzer.shutdown();
+  }
+}
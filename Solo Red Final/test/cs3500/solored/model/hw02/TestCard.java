@@ -141,5 +141,53 @@ public class TestCard {
     );
   }
 
+  @Test
+  public void testCanonicalCardsAreShared() {
+    Assert.assertSame(
+            "Repeated calls to of() should return the same card!",
+            CardImpl.of(CardColor.BLUE, CardNumber.FIVE),
+            CardImpl.of(CardColor.BLUE, CardNumber.FIVE)
+    );
+    Assert.assertSame(
+            "A card's code should lead back to the same canonical card!",
+            CardImpl.of(CardColor.BLUE, CardNumber.FIVE),
+            CardImpl.fromCode(CardImpl.of(CardColor.BLUE, CardNumber.FIVE).getCode())
+    );
+  }
 
+  @Test
+  public void testCardEquality() {
+    Assert.assertEquals(
+            "A new card should equal the canonical card with the same color and number!",
+            CardImpl.of(CardColor.BLUE, CardNumber.FIVE),
+            blue5
+    );
+    Assert.assertEquals(
+            "Equal cards should have equal hash codes!",
+            CardImpl.of(CardColor.BLUE, CardNumber.FIVE).hashCode(),
+            blue5.hashCode()
+    );
+    Assert.assertNotEquals(
+            "Cards with the same number but different colors should not be equal!",
+            blue5,
+            indigo5
+    );
+  }
+
+  @Test
+  public void testCodesFollowRedRule() {
+    Assert.assertTrue(
+            "A higher number should have a higher code!",
+            ((CardImpl) orange4).getCode() < ((CardImpl) indigo5).getCode()
+    );
+    Assert.assertTrue(
+            "With the same number, a color closer to red should have a higher code!",
+            ((CardImpl) indigo5).getCode() < ((CardImpl) blue5).getCode()
+    );
+    Assert.assertThrows(
+            "There should be no card with a code outside of 0-34!",
+            IllegalArgumentException.class,
+        () -> CardImpl.fromCode(35)
+    );
+  }
 }
@@ -0,0 +1,144 @@
+package cs3500.solored.model.hw02;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the bitboard Palette, specifically how it scores under each color rule.
+ */
+public class TestPalette {
+  long palette;
+
+  @Before
+  public void initPalette() {
+    palette = bitboardOf(
+            new CardImpl(CardColor.VIOLET, CardNumber.TWO),
+            new CardImpl(CardColor.RED, CardNumber.THREE),
+            new CardImpl(CardColor.BLUE, CardNumber.THREE),
+            new CardImpl(CardColor.ORANGE, CardNumber.FIVE),
+            new CardImpl(CardColor.INDIGO, CardNumber.SIX),
+            new CardImpl(CardColor.VIOLET, CardNumber.SEVEN)
+    );
+  }
+
+  /**
+   * Builds the bitboard of a palette holding the given cards.
+   * @param cards The cards on the palette.
+   * @return The bitboard of the palette.
+   */
+  private static long bitboardOf(CardImpl... cards) {
+    long bitboard = 0;
+    for (CardImpl card : cards) {
+      bitboard |= 1L << card.getCode();
+    }
+    return bitboard;
+  }
+
+  @Test
+  public void testScoreByRed() {
+    int score = Palette.score(palette, CardColor.RED);
+    Assert.assertEquals(
+            "The red rule should only select the highest card!",
+            1,
+            Palette.countOf(score)
+    );
+    Assert.assertEquals(
+            "The red rule should select the highest card!",
+            "V7",
+            Palette.bestCardOf(score).toString()
+    );
+  }
+
+  @Test
+  public void testScoreByOrange() {
+    int score = Palette.score(palette, CardColor.ORANGE);
+    Assert.assertEquals(
+            "The orange rule should select the most common number!",
+            2,
+            Palette.countOf(score)
+    );
+    Assert.assertEquals(
+            "The orange rule's best card should be the best card of the most common number!",
+            "R3",
+            Palette.bestCardOf(score).toString()
+    );
+  }
+
+  @Test
+  public void testScoreByBlue() {
+    int score = Palette.score(palette, CardColor.BLUE);
+    Assert.assertEquals(
+            "The blue rule should select one card of each color!",
+            5,
+            Palette.countOf(score)
+    );
+    Assert.assertEquals(
+            "The blue rule's best card should be the best card in the palette!",
+            "V7",
+            Palette.bestCardOf(score).toString()
+    );
+  }
+
+  @Test
+  public void testScoreByIndigo() {
+    // Both 2-3 and 5-6-7 are runs, but 5-6-7 is longer.
+    int score = Palette.score(palette, CardColor.INDIGO);
+    Assert.assertEquals(
+            "The indigo rule should select the longest run!",
+            3,
+            Palette.countOf(score)
+    );
+    Assert.assertEquals(
+            "The indigo rule's best card should be the top of the longest run!",
+            "V7",
+            Palette.bestCardOf(score).toString()
+    );
+
+    long tiedRuns = bitboardOf(
+            new CardImpl(CardColor.RED, CardNumber.ONE),
+            new CardImpl(CardColor.VIOLET, CardNumber.FOUR)
+    );
+    Assert.assertEquals(
+            "The indigo rule should select the later run when runs are tied!",
+            "V4",
+            Palette.bestCardOf(Palette.score(tiedRuns, CardColor.INDIGO)).toString()
+    );
+  }
+
+  @Test
+  public void testScoreByViolet() {
+    int score = Palette.score(palette, CardColor.VIOLET);
+    Assert.assertEquals(
+            "The violet rule should select every card under 4!",
+            3,
+            Palette.countOf(score)
+    );
+    Assert.assertEquals(
+            "The violet rule's best card should be the best card under 4!",
+            "R3",
+            Palette.bestCardOf(score).toString()
+    );
+
+    long noLowCards = bitboardOf(new CardImpl(CardColor.RED, CardNumber.SEVEN));
+    Assert.assertEquals(
+            "The violet rule should score 0 when there are no cards under 4!",
+            0,
+            Palette.score(noLowCards, CardColor.VIOLET)
+    );
+  }
+
+  @Test
+  public void testHigherScoreWinsTies() {
+    long other = bitboardOf(new CardImpl(CardColor.RED, CardNumber.SEVEN));
+
+    Assert.assertTrue(
+            "A larger selection should score higher!",
+            Palette.score(palette, CardColor.VIOLET) > Palette.score(other, CardColor.VIOLET)
+    );
+    Assert.assertTrue(
+            "When tied, the selection with the best card should score higher!",
+            Palette.score(other, CardColor.RED) > Palette.score(palette, CardColor.RED)
+    );
+  }
+}
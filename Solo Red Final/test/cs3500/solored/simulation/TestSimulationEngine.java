@@ -0,0 +1,142 @@
+package cs3500.solored.simulation;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw04.RedGameCreator;
+
+/**
+ * Tests for the simulation engine and its playout policies.
+ */
+public class TestSimulationEngine {
+
+  @Test
+  public void testReportCountsEveryGame() {
+    for (RedGameCreator.GameType type : RedGameCreator.GameType.values()) {
+      SimulationReport report = new SimulationEngine(type, 4, 7, PlayoutPolicy::randomSurviving)
+              .run(1001, 3, 0);
+      Assert.assertEquals(
+              "Every game should be played!",
+              1001,
+              report.getNumGames()
+      );
+      Assert.assertTrue(
+              "No more games can be won than were played!",
+              report.getNumWins() >= 0 && report.getNumWins() <= report.getNumGames()
+      );
+      Assert.assertTrue(
+              "Every game should take at least one turn!",
+              report.getAverageLength() >= 1 && report.getLongestGame() >= 1
+      );
+      Assert.assertTrue(
+              "A game that is lost has cards left!",
+              report.getAverageCardsLeft() > 0
+      );
+    }
+  }
+
+  @Test
+  public void testSameSeedSameReport() {
+    SimulationEngine engine = new SimulationEngine(RedGameCreator.GameType.ADVANCED, 4, 7,
+            PlayoutPolicy::uniformRandom);
+    SimulationReport first = engine.run(500, 4, 42);
+    SimulationReport second = engine.run(500, 4, 42);
+    Assert.assertEquals(
+            "The same seed should win the same games!",
+            first.getNumWins(),
+            second.getNumWins()
+    );
+    Assert.assertEquals(
+            "The same seed should play the same games!",
+            first.getAverageLength(),
+            second.getAverageLength(),
+            0
+    );
+    Assert.assertEquals(
+            "The same seed should leave the same cards!",
+            first.getAverageCardsLeft(),
+            second.getAverageCardsLeft(),
+            0
+    );
+  }
+
+  @Test
+  public void testSurvivingBeatsUniform() {
+    SimulationReport uniform = new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7,
+            PlayoutPolicy::uniformRandom).run(2000, 2, 7);
+    SimulationReport surviving = new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7,
+            PlayoutPolicy::randomSurviving).run(2000, 2, 7);
+    Assert.assertTrue(
+            "Not losing at once should make games last longer!",
+            surviving.getAverageLength() > uniform.getAverageLength()
+    );
+  }
+
+  @Test
+  public void testNoGames() {
+    SimulationReport report = new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7,
+            PlayoutPolicy::uniformRandom).run(0, 2, 0);
+    Assert.assertEquals(
+            "No games should be played!",
+            0,
+            report.getNumGames()
+    );
+    Assert.assertEquals(
+            "No games means no win rate!",
+            0,
+            report.getWinRate(),
+            0
+    );
+  }
+
+  @Test
+  public void testIllegalPlayFails() {
+    SimulationEngine engine = new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7,
+        () -> (model, moves, numMoves, rand) -> RedMove.toPalette(9, 0));
+    Assert.assertThrows(
+            "A policy that picks an illegal play should fail the simulation.",
+            IllegalStateException.class,
+        () -> engine.run(10, 2, 0)
+    );
+  }
+
+  @Test
+  public void testEngineChecksArguments() {
+    Assert.assertThrows(
+            "A simulation needs a type of game.",
+            IllegalArgumentException.class,
+        () -> new SimulationEngine(null, 4, 7, PlayoutPolicy::uniformRandom)
+    );
+    Assert.assertThrows(
+            "A simulation needs policies.",
+            IllegalArgumentException.class,
+        () -> new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7, null)
+    );
+    Assert.assertThrows(
+            "A game needs at least 2 palettes.",
+            IllegalArgumentException.class,
+        () -> new SimulationEngine(RedGameCreator.GameType.BASIC, 1, 7,
+                    PlayoutPolicy::uniformRandom)
+    );
+    Assert.assertThrows(
+            "There are not enough cards for this game.",
+            IllegalArgumentException.class,
+        () -> new SimulationEngine(RedGameCreator.GameType.BASIC, 20, 20,
+                    PlayoutPolicy::uniformRandom)
+    );
+
+    SimulationEngine engine = new SimulationEngine(RedGameCreator.GameType.BASIC, 4, 7,
+            PlayoutPolicy::uniformRandom);
+    Assert.assertThrows(
+            "Cannot play a negative number of games.",
+            IllegalArgumentException.class,
+        () -> engine.run(-1, 1, 0)
+    );
+    Assert.assertThrows(
+            "A simulation needs a thread.",
+            IllegalArgumentException.class,
+        () -> engine.run(10, 0, 0)
+    );
+  }
+}
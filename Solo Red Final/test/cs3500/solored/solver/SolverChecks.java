@@ -0,0 +1,74 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.CardColor;
+import cs3500.solored.model.hw02.CardImpl;
+import cs3500.solored.model.hw02.CardNumber;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+
+/**
+ * Checks that every solver of a started game must pass, shared by the tests of each solver.
+ */
+final class SolverChecks {
+
+  /**
+   * Checks that the given solver agrees with {@link RedGameSolver} on small games of both
+   * variants, and that every winning line it finds wins when played out on the model.
+   * @param solver Solves a started game.
+   * @param numGames The number of games to check, which alternate between the variants.
+   */
+  static void checkAgreesWithRedGameSolver(
+          Function<AbstractSoloRedGameModel, Solution> solver, int numGames) {
+    for (int seed = 0; seed < numGames; seed++) {
+      AbstractSoloRedGameModel model = GameFixtures.newGame(seed);
+      model.startGame(model.getAllCards(), true, 3, 3);
+
+      Solution solution = solver.apply(model);
+      Assert.assertEquals(
+              "Both solvers should agree on game " + seed + "!",
+              new RedGameSolver().solve(model).isWinnable(),
+              solution.isWinnable()
+      );
+      if (solution.isWinnable()) {
+        GameFixtures.playLine(model, solution.getLine());
+        Assert.assertTrue(
+                "Playing the solution should win game " + seed + "!",
+                model.isGameOver() && model.isGameWon()
+        );
+      }
+    }
+  }
+
+  /**
+   * Checks that the given solver finds that a game which cannot be won is lost, and gives no
+   * winning line for it.
+   * @param solver Solves a started game.
+   */
+  static void checkFindsUnwinnableGame(Function<AbstractSoloRedGameModel, Solution> solver) {
+    // P1 starts with R3, and the only card left, R2, cannot beat it.
+    List<CardImpl> deck = new ArrayList<>();
+    deck.add(new CardImpl(CardColor.RED, CardNumber.THREE));
+    deck.add(new CardImpl(CardColor.RED, CardNumber.ONE));
+    deck.add(new CardImpl(CardColor.RED, CardNumber.TWO));
+    AbstractSoloRedGameModel model = new SoloRedGameModel();
+    model.startGame(deck, false, 2, 1);
+
+    Solution solution = solver.apply(model);
+    Assert.assertFalse(
+            "This game should not be winnable!",
+            solution.isWinnable()
+    );
+    Assert.assertEquals(
+            "An unwinnable game has no winning line!",
+            0,
+            solution.getLine().length
+    );
+  }
+}
@@ -0,0 +1,125 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+
+/**
+ * Tests for the expectimax lookahead, with the deck known and hidden, in both variants.
+ */
+public class TestExpectimaxLookahead {
+
+  /**
+   * Starts a small game of the given seed, alternating between the variants.
+   * @param seed The seed of the game.
+   * @return The started game.
+   */
+  private static AbstractSoloRedGameModel smallGame(int seed) {
+    return GameFixtures.dealtGame(seed, 12, 3, 3);
+  }
+
+  @Test
+  public void testKnownDeckAgreesWithSolver() {
+    ExpectimaxLookahead lookahead = new ExpectimaxLookahead(20, true, 1, new Random(0));
+    for (int seed = 0; seed < 40; seed++) {
+      AbstractSoloRedGameModel model = smallGame(seed);
+      Assert.assertEquals(
+              "Looking ahead to the end should solve game " + seed + "!",
+              new RedGameSolver().solve(model).isWinnable() ? 1.0 : 0.0,
+              lookahead.survivalChance(model),
+              0
+      );
+    }
+  }
+
+  @Test
+  public void testHiddenDeckIsAChance() {
+    ExpectimaxLookahead lookahead = new ExpectimaxLookahead(20, false, 1000, new Random(0));
+    ExpectimaxLookahead known = new ExpectimaxLookahead(20, true, 1, new Random(0));
+    boolean sawChance = false;
+    for (int seed = 0; seed < 40; seed++) {
+      AbstractSoloRedGameModel model = smallGame(seed);
+      long fingerprint = model.fingerprint();
+      double chance = lookahead.survivalChance(model);
+
+      Assert.assertTrue(
+              "A chance should be between 0 and 1 in game " + seed + "!",
+              chance >= 0 && chance <= 1
+      );
+      Assert.assertEquals(
+              "Looking ahead should not change game " + seed + "!",
+              fingerprint,
+              model.fingerprint()
+      );
+      if (known.survivalChance(model) == 0) {
+        Assert.assertEquals(
+                "Not knowing the deck cannot save a game that is lost whatever is drawn!",
+                0,
+                chance,
+                0
+        );
+      }
+      sawChance |= chance > 0 && chance < 1;
+    }
+    Assert.assertTrue(
+            "Some draws should be better than others!",
+            sawChance
+    );
+  }
+
+  @Test
+  public void testBestTurnCanBePlayed() {
+    ExpectimaxLookahead lookahead = new ExpectimaxLookahead(2, false, 20, new Random(0));
+    AbstractSoloRedGameModel model = new AdvancedSoloRedGameModel(new Random(3));
+    model.startGame(model.getAllCards(), true, 4, 7);
+
+    int[] turn = lookahead.bestTurn(model);
+    Assert.assertTrue(
+            "A new game should have a turn to take!",
+            turn.length > 0
+    );
+    for (int move : turn) {
+      if (RedMove.isCanvas(move)) {
+        model.playToCanvas(RedMove.cardIdxInHand(move));
+      } else {
+        model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+      }
+    }
+    Assert.assertFalse(
+            "The best turn should not lose at once!",
+            model.isGameOver()
+    );
+  }
+
+  @Test
+  public void testLookaheadChecksArguments() {
+    Assert.assertThrows(
+            "A lookahead needs a turn to look at.",
+            IllegalArgumentException.class,
+        () -> new ExpectimaxLookahead(0, false, 1, new Random(0))
+    );
+    Assert.assertThrows(
+            "A chance node needs a sample.",
+            IllegalArgumentException.class,
+        () -> new ExpectimaxLookahead(1, false, 0, new Random(0))
+    );
+    Assert.assertThrows(
+            "A lookahead needs a Random object.",
+            IllegalArgumentException.class,
+        () -> new ExpectimaxLookahead(1, false, 1, null)
+    );
+    Assert.assertThrows(
+            "Should not be able to look ahead in a game that hasn't started.",
+            IllegalStateException.class,
+        () -> new ExpectimaxLookahead(1, false, 1, new Random(0))
+                    .survivalChance(new SoloRedGameModel())
+    );
+  }
+}
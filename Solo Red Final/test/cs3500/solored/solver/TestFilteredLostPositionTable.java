@@ -0,0 +1,65 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+
+/**
+ * Tests for the table of lost positions with a Bloom filter in front of it.
+ */
+public class TestFilteredLostPositionTable {
+
+  @Test
+  public void testOnlyTableProvesLoss() {
+    // A single bucket, so the fifth position replaces one of the others.
+    FilteredLostPositionTable table = new FilteredLostPositionTable(
+            new TranspositionTable(4), new LostPositionFilter(1 << 10, 3));
+    for (long fingerprint = 1; fingerprint <= 5; fingerprint++) {
+      table.storeLost(fingerprint, (int) fingerprint);
+    }
+
+    Assert.assertFalse(
+            "The shallowest position should have been replaced in the table!",
+            table.isLost(1L)
+    );
+    Assert.assertTrue(
+            "The filter should still remember the replaced position!",
+            table.wasProbablyLost(1L)
+    );
+    Assert.assertTrue(
+            "Positions the table holds should be lost!",
+            table.isLost(5L)
+    );
+  }
+
+  @Test
+  public void testSolverCanUseFilteredTable() {
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(0));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    LostPositionTable table = new FilteredLostPositionTable(
+            new TranspositionTable(1 << 12), new LostPositionFilter(1 << 20, 4));
+
+    Assert.assertTrue(
+            "This game should be winnable with a filtered table too!",
+            new ParallelRedGameSolver(2, table).solve(model).isWinnable()
+    );
+  }
+
+  @Test
+  public void testNeedsTableAndFilter() {
+    Assert.assertThrows(
+            "A filtered table needs a table.",
+            IllegalArgumentException.class,
+        () -> new FilteredLostPositionTable(null, new LostPositionFilter(64, 1))
+    );
+    Assert.assertThrows(
+            "A filtered table needs a filter.",
+            IllegalArgumentException.class,
+        () -> new FilteredLostPositionTable(new TranspositionTable(4), null)
+    );
+  }
+}
@@ -0,0 +1,51 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import cs3500.solored.model.hw02.SoloRedGameModel;
+
+/**
+ * Tests for the fork/join solver, checking its answers against the single-threaded solver and by
+ * playing them out on the model.
+ */
+public class TestForkJoinRedGameSolver {
+
+  @Test
+  public void testAgreesWithSingleThreadedSolver() {
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ForkJoinRedGameSolver solver =
+              new ForkJoinRedGameSolver(pool, new TranspositionTable(1 << 16));
+      SolverChecks.checkAgreesWithRedGameSolver(solver::solve, 10);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testFindsUnwinnableGame() {
+    SolverChecks.checkFindsUnwinnableGame(new ForkJoinRedGameSolver()::solve);
+  }
+
+  @Test
+  public void testConstructorChecksArguments() {
+    Assert.assertThrows(
+            "A solver needs a pool.",
+            IllegalArgumentException.class,
+        () -> new ForkJoinRedGameSolver(null, new TranspositionTable(64))
+    );
+    Assert.assertThrows(
+            "A solver needs a table.",
+            IllegalArgumentException.class,
+        () -> new ForkJoinRedGameSolver(ForkJoinPool.commonPool(), null)
+    );
+    Assert.assertThrows(
+            "Should not be able to solve a game that hasn't started.",
+            IllegalStateException.class,
+        () -> new ForkJoinRedGameSolver().solve(new SoloRedGameModel())
+    );
+  }
+}
@@ -0,0 +1,70 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Tests for the Bloom filter of lost positions.
+ */
+public class TestLostPositionFilter {
+
+  @Test
+  public void testNeverMissesAddedPositions() {
+    LostPositionFilter filter = new LostPositionFilter(1 << 16, 4);
+    Random rand = new Random(0);
+    long[] added = new long[4096];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = rand.nextLong();
+      filter.add(added[i]);
+    }
+
+    for (long fingerprint : added) {
+      Assert.assertTrue(
+              "Every added position should be found!",
+              filter.mightContain(fingerprint)
+      );
+    }
+  }
+
+  @Test
+  public void testRarelyClaimsOtherPositions() {
+    // 8 bits for every position, which should claim about 1 in 40 other positions.
+    LostPositionFilter filter = new LostPositionFilter(1 << 15, 4);
+    Random rand = new Random(1);
+    for (int i = 0; i < 4096; i++) {
+      filter.add(rand.nextLong());
+    }
+
+    int claimed = 0;
+    for (int i = 0; i < 10000; i++) {
+      if (filter.mightContain(rand.nextLong())) {
+        claimed++;
+      }
+    }
+    Assert.assertTrue(
+            "Too many positions were claimed: " + claimed,
+            claimed < 500
+    );
+  }
+
+  @Test
+  public void testSizeIsChecked() {
+    Assert.assertEquals(
+            "The size should be rounded down to a power of two!",
+            1024,
+            new LostPositionFilter(1500, 3).numBits()
+    );
+    Assert.assertThrows(
+            "A filter needs at least one word of bits!",
+            IllegalArgumentException.class,
+        () -> new LostPositionFilter(63, 3)
+    );
+    Assert.assertThrows(
+            "A filter needs to set at least one bit!",
+            IllegalArgumentException.class,
+        () -> new LostPositionFilter(1024, 0)
+    );
+  }
+}
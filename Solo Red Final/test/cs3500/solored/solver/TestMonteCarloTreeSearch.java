@@ -0,0 +1,175 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * Tests for the Monte Carlo tree search advisor, in both variants.
+ */
+public class TestMonteCarloTreeSearch {
+
+  /**
+   * Starts a full game of the given seed, alternating between the variants.
+   * @param seed The seed of the game.
+   * @return The started game.
+   */
+  private static AbstractSoloRedGameModel fullGame(int seed) {
+    AbstractSoloRedGameModel model = GameFixtures.newGame(seed);
+    model.startGame(model.getAllCards(), true, 4, 7);
+    return model;
+  }
+
+  @Test
+  public void testAdviceCountsEveryPlayout() {
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(2, PlayoutPolicy.randomSurviving(),
+            0.5, 0);
+    for (int seed = 0; seed < 4; seed++) {
+      AbstractSoloRedGameModel model = fullGame(seed);
+      long fingerprint = model.fingerprint();
+      Advice advice = search.advise(model, 20);
+
+      Assert.assertEquals(
+              "Every legal play should be advised on!",
+              model.numLegalMoves(),
+              advice.getNumMoves()
+      );
+      long visits = 0;
+      for (int i = 0; i < advice.getNumMoves(); i++) {
+        visits += advice.getVisits(i);
+        Assert.assertTrue(
+                "A mean reward should be between 0 and 1!",
+                advice.getMeanReward(i) >= 0 && advice.getMeanReward(i) <= 1
+        );
+      }
+      Assert.assertEquals(
+              "Every playout should start with one of the plays!",
+              advice.getNumPlayouts(),
+              visits
+      );
+      Assert.assertEquals(
+              "Searching should not change game " + seed + "!",
+              fingerprint,
+              model.fingerprint()
+      );
+      Assert.assertFalse(
+              "Searching should not leave moves to undo!",
+              model.canUndo()
+      );
+    }
+  }
+
+  @Test
+  public void testBestMoveDoesNotLoseAtOnce() {
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(1, PlayoutPolicy.randomSurviving(),
+            0.5, 0);
+    for (int seed = 0; seed < 6; seed++) {
+      AbstractSoloRedGameModel model = fullGame(seed);
+      int move = search.advise(model, 20).getBestMove();
+      if (RedMove.isCanvas(move)) {
+        model.playToCanvas(RedMove.cardIdxInHand(move));
+      } else {
+        model.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+      }
+      Assert.assertFalse(
+              "The advised play should not lose game " + seed + " at once!",
+              model.isGameOver()
+      );
+    }
+  }
+
+  @Test
+  public void testAdviceKeepsToBudget() {
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch();
+    AbstractSoloRedGameModel model = fullGame(1);
+    search.advise(model, 10);
+    Advice advice = search.advise(model, 50);
+    Assert.assertTrue(
+            "The search should stop soon after its budget!",
+            advice.getElapsedNanos() < 1_000_000_000L
+    );
+    Assert.assertTrue(
+            "The search should play out many games in its budget!",
+            advice.getNumPlayouts() > 100
+    );
+  }
+
+  @Test
+  public void testInterruptedSearchStops() throws InterruptedException {
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(1, PlayoutPolicy.randomSurviving(),
+            0.5, 0);
+    AbstractSoloRedGameModel model = fullGame(2);
+    RuntimeException[] thrown = new RuntimeException[1];
+    Thread caller = new Thread(() -> {
+      try {
+        search.advise(model, 60_000);
+      } catch (RuntimeException e) {
+        thrown[0] = e;
+      }
+    });
+    caller.start();
+    Thread.sleep(50);
+    caller.interrupt();
+    caller.join();
+    Assert.assertTrue(
+            "An interrupted search should say so!",
+            thrown[0] instanceof IllegalStateException
+    );
+
+    // The only thread of the search must have stopped for this search to run at all.
+    Advice advice = search.advise(model, 10);
+    Assert.assertTrue(
+            "The interrupted search should have stopped its thread!",
+            advice.getElapsedNanos() < 10_000_000_000L
+    );
+
+    search.shutdown();
+    Assert.assertThrows(
+            "A shut down search cannot advise.",
+            IllegalStateException.class,
+        () -> search.advise(model, 10)
+    );
+  }
+
+  @Test
+  public void testSearchChecksArguments() {
+    Assert.assertThrows(
+            "A search needs a thread.",
+            IllegalArgumentException.class,
+        () -> new MonteCarloTreeSearch(0, PlayoutPolicy.randomSurviving(), 0.5, 0)
+    );
+    Assert.assertThrows(
+            "A search needs a rollout policy.",
+            IllegalArgumentException.class,
+        () -> new MonteCarloTreeSearch(1, null, 0.5, 0)
+    );
+    Assert.assertThrows(
+            "Exploring cannot have a negative weight.",
+            IllegalArgumentException.class,
+        () -> new MonteCarloTreeSearch(1, PlayoutPolicy.randomSurviving(), -1, 0)
+    );
+
+    MonteCarloTreeSearch search = new MonteCarloTreeSearch(1, PlayoutPolicy.randomSurviving(),
+            0.5, 0);
+    Assert.assertThrows(
+            "A search needs a model.",
+            IllegalArgumentException.class,
+        () -> search.advise(null, 10)
+    );
+    Assert.assertThrows(
+            "A search needs time.",
+            IllegalArgumentException.class,
+        () -> search.advise(fullGame(0), 0)
+    );
+    Assert.assertThrows(
+            "Should not be able to search a game that hasn't started.",
+            IllegalStateException.class,
+        () -> search.advise(new SoloRedGameModel(), 10)
+    );
+  }
+}
@@ -0,0 +1,138 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+
+/**
+ * Tests for the table of lost positions kept outside the heap.
+ */
+public class TestOffHeapTranspositionTable {
+
+  @Test
+  public void testStoresLostPositions() {
+    OffHeapTranspositionTable table = OffHeapTranspositionTable.allocate(1000);
+    Assert.assertEquals(
+            "The capacity should be rounded down to a power of two!",
+            512,
+            table.capacity()
+    );
+    Assert.assertFalse(
+            "An empty table should not know the fingerprint 0!",
+            table.isLost(0L)
+    );
+
+    table.storeLost(-42L, 3);
+    Assert.assertTrue(
+            "A stored position should be found!",
+            table.isLost(-42L)
+    );
+    Assert.assertFalse(
+            "Other positions should still not be found!",
+            table.isLost(42L)
+    );
+  }
+
+  @Test
+  public void testMappedTableOutlivesItsRun() throws IOException {
+    Path file = Files.createTempFile("lost-positions", ".table");
+    try {
+      OffHeapTranspositionTable table = OffHeapTranspositionTable.map(file, 1 << 10);
+      table.storeLost(12345L, 7);
+      table.flush();
+
+      OffHeapTranspositionTable reopened = OffHeapTranspositionTable.map(file, 1 << 10);
+      Assert.assertTrue(
+              "A reopened table should still know its positions!",
+              reopened.isLost(12345L)
+      );
+      Assert.assertThrows(
+              "A table should not be reopened with another capacity!",
+              IllegalArgumentException.class,
+          () -> OffHeapTranspositionTable.map(file, 1 << 11)
+      );
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testMappedTableKeepsVariantsApart() throws IOException {
+    Path file = Files.createTempFile("lost-positions", ".table");
+    try {
+      // The advanced variant cannot win this deal, which the basic game can win.
+      AbstractSoloRedGameModel advanced = new AdvancedSoloRedGameModel(new Random(5));
+      advanced.startGame(advanced.getAllCards(), true, 3, 3);
+      OffHeapTranspositionTable table = OffHeapTranspositionTable.map(file, 1 << 16);
+      Assert.assertFalse(
+              "The advanced variant should not win this deal!",
+              new ParallelRedGameSolver(1, table).solve(advanced).isWinnable()
+      );
+      table.flush();
+
+      AbstractSoloRedGameModel basic = new SoloRedGameModel(new Random(5));
+      basic.startGame(basic.getAllCards(), true, 3, 3);
+      OffHeapTranspositionTable reopened = OffHeapTranspositionTable.map(file, 1 << 16);
+      Assert.assertTrue(
+              "A table saved by one variant should not lose the same deal for another!",
+              new ParallelRedGameSolver(1, reopened).solve(basic).isWinnable()
+      );
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  @Test
+  public void testFileOfOtherVersionIsRefused() throws IOException {
+    Path file = Files.createTempFile("lost-positions", ".table");
+    Path other = Files.createTempFile("lost-positions", ".table");
+    try {
+      OffHeapTranspositionTable.map(file, 1 << 10).flush();
+      // A file of the right size, but without the magic number of this version.
+      Files.write(other, new byte[(int) Files.size(file)]);
+      Assert.assertThrows(
+              "A file without the magic number of this version should be refused!",
+              IllegalArgumentException.class,
+          () -> OffHeapTranspositionTable.map(other, 1 << 10)
+      );
+    } finally {
+      Files.deleteIfExists(file);
+      Files.deleteIfExists(other);
+    }
+  }
+
+  @Test
+  public void testSolverCanUseOffHeapTable() {
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(0));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    ParallelRedGameSolver solver =
+            new ParallelRedGameSolver(2, OffHeapTranspositionTable.allocate(1 << 16));
+
+    Assert.assertTrue(
+            "This game should be winnable with an off-heap table too!",
+            solver.solve(model).isWinnable()
+    );
+  }
+
+  @Test
+  public void testCapacityIsChecked() {
+    Assert.assertThrows(
+            "A table needs room for at least one bucket!",
+            IllegalArgumentException.class,
+        () -> OffHeapTranspositionTable.allocate(2)
+    );
+    Assert.assertThrows(
+            "A table needs a file to be mapped from!",
+            IllegalArgumentException.class,
+        () -> OffHeapTranspositionTable.map(null, 64)
+    );
+  }
+}
@@ -0,0 +1,70 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+
+/**
+ * Tests for the parallel solver, checking its answers against the single-threaded solver and by
+ * playing them out on the model.
+ */
+public class TestParallelRedGameSolver {
+
+  @Test
+  public void testAgreesWithSingleThreadedSolver() {
+    ParallelRedGameSolver solver = new ParallelRedGameSolver(4, new TranspositionTable(1 << 16));
+    SolverChecks.checkAgreesWithRedGameSolver(solver::solve, 10);
+  }
+
+  @Test
+  public void testSharedTableKeepsVariantsApart() {
+    // The advanced variant cannot win these deals, which the basic game can win.
+    ParallelRedGameSolver solver = new ParallelRedGameSolver(2, new TranspositionTable(1 << 16));
+    for (int seed : new int[] {5, 8}) {
+      AbstractSoloRedGameModel advanced = new AdvancedSoloRedGameModel(new Random(seed));
+      advanced.startGame(advanced.getAllCards(), true, 3, 3);
+      AbstractSoloRedGameModel basic = new SoloRedGameModel(new Random(seed));
+      basic.startGame(basic.getAllCards(), true, 3, 3);
+
+      Assert.assertFalse(
+              "The advanced variant should not win deal " + seed + "!",
+              solver.solve(advanced).isWinnable()
+      );
+      Assert.assertTrue(
+              "Lost positions of the advanced variant should not lose deal " + seed
+                      + " of the basic game!",
+              solver.solve(basic).isWinnable()
+      );
+    }
+  }
+
+  @Test
+  public void testFindsUnwinnableGame() {
+    SolverChecks.checkFindsUnwinnableGame(
+            new ParallelRedGameSolver(2, new TranspositionTable(64))::solve);
+  }
+
+  @Test
+  public void testConstructorChecksArguments() {
+    Assert.assertThrows(
+            "A solver needs at least one thread.",
+            IllegalArgumentException.class,
+        () -> new ParallelRedGameSolver(0, new TranspositionTable(64))
+    );
+    Assert.assertThrows(
+            "A solver needs a table.",
+            IllegalArgumentException.class,
+        () -> new ParallelRedGameSolver(1, null)
+    );
+    Assert.assertThrows(
+            "Should not be able to solve a game that hasn't started.",
+            IllegalStateException.class,
+        () -> new ParallelRedGameSolver().solve(new SoloRedGameModel())
+    );
+  }
+}
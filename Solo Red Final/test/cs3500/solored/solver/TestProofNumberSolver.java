@@ -0,0 +1,84 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.CardColor;
+import cs3500.solored.model.hw02.CardImpl;
+import cs3500.solored.model.hw02.CardNumber;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+
+/**
+ * Tests for the proof-number solver, checking its answers against the depth-first solver and by
+ * playing them out on the model.
+ */
+public class TestProofNumberSolver {
+
+  @Test
+  public void testAgreesWithDepthFirstSolver() {
+    SolverChecks.checkAgreesWithRedGameSolver(new ProofNumberSolver()::solve, 40);
+  }
+
+  @Test
+  public void testSolvesDefaultGame() {
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(0));
+    model.startGame(model.getAllCards(), true, 4, 7);
+
+    Solution solution = new ProofNumberSolver().solve(model);
+    Assert.assertTrue(
+            "This game should be winnable!",
+            solution.isWinnable()
+    );
+    Assert.assertFalse(
+            "Solving should not change the game!",
+            model.isGameOver()
+    );
+    GameFixtures.playLine(model, solution.getLine());
+    Assert.assertTrue(
+            "Playing the solution should win the game!",
+            model.isGameOver() && model.isGameWon()
+    );
+  }
+
+  @Test
+  public void testFindsUnwinnableGame() {
+    SolverChecks.checkFindsUnwinnableGame(new ProofNumberSolver()::solve);
+  }
+
+  @Test
+  public void testSolvesFinishedGame() {
+    // P2 takes the lead with R2, which ends the game with a win.
+    List<CardImpl> deck = new ArrayList<>();
+    deck.add(new CardImpl(CardColor.RED, CardNumber.THREE));
+    deck.add(new CardImpl(CardColor.RED, CardNumber.ONE));
+    deck.add(new CardImpl(CardColor.ORANGE, CardNumber.SEVEN));
+    AbstractSoloRedGameModel model = new SoloRedGameModel();
+    model.startGame(deck, false, 2, 1);
+    model.playToPalette(1, 0);
+
+    Assert.assertTrue(
+            "A game that was won is winnable!",
+            new ProofNumberSolver().solve(model).isWinnable()
+    );
+  }
+
+  @Test
+  public void testSolveChecksModel() {
+    Assert.assertThrows(
+            "Should not be able to solve a null model.",
+            IllegalArgumentException.class,
+        () -> new ProofNumberSolver().solve(null)
+    );
+    Assert.assertThrows(
+            "Should not be able to solve a game that hasn't started.",
+            IllegalStateException.class,
+        () -> new ProofNumberSolver().solve(new SoloRedGameModel())
+    );
+  }
+}
@@ -0,0 +1,90 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the table of proof and disproof numbers, and the set of keys it is built on.
+ */
+public class TestProofTable {
+
+  @Test
+  public void testNumbersFollowKeysWhenTableGrows() {
+    ProofTable table = new ProofTable(2);
+    int initialCapacity = table.capacity();
+    long[] key = new long[2];
+    for (int i = 0; i < 10_000; i++) {
+      key[0] = i;
+      key[1] = -i;
+      table.put(key, i, 3 * i);
+    }
+    Assert.assertTrue(
+            "Adding many keys should grow the table!",
+            table.capacity() > initialCapacity
+    );
+    Assert.assertEquals(
+            "Every key should be kept once!",
+            10_000,
+            table.size()
+    );
+    for (int i = 0; i < 10_000; i++) {
+      key[0] = i;
+      key[1] = -i;
+      Assert.assertEquals(
+              "The proof number should move with its key!",
+              i,
+              table.proofNumber(key)
+      );
+      Assert.assertEquals(
+              "The disproof number should move with its key!",
+              3 * i,
+              table.disproofNumber(key)
+      );
+    }
+  }
+
+  @Test
+  public void testPutReplacesNumbers() {
+    ProofTable table = new ProofTable(1);
+    long[] key = {42L};
+    table.put(key, 1, 1);
+    table.put(key, 0, ProofNumberSolver.INFINITY);
+    Assert.assertEquals(
+            "Storing a key again should not add it twice!",
+            1,
+            table.size()
+    );
+    Assert.assertEquals(
+            "Storing a key again should replace its numbers!",
+            0,
+            table.proofNumber(key)
+    );
+    Assert.assertThrows(
+            "A key that was never stored has no numbers.",
+            IllegalArgumentException.class,
+        () -> table.proofNumber(new long[] {7L})
+    );
+  }
+
+  @Test
+  public void testSlotOfKeyIsStableUntilGrowth() {
+    PositionSet set = new PositionSet(1);
+    long[] key = {99L};
+    Assert.assertEquals(
+            "A key that was never added has no slot!",
+            -1,
+            set.indexOf(key)
+    );
+    int slot = set.add(key);
+    Assert.assertEquals(
+            "A key should be found in the slot it was added to!",
+            slot,
+            set.indexOf(key)
+    );
+    Assert.assertEquals(
+            "Adding a key again should return its slot!",
+            slot,
+            set.add(key)
+    );
+  }
+}
@@ -0,0 +1,131 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.CardColor;
+import cs3500.solored.model.hw02.CardImpl;
+import cs3500.solored.model.hw02.CardNumber;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.model.hw04.AdvancedSoloRedGameModel;
+import cs3500.solored.view.hw02.SoloRedGameTextView;
+
+/**
+ * Tests for the exhaustive solver, checking its answers by playing them out on the model.
+ */
+public class TestRedGameSolver {
+  RedGameSolver solver;
+
+  @Before
+  public void initSolver() {
+    solver = new RedGameSolver();
+  }
+
+  @Test
+  public void testSolvesDefaultGame() {
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(0));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    String before = new SoloRedGameTextView(model).toString();
+
+    Solution solution = solver.solve(model);
+    Assert.assertTrue(
+            "This game should be winnable!",
+            solution.isWinnable()
+    );
+    Assert.assertEquals(
+            "Solving should not change the model!",
+            before,
+            new SoloRedGameTextView(model).toString()
+    );
+
+    GameFixtures.playLine(model, solution.getLine());
+    Assert.assertTrue(
+            "Playing the solution should win the game!",
+            model.isGameOver() && model.isGameWon()
+    );
+  }
+
+  @Test
+  public void testSolvesAdvancedGame() {
+    AbstractSoloRedGameModel model = new AdvancedSoloRedGameModel(new Random(3));
+    model.startGame(model.getAllCards(), true, 4, 7);
+
+    Solution solution = solver.solve(model);
+    Assert.assertTrue(
+            "This game should be winnable!",
+            solution.isWinnable()
+    );
+    GameFixtures.playLine(model, solution.getLine());
+    Assert.assertTrue(
+            "Playing the solution should win the advanced game, with its extra draws!",
+            model.isGameOver() && model.isGameWon()
+    );
+  }
+
+  @Test
+  public void testFindsUnwinnableGame() {
+    // P1 starts with R3, and the only card left, R2, cannot beat it.
+    List<CardImpl> deck = new ArrayList<>();
+    deck.add(new CardImpl(CardColor.RED, CardNumber.THREE));
+    deck.add(new CardImpl(CardColor.RED, CardNumber.ONE));
+    deck.add(new CardImpl(CardColor.RED, CardNumber.TWO));
+    AbstractSoloRedGameModel model = new SoloRedGameModel();
+    model.startGame(deck, false, 2, 1);
+
+    Solution solution = solver.solve(model);
+    Assert.assertFalse(
+            "This game should not be winnable!",
+            solution.isWinnable()
+    );
+    Assert.assertEquals(
+            "An unwinnable game should have no line!",
+            0,
+            solution.getLine().length
+    );
+    Assert.assertEquals(
+            "An unwinnable game should say so!",
+            "unwinnable",
+            solution.toString()
+    );
+  }
+
+  @Test
+  public void testSolvesFromMidGame() {
+    AbstractSoloRedGameModel model = new SoloRedGameModel(new Random(0));
+    model.startGame(model.getAllCards(), true, 4, 7);
+    int[] line = solver.solve(model).getLine();
+    GameFixtures.playLine(model, new int[] {line[0], line[1]});
+
+    Solution solution = solver.solve(model);
+    Assert.assertTrue(
+            "Following a winning line should keep the game winnable!",
+            solution.isWinnable()
+    );
+    GameFixtures.playLine(model, solution.getLine());
+    Assert.assertTrue(
+            "Playing the solution should win the game!",
+            model.isGameWon()
+    );
+  }
+
+  @Test
+  public void testSolveNeedsStartedGame() {
+    Assert.assertThrows(
+            "Should not be able to solve a null model.",
+            IllegalArgumentException.class,
+        () -> solver.solve(null)
+    );
+    Assert.assertThrows(
+            "Should not be able to solve a game that hasn't started.",
+            IllegalStateException.class,
+        () -> solver.solve(new SoloRedGameModel())
+    );
+  }
+}
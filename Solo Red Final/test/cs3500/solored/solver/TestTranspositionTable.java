@@ -0,0 +1,92 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests for the lock-free table of lost positions.
+ */
+public class TestTranspositionTable {
+
+  @Test
+  public void testStoresLostPositions() {
+    TranspositionTable table = new TranspositionTable(1 << 10);
+    Assert.assertFalse(
+            "An empty table should know no positions!",
+            table.isLost(12345L)
+    );
+    // An empty slot must not look like a stored fingerprint of 0.
+    Assert.assertFalse(
+            "An empty table should not know the fingerprint 0!",
+            table.isLost(0L)
+    );
+
+    table.storeLost(12345L, 10);
+    Assert.assertTrue(
+            "A stored position should be found!",
+            table.isLost(12345L)
+    );
+    Assert.assertFalse(
+            "Other positions should still not be found!",
+            table.isLost(54321L)
+    );
+  }
+
+  @Test
+  public void testCapacityIsPowerOfTwo() {
+    Assert.assertEquals(
+            "The capacity should be rounded down to a power of two!",
+            512,
+            new TranspositionTable(1000).capacity()
+    );
+    Assert.assertThrows(
+            "A table needs room for at least one bucket!",
+            IllegalArgumentException.class,
+        () -> new TranspositionTable(3)
+    );
+  }
+
+  @Test
+  public void testReplacesShallowestPosition() {
+    // A table of four positions is a single bucket, so every position competes for it.
+    TranspositionTable table = new TranspositionTable(4);
+    table.storeLost(1L, 5);
+    table.storeLost(2L, 1);
+    table.storeLost(3L, 7);
+    table.storeLost(4L, 6);
+    table.storeLost(5L, 3);
+
+    Assert.assertFalse(
+            "The shallowest position should make room!",
+            table.isLost(2L)
+    );
+    Assert.assertTrue(
+            "Deeper positions should be kept!",
+            table.isLost(1L) && table.isLost(3L) && table.isLost(4L) && table.isLost(5L)
+    );
+  }
+
+  @Test
+  public void testReplacesOlderSearchFirst() {
+    TranspositionTable table = new TranspositionTable(4);
+    table.storeLost(1L, 20);
+    table.newSearch();
+    table.storeLost(2L, 1);
+    table.storeLost(3L, 2);
+    table.storeLost(4L, 3);
+    Assert.assertTrue(
+            "Positions of earlier searches should still be found!",
+            table.isLost(1L)
+    );
+
+    table.storeLost(5L, 4);
+    Assert.assertFalse(
+            "The position from the earlier search should make room, however deep!",
+            table.isLost(1L)
+    );
+    Assert.assertTrue(
+            "Positions of the current search should be kept!",
+            table.isLost(2L) && table.isLost(5L)
+    );
+  }
+}
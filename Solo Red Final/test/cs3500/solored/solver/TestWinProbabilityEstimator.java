@@ -0,0 +1,166 @@
+package cs3500.solored.solver;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import cs3500.solored.GameFixtures;
+import cs3500.solored.model.hw02.AbstractSoloRedGameModel;
+import cs3500.solored.model.hw02.RedMove;
+import cs3500.solored.model.hw02.SoloRedGameModel;
+import cs3500.solored.simulation.PlayoutPolicy;
+
+/**
+ * Tests for the perfect-information Monte Carlo win estimator, in both variants.
+ */
+public class TestWinProbabilityEstimator {
+
+  /**
+   * Starts a game of the given seed with the given number of cards and three palettes,
+   * alternating between the variants.
+   * @param seed The seed of the game.
+   * @param numCards The number of cards to deal the game from.
+   * @param handSize The size of the hand.
+   * @return The started game.
+   */
+  private static AbstractSoloRedGameModel game(int seed, int numCards, int handSize) {
+    return GameFixtures.dealtGame(seed, numCards, 3, handSize);
+  }
+
+  @Test
+  public void testNoHiddenCardsIsExact() {
+    WinProbabilityEstimator estimator = new WinProbabilityEstimator(2, 1_000_000,
+            PlayoutPolicy.randomSurviving(), 0);
+    for (int seed = 0; seed < 20; seed++) {
+      // Every card is dealt, so there is nothing to sample.
+      AbstractSoloRedGameModel model = game(seed, 10, 7);
+      WinEstimate estimate = estimator.estimate(model, 4, 10_000);
+      for (int i = 0; i < estimate.getNumMoves(); i++) {
+        int move = estimate.getMove(i);
+        AbstractSoloRedGameModel after = model.fork();
+        if (RedMove.isCanvas(move)) {
+          after.playToCanvas(RedMove.cardIdxInHand(move));
+        } else {
+          after.playToPalette(RedMove.paletteIdx(move), RedMove.cardIdxInHand(move));
+        }
+        boolean winnable = after.isGameOver()
+                ? after.isGameWon()
+                : new RedGameSolver().solve(after).isWinnable();
+        Assert.assertEquals(
+                "With nothing hidden, " + RedMove.toString(move) + " in game " + seed
+                        + " should be solved exactly!",
+                winnable ? 1.0 : 0.0,
+                estimate.getWinProbability(i),
+                0
+        );
+      }
+    }
+  }
+
+  @Test
+  public void testEstimateIsConsistent() {
+    WinProbabilityEstimator estimator = new WinProbabilityEstimator(2, 500,
+            PlayoutPolicy.randomSurviving(), 0);
+    for (int seed = 0; seed < 6; seed++) {
+      AbstractSoloRedGameModel model = game(seed, 18, 4);
+      long fingerprint = model.fingerprint();
+      WinEstimate estimate = estimator.estimate(model, 40, 10_000);
+
+      Assert.assertEquals(
+              "Every legal play should be estimated!",
+              model.numLegalMoves(),
+              estimate.getNumMoves()
+      );
+      Assert.assertTrue(
+              "No more samples should be taken than allowed!",
+              estimate.getNumSamples() > 0 && estimate.getNumSamples() <= 40
+      );
+      double best = 0;
+      for (int i = 0; i < estimate.getNumMoves(); i++) {
+        double chance = estimate.getWinProbability(i);
+        Assert.assertTrue(
+                "A chance should lie inside its interval!",
+                estimate.getLowerBound(i) <= chance && chance <= estimate.getUpperBound(i)
+        );
+        if (estimate.getMove(i) == estimate.getBestMove()) {
+          best = chance;
+        }
+      }
+      for (int i = 0; i < estimate.getNumMoves(); i++) {
+        Assert.assertTrue(
+                "No play should beat the best play!",
+                estimate.getWinProbability(i) <= best
+        );
+      }
+      Assert.assertEquals(
+              "Estimating should not change game " + seed + "!",
+              fingerprint,
+              model.fingerprint()
+      );
+      Assert.assertFalse(
+              "Estimating should not leave moves to undo!",
+              model.canUndo()
+      );
+    }
+  }
+
+  @Test
+  public void testEstimatorChecksArguments() {
+    Assert.assertThrows(
+            "An estimator needs a thread.",
+            IllegalArgumentException.class,
+        () -> new WinProbabilityEstimator(0, 100, PlayoutPolicy.randomSurviving(), 0)
+    );
+    Assert.assertThrows(
+            "A solve needs a position.",
+            IllegalArgumentException.class,
+        () -> new WinProbabilityEstimator(1, 0, PlayoutPolicy.randomSurviving(), 0)
+    );
+    Assert.assertThrows(
+            "An estimator needs a fallback policy.",
+            IllegalArgumentException.class,
+        () -> new WinProbabilityEstimator(1, 100, null, 0)
+    );
+
+    WinProbabilityEstimator estimator = new WinProbabilityEstimator();
+    Assert.assertThrows(
+            "An estimate needs a model.",
+            IllegalArgumentException.class,
+        () -> estimator.estimate(null, 10, 10)
+    );
+    Assert.assertThrows(
+            "An estimate needs a sample.",
+            IllegalArgumentException.class,
+        () -> estimator.estimate(game(0, 18, 4), 0, 10)
+    );
+    Assert.assertThrows(
+            "An estimate needs time.",
+            IllegalArgumentException.class,
+        () -> estimator.estimate(game(0, 18, 4), 10, 0)
+    );
+    Assert.assertThrows(
+            "Should not be able to estimate a game that hasn't started.",
+            IllegalStateException.class,
+        () -> estimator.estimate(new SoloRedGameModel(), 10, 10)
+    );
+  }
+
+  @Test
+  public void testThreadsAreReusedUntilShutdown() {
+    WinProbabilityEstimator estimator = new WinProbabilityEstimator(2, 500,
+            PlayoutPolicy.randomSurviving(), 0);
+    AbstractSoloRedGameModel model = game(3, 18, 4);
+    for (int i = 0; i < 20; i++) {
+      Assert.assertTrue(
+              "Every estimate should sample the game!",
+              estimator.estimate(model, 5, 10_000).getNumSamples() > 0
+      );
+    }
+
+    estimator.shutdown();
+    Assert.assertThrows(
+            "A shut down estimator cannot estimate.",
+            IllegalStateException.class,
+        () -> estimator.estimate(model, 5, 10_000)
+    );
+  }
+}
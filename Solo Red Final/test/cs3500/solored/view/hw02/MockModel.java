@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import cs3500.solored.model.hw02.Card;
+import cs3500.solored.model.hw02.MoveStatus;
 import cs3500.solored.model.hw02.RedGameModel;
 
 /**
@@ -89,6 +90,31 @@ public class MockModel implements RedGameModel {
     // Unused, only exists to satisfy implementation requirements.
   }
 
+  /**
+   * Tries to play the given card from the hand to the losing palette chosen.
+   *
+   * @param paletteIdx    a 0-index number representing which palette to play to
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return why the card could not be played
+   */
+  @Override
+  public MoveStatus tryPlayToPalette(int paletteIdx, int cardIdxInHand) {
+    // Unused, only exists to satisfy implementation requirements.
+    return MoveStatus.NOT_RUNNING;
+  }
+
+  /**
+   * Tries to play the given card from the hand to the canvas.
+   *
+   * @param cardIdxInHand a 0-index number representing the card to play from the hand
+   * @return why the card could not be played
+   */
+  @Override
+  public MoveStatus tryPlayToCanvas(int cardIdxInHand) {
+    // Unused, only exists to satisfy implementation requirements.
+    return MoveStatus.NOT_RUNNING;
+  }
+
   /**
    * Draws cards from the deck until the hand is full
    * OR until the deck is empty, whichever occurs first. Newly drawn cards